@@ -24,6 +24,8 @@ dependencies {
     // Remapping classes in paper 1.20.5+
     implementation("xyz.jpenilla:reflection-remapper:0.1.2")
 
+    testImplementation("org.spigotmc:spigot-api:1.12.2-R0.1-SNAPSHOT")
+    testImplementation(project(":testing"))
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.10.2")
     testImplementation("org.junit.jupiter:junit-jupiter-params:5.10.2")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.10.2")
@@ -76,6 +78,25 @@ tasks {
     test {
         useJUnitPlatform()
     }
+
+    // The library targets Java 8, but AccessorBackend.HIDDEN_CLASS only works on Java 15+
+    val testJava17 by registering(Test::class) {
+        description = "Runs the accessor tests on Java 17, to cover hidden classes."
+        group = "verification"
+        useJUnitPlatform()
+        testClassesDirs = sourceSets.test.get().output.classesDirs
+        classpath = sourceSets.test.get().runtimeClasspath
+        javaLauncher.set(project.javaToolchains.launcherFor {
+            languageVersion.set(JavaLanguageVersion.of(17))
+        })
+        filter {
+            includeTestsMatching("com.cjcrafter.foliascheduler.util.AccessorBackendTest")
+        }
+    }
+
+    check {
+        dependsOn(testJava17)
+    }
 }
 
 
@@ -0,0 +1,39 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+repositories {
+    mavenCentral()
+    maven("https://hub.spigotmc.org/nexus/content/repositories/public/")
+}
+
+dependencies {
+    jmh(project(":"))
+    jmh(project(":spigot"))
+    jmh(project(":testing"))
+    jmh("org.spigotmc:spigot-api:1.12.2-R0.1-SNAPSHOT")
+    jmh("org.jetbrains:annotations:26.0.2")
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(8))
+    }
+}
+
+// Run with `./gradlew :jmh:jmh`, or pick benchmarks with `-Pjmh.includes=Scheduler`.
+// Add `-Pjmh.java=17` to fork a newer JVM, which the hidden class accessors need.
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.add("gc")
+    (findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+    (findProperty("jmh.java") as String?)?.let { version ->
+        jvm.set(javaToolchains.launcherFor {
+            languageVersion.set(JavaLanguageVersion.of(version.toInt()))
+        }.map { it.executablePath.asFile.absolutePath })
+    }
+    resultFormat.set("JSON")
+}
@@ -0,0 +1,178 @@
+package com.cjcrafter.foliascheduler.jmh;
+
+import com.cjcrafter.foliascheduler.TaskGroup;
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import com.cjcrafter.foliascheduler.bukkit.BukkitSyncScheduler;
+import com.cjcrafter.foliascheduler.bukkit.BukkitTask;
+import com.cjcrafter.foliascheduler.testing.Stubs;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures the Spigot platform's own classes, {@link BukkitSyncScheduler} and
+ * the {@link BukkitTask} wrapper, on top of a stub {@link BukkitScheduler}
+ * that only queues tasks. Unlike {@link SchedulerBenchmark}, this includes
+ * the wrapper's lock, the {@link BukkitRunnable} per task and the
+ * {@link TaskGroup} that tracks every global task.
+ *
+ * <p>Folia's {@code FoliaTask} is not measured. The Folia platform needs
+ * Java 17 and the Paper API, and this module builds for Java 8 against
+ * Spigot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BukkitTaskBenchmark {
+
+    private static final int BATCH = 1000;
+
+    private QueuedScheduler scheduler;
+    private BukkitSyncScheduler global;
+    private TaskImplementation<?>[] tasks;
+
+    @Setup
+    public void setup() {
+        scheduler = QueuedScheduler.install();
+        global = new BukkitSyncScheduler(Stubs.plugin("Benchmark"));
+        tasks = new TaskImplementation<?>[BATCH];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void globalRun() {
+        for (int i = 0; i < BATCH; i++)
+            global.run(task -> null);
+        scheduler.tick();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void globalExecute() {
+        for (int i = 0; i < BATCH; i++)
+            global.execute(() -> { });
+        scheduler.tick();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void futureCompletion(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++)
+            tasks[i] = global.run(task -> null);
+        scheduler.tick();
+        for (TaskImplementation<?> task : tasks)
+            blackhole.consume(task.asFuture().join());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void cancelDelayed() {
+        for (int i = 0; i < BATCH; i++)
+            tasks[i] = global.runDelayed(task -> null, 1000L);
+        for (TaskImplementation<?> task : tasks)
+            task.cancel();
+
+        // Removes the cancelled tasks, so the queue does not grow
+        scheduler.tick();
+    }
+
+    /**
+     * Queues every task until the next {@link #tick()}, ignoring delays. The
+     * benchmarks never schedule repeating tasks, so each task runs once.
+     */
+    private static final class QueuedScheduler {
+
+        private static final @NotNull QueuedScheduler INSTANCE = new QueuedScheduler();
+
+        private final @NotNull Queue<QueuedTask> queue = new ArrayDeque<>();
+        private final @NotNull BukkitScheduler stub = (BukkitScheduler) Proxy.newProxyInstance(
+            BukkitScheduler.class.getClassLoader(), new Class<?>[]{BukkitScheduler.class}, (proxy, method, args) -> {
+                if (!method.getName().startsWith("runTask"))
+                    throw new UnsupportedOperationException(method.getName());
+
+                QueuedTask task = new QueuedTask((Plugin) args[0], (Runnable) args[1], queue.size());
+                queue.add(task);
+                return task;
+            });
+
+        static @NotNull QueuedScheduler install() {
+            // Bukkit's server is a singleton, so it can only be set once per fork
+            if (Bukkit.getServer() == null) {
+                Logger logger = Logger.getLogger("Benchmark");
+                Bukkit.setServer((Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[]{Server.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getScheduler"))
+                        return INSTANCE.stub;
+                    if (method.getName().equals("getLogger"))
+                        return logger;
+                    return null;
+                }));
+            }
+            INSTANCE.queue.clear();
+            return INSTANCE;
+        }
+
+        void tick() {
+            QueuedTask task;
+            while ((task = queue.poll()) != null) {
+                if (!task.cancelled)
+                    task.runnable.run();
+            }
+        }
+    }
+
+    private static final class QueuedTask implements org.bukkit.scheduler.BukkitTask {
+        private final @NotNull Plugin owner;
+        private final @NotNull Runnable runnable;
+        private final int taskId;
+        private boolean cancelled;
+
+        QueuedTask(@NotNull Plugin owner, @NotNull Runnable runnable, int taskId) {
+            this.owner = owner;
+            this.runnable = runnable;
+            this.taskId = taskId;
+        }
+
+        @Override
+        public int getTaskId() {
+            return taskId;
+        }
+
+        @Override
+        public @NotNull Plugin getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean isSync() {
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.cjcrafter.foliascheduler.jmh;
+
+import com.cjcrafter.foliascheduler.AsyncSchedulerImplementation;
+import com.cjcrafter.foliascheduler.CancellationToken;
+import com.cjcrafter.foliascheduler.ExecutorAsyncScheduler;
+import com.cjcrafter.foliascheduler.OverflowPolicy;
+import com.cjcrafter.foliascheduler.TaskGroup;
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import com.cjcrafter.foliascheduler.testing.Stubs;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the library's shared state when many threads submit at once. The
+ * tasks run on the submitting thread, so only the library's own bookkeeping
+ * (task objects, futures, queue depth counters, groups and tokens) is
+ * measured, not a thread pool.
+ *
+ * <p>Only {@link ExecutorAsyncScheduler}, and the bounded scheduler on top of
+ * it, is measured. The Bukkit and Folia async schedulers are not.
+ */
+@State(Scope.Benchmark)
+@Threads(8)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentionBenchmark {
+
+    private static final Plugin PLUGIN = Stubs.plugin("Benchmark");
+
+    private AsyncSchedulerImplementation direct;
+    private AsyncSchedulerImplementation bounded;
+    private TaskGroup group;
+    private CancellationToken token;
+
+    @Setup
+    public void setup() {
+        direct = new ExecutorAsyncScheduler(PLUGIN, "benchmark", Runnable::run);
+        bounded = direct.bounded(Integer.MAX_VALUE, 1024, OverflowPolicy.CALLER_RUNS);
+        group = new TaskGroup("benchmark");
+        token = new CancellationToken();
+    }
+
+    @Benchmark
+    public TaskImplementation<Object> executorRunNow() {
+        return direct.runNow(task -> null);
+    }
+
+    @Benchmark
+    public TaskImplementation<Object> boundedRunNow() {
+        return bounded.runNow(task -> null);
+    }
+
+    @Benchmark
+    public boolean groupAddRemove(PendingTask pending) {
+        group.add(pending.task);
+        return group.remove(pending.task);
+    }
+
+    @Benchmark
+    public TaskImplementation<Object> tokenGuard() {
+        // Not link(), since linked tasks stay in the token until it is cancelled
+        return direct.runNow(token.guard(task -> null));
+    }
+
+    /**
+     * A task that never runs, so it stays in a group until it is removed.
+     */
+    @State(Scope.Thread)
+    public static class PendingTask {
+        private TaskImplementation<Object> task;
+
+        @Setup
+        public void setup() {
+            ExecutorAsyncScheduler never = new ExecutorAsyncScheduler(PLUGIN, "pending", command -> { });
+            task = never.runNow(t -> null);
+        }
+    }
+}
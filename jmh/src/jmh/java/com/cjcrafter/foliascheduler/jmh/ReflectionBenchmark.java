@@ -0,0 +1,256 @@
+package com.cjcrafter.foliascheduler.jmh;
+
+import com.cjcrafter.foliascheduler.util.AccessorBackend;
+import com.cjcrafter.foliascheduler.util.ConstructorInvoker;
+import com.cjcrafter.foliascheduler.util.FieldAccessor;
+import com.cjcrafter.foliascheduler.util.MethodInvoker;
+import com.cjcrafter.foliascheduler.util.ReflectionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link FieldAccessor}, {@link MethodInvoker} and
+ * {@link ConstructorInvoker} against direct calls, raw core reflection, and
+ * {@link MethodHandle}s, for both the cost of each call and the cost of
+ * looking up the member through {@link ReflectionUtil}.
+ *
+ * <p>The {@code Best} benchmarks use {@link AccessorBackend#getBest()}, so
+ * they measure a different backend depending on the JVM running them. This
+ * module builds for Java 8, where that is plain reflection; run with
+ * {@code -Pjmh.java=17} to measure the hidden class accessors.
+ *
+ * <p>Method handles are measured twice: stored in {@code static final}
+ * fields, where the JIT can inline them like a direct call, and stored in
+ * instance fields, which is how a library usually holds them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReflectionBenchmark {
+
+    private static final MethodHandle STATIC_GETTER;
+    private static final MethodHandle STATIC_METHOD;
+    private static final MethodHandle STATIC_CONSTRUCTOR;
+
+    static {
+        try {
+            // The members are private, like most NMS members, so they must be
+            // made accessible before they are unreflected
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Field field = Target.class.getDeclaredField("value");
+            field.setAccessible(true);
+            Method method = Target.class.getDeclaredMethod("add", int.class);
+            method.setAccessible(true);
+            Constructor<Target> constructor = Target.class.getDeclaredConstructor(int.class);
+            constructor.setAccessible(true);
+
+            STATIC_GETTER = lookup.unreflectGetter(field);
+            STATIC_METHOD = lookup.unreflect(method);
+            STATIC_CONSTRUCTOR = lookup.unreflectConstructor(constructor);
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private Target target;
+
+    private FieldAccessor fieldAccessor;
+    private MethodInvoker methodInvoker;
+    private ConstructorInvoker<Target> constructorInvoker;
+    private FieldAccessor bestFieldAccessor;
+    private MethodInvoker bestMethodInvoker;
+
+    private Field field;
+    private Method method;
+    private Constructor<Target> constructor;
+
+    private MethodHandle getter;
+    private MethodHandle methodHandle;
+    private MethodHandle constructorHandle;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        target = new Target(42);
+
+        fieldAccessor = ReflectionUtil.getField(Target.class, "value");
+        methodInvoker = ReflectionUtil.getMethod(Target.class, "add", int.class);
+        constructorInvoker = ReflectionUtil.getConstructor(Target.class, int.class);
+        bestFieldAccessor = AccessorBackend.getBest().field(fieldAccessor);
+        bestMethodInvoker = AccessorBackend.getBest().method(methodInvoker);
+
+        field = Target.class.getDeclaredField("value");
+        field.setAccessible(true);
+        method = Target.class.getDeclaredMethod("add", int.class);
+        method.setAccessible(true);
+        constructor = Target.class.getDeclaredConstructor(int.class);
+        constructor.setAccessible(true);
+
+        getter = STATIC_GETTER;
+        methodHandle = STATIC_METHOD;
+        constructorHandle = STATIC_CONSTRUCTOR;
+    }
+
+    // --- Field reads ---
+
+    @Benchmark
+    public int fieldDirect() {
+        return target.value;
+    }
+
+    @Benchmark
+    public int fieldAccessor() {
+        return fieldAccessor.getInt(target);
+    }
+
+    @Benchmark
+    public Object fieldAccessorBoxed() {
+        return fieldAccessor.get(target);
+    }
+
+    @Benchmark
+    public Object fieldAccessorBest() {
+        return bestFieldAccessor.get(target);
+    }
+
+    @Benchmark
+    public int fieldReflection() throws IllegalAccessException {
+        return field.getInt(target);
+    }
+
+    @Benchmark
+    public int fieldHandleConstant() throws Throwable {
+        return (int) STATIC_GETTER.invokeExact(target);
+    }
+
+    @Benchmark
+    public int fieldHandle() throws Throwable {
+        return (int) getter.invokeExact(target);
+    }
+
+    // --- Method calls ---
+
+    @Benchmark
+    public int methodDirect() {
+        return target.add(1);
+    }
+
+    @Benchmark
+    public Object methodInvoker() {
+        return methodInvoker.invoke(target, 1);
+    }
+
+    @Benchmark
+    public Object methodInvokerBest() {
+        return bestMethodInvoker.invoke(target, 1);
+    }
+
+    @Benchmark
+    public Object methodReflection() throws ReflectiveOperationException {
+        return method.invoke(target, 1);
+    }
+
+    @Benchmark
+    public int methodHandleConstant() throws Throwable {
+        return (int) STATIC_METHOD.invokeExact(target, 1);
+    }
+
+    @Benchmark
+    public int methodHandle() throws Throwable {
+        return (int) methodHandle.invokeExact(target, 1);
+    }
+
+    // --- Constructors ---
+
+    @Benchmark
+    public Target constructorDirect() {
+        return new Target(1);
+    }
+
+    @Benchmark
+    public Target constructorInvoker() {
+        return constructorInvoker.newInstance(1);
+    }
+
+    @Benchmark
+    public Target constructorReflection() throws ReflectiveOperationException {
+        return constructor.newInstance(1);
+    }
+
+    @Benchmark
+    public Target constructorHandleConstant() throws Throwable {
+        return (Target) STATIC_CONSTRUCTOR.invokeExact(1);
+    }
+
+    @Benchmark
+    public Target constructorHandle() throws Throwable {
+        return (Target) constructorHandle.invokeExact(1);
+    }
+
+    // --- Lookups ---
+
+    @Benchmark
+    public FieldAccessor lookupFieldByName() {
+        return ReflectionUtil.getField(Target.class, "value");
+    }
+
+    @Benchmark
+    public FieldAccessor lookupFieldByType() {
+        return ReflectionUtil.getField(Target.class, int.class);
+    }
+
+    @Benchmark
+    public MethodInvoker lookupMethodByName() {
+        return ReflectionUtil.getMethod(Target.class, "add", int.class);
+    }
+
+    @Benchmark
+    public MethodInvoker lookupMethodByType() {
+        return ReflectionUtil.getMethod(Target.class, int.class, int.class);
+    }
+
+    @Benchmark
+    public ConstructorInvoker<Target> lookupConstructor() {
+        return ReflectionUtil.getConstructor(Target.class, int.class);
+    }
+
+    @Benchmark
+    public Field lookupFieldReflection() throws ReflectiveOperationException {
+        return Target.class.getDeclaredField("value");
+    }
+
+    @Benchmark
+    public MethodHandle lookupMethodHandle() throws ReflectiveOperationException {
+        Method method = Target.class.getDeclaredMethod("add", int.class);
+        method.setAccessible(true);
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    /**
+     * Stands in for an NMS class.
+     */
+    public static class Target {
+        private int value;
+
+        // Public, since ReflectionUtil#getConstructor does not make
+        // constructors accessible
+        public Target(int value) {
+            this.value = value;
+        }
+
+        private int add(int amount) {
+            return value + amount;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.cjcrafter.foliascheduler.jmh;
+
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import com.cjcrafter.foliascheduler.testing.Stubs;
+import com.cjcrafter.foliascheduler.testing.VirtualServer;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of scheduling, running and cancelling tasks through each
+ * scheduler interface, using a {@link VirtualServer} as the platform. Each
+ * invocation schedules {@link #BATCH} tasks and then ticks the server once,
+ * so the queue never grows between invocations. Run with {@code -prof gc}
+ * (the default in this module) to see the allocation per task.
+ *
+ * <p>Only the {@link VirtualServer} schedulers and their {@code VirtualTask}
+ * and {@code ExecutorTask} are measured, for both the Spigot and the Folia
+ * threading model. The platform classes, like {@code BukkitTask} and
+ * {@code FoliaTask}, are not; see {@link BukkitTaskBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SchedulerBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final Plugin PLUGIN = Stubs.plugin("Benchmark");
+    private static final World WORLD = Stubs.world("world");
+
+    @Param({"spigot", "folia"})
+    public String platform;
+
+    private VirtualServer server;
+    private Entity entity;
+    private TaskImplementation<?>[] tasks;
+
+    @Setup
+    public void setup() {
+        server = platform.equals("folia") ? VirtualServer.folia(PLUGIN, 4) : VirtualServer.spigot(PLUGIN);
+        entity = Stubs.entity(new Location(WORLD, 100, 64, 100));
+        tasks = new TaskImplementation<?>[BATCH];
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void globalRun() {
+        for (int i = 0; i < BATCH; i++)
+            server.global().run(task -> null);
+        server.tick();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void globalRunConsumer() {
+        // The Consumer overloads wrap the consumer in a Function
+        for (int i = 0; i < BATCH; i++)
+            server.global().run((TaskImplementation<Void> task) -> { });
+        server.tick();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void globalExecute() {
+        for (int i = 0; i < BATCH; i++)
+            server.global().execute(() -> { });
+        server.tick();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void regionRun() {
+        // Spread the tasks across 16 regions
+        for (int i = 0; i < BATCH; i++)
+            server.region(WORLD, (i & 3) << 4, ((i >> 2) & 3) << 4).run(task -> null);
+        server.tick();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void entityRun() {
+        for (int i = 0; i < BATCH; i++)
+            server.entity(entity).run(task -> null, null);
+        server.tick();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void asyncRunNow() {
+        for (int i = 0; i < BATCH; i++)
+            server.async().runNow(task -> null);
+        server.tick();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void futureCompletion(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++)
+            tasks[i] = server.global().run(task -> null);
+        server.tick();
+        for (TaskImplementation<?> task : tasks)
+            blackhole.consume(task.asFuture().join());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void cancelDelayed() {
+        for (int i = 0; i < BATCH; i++)
+            tasks[i] = server.global().runDelayed(task -> null, 1000L);
+        for (TaskImplementation<?> task : tasks)
+            task.cancel();
+
+        // Removes the cancelled tasks, so the queue does not grow
+        server.cancelTasks();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void cancelRepeating() {
+        for (int i = 0; i < BATCH; i++)
+            tasks[i] = server.region(WORLD, 0, 0).runAtFixedRate(task -> null, 1L, 1L);
+        server.tick();
+        for (TaskImplementation<?> task : tasks)
+            task.cancel();
+        server.tick();
+    }
+}
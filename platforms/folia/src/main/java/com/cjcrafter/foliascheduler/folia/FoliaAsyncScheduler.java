@@ -1,6 +1,9 @@
 package com.cjcrafter.foliascheduler.folia;
 
+import com.cjcrafter.foliascheduler.AsyncLanes;
 import com.cjcrafter.foliascheduler.AsyncSchedulerImplementation;
+import com.cjcrafter.foliascheduler.BoundedAsyncScheduler;
+import com.cjcrafter.foliascheduler.OverflowPolicy;
 import com.cjcrafter.foliascheduler.TaskImplementation;
 import io.papermc.paper.threadedregions.scheduler.AsyncScheduler;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
@@ -17,11 +20,13 @@ public class FoliaAsyncScheduler implements AsyncSchedulerImplementation {
 
     private final @NotNull Plugin plugin;
     private final @NotNull AsyncScheduler asyncScheduler;
+    private final @NotNull AsyncLanes lanes;
 
     @ApiStatus.Internal
     public FoliaAsyncScheduler(@NotNull Plugin plugin) {
         this.plugin = plugin;
         this.asyncScheduler = plugin.getServer().getAsyncScheduler();
+        this.lanes = new AsyncLanes(plugin, this);
     }
 
     private <T> @NotNull Consumer<ScheduledTask> buildFoliaConsumer(
@@ -30,8 +35,13 @@ public class FoliaAsyncScheduler implements AsyncSchedulerImplementation {
     ) {
         return scheduledTask -> {
             taskImplementation.setScheduledTask(scheduledTask);
-            taskImplementation.setCallback(callbackFunction.apply(taskImplementation));
-            taskImplementation.asFuture().complete(taskImplementation);
+            try {
+                taskImplementation.setCallback(callbackFunction.apply(taskImplementation));
+                taskImplementation.asFuture().complete(taskImplementation);
+            } catch (Throwable ex) {
+                taskImplementation.asFuture().completeExceptionally(ex);
+                throw ex;
+            }
         };
     }
 
@@ -62,8 +72,29 @@ public class FoliaAsyncScheduler implements AsyncSchedulerImplementation {
         return taskImplementation;
     }
 
+    @Override
+    public @NotNull AsyncSchedulerImplementation virtual() {
+        return lanes.virtual();
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation io() {
+        return lanes.io();
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation compute() {
+        return lanes.compute();
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation bounded(int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        return new BoundedAsyncScheduler(plugin, this, maxRunning, capacity, policy);
+    }
+
     @Override
     public void cancelTasks() {
         asyncScheduler.cancelTasks(plugin);
+        lanes.cancelTasks();
     }
 }
@@ -1,6 +1,7 @@
 package com.cjcrafter.foliascheduler.folia;
 
 import com.cjcrafter.foliascheduler.EntitySchedulerImplementation;
+import com.cjcrafter.foliascheduler.TaskGroup;
 import com.cjcrafter.foliascheduler.TaskImplementation;
 import io.papermc.paper.threadedregions.scheduler.EntityScheduler;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
@@ -18,11 +19,13 @@ public class FoliaEntityScheduler implements EntitySchedulerImplementation {
 
     private final @NotNull Plugin plugin;
     private final @NotNull EntityScheduler entityScheduler;
+    private final @NotNull TaskGroup tasks;
 
     @ApiStatus.Internal
-    public FoliaEntityScheduler(@NotNull Plugin plugin, @NotNull Entity entity) {
+    public FoliaEntityScheduler(@NotNull Plugin plugin, @NotNull Entity entity, @NotNull TaskGroup tasks) {
         this.plugin = plugin;
         this.entityScheduler = entity.getScheduler();
+        this.tasks = tasks;
     }
 
     private <T> @NotNull Consumer<ScheduledTask> buildFoliaConsumer(
@@ -31,8 +34,13 @@ public class FoliaEntityScheduler implements EntitySchedulerImplementation {
     ) {
         return scheduledTask -> {
             taskImplementation.setScheduledTask(scheduledTask);
-            taskImplementation.setCallback(callbackFunction.apply(taskImplementation));
-            taskImplementation.asFuture().complete(taskImplementation);
+            try {
+                taskImplementation.setCallback(callbackFunction.apply(taskImplementation));
+                taskImplementation.asFuture().complete(taskImplementation);
+            } catch (Throwable ex) {
+                taskImplementation.asFuture().completeExceptionally(ex);
+                throw ex;
+            }
         };
     }
 
@@ -52,7 +60,7 @@ public class FoliaEntityScheduler implements EntitySchedulerImplementation {
             return null;
 
         taskImplementation.setScheduledTask(scheduledTask);
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
@@ -66,7 +74,7 @@ public class FoliaEntityScheduler implements EntitySchedulerImplementation {
             return null;
 
         taskImplementation.setScheduledTask(scheduledTask);
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
@@ -80,6 +88,6 @@ public class FoliaEntityScheduler implements EntitySchedulerImplementation {
             return null;
 
         taskImplementation.setScheduledTask(scheduledTask);
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 }
@@ -29,8 +29,13 @@ public class FoliaGlobalScheduler implements GlobalSchedulerImplementation {
     ) {
         return scheduledTask -> {
             taskImplementation.setScheduledTask(scheduledTask);
-            taskImplementation.setCallback(callbackFunction.apply(taskImplementation));
-            taskImplementation.asFuture().complete(taskImplementation);
+            try {
+                taskImplementation.setCallback(callbackFunction.apply(taskImplementation));
+                taskImplementation.asFuture().complete(taskImplementation);
+            } catch (Throwable ex) {
+                taskImplementation.asFuture().completeExceptionally(ex);
+                throw ex;
+            }
         };
     }
 
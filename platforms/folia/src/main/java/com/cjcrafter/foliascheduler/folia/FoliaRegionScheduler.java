@@ -1,6 +1,7 @@
 package com.cjcrafter.foliascheduler.folia;
 
 import com.cjcrafter.foliascheduler.RegionSchedulerImplementation;
+import com.cjcrafter.foliascheduler.TaskGroup;
 import com.cjcrafter.foliascheduler.TaskImplementation;
 import io.papermc.paper.threadedregions.scheduler.RegionScheduler;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
@@ -18,13 +19,15 @@ public class FoliaRegionScheduler implements RegionSchedulerImplementation {
     private final @NotNull World world;
     private final int chunkX;
     private final int chunkZ;
+    private final @NotNull TaskGroup tasks;
 
-    public FoliaRegionScheduler(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ) {
+    public FoliaRegionScheduler(@NotNull Plugin plugin, @NotNull World world, int chunkX, int chunkZ, @NotNull TaskGroup tasks) {
         this.plugin = plugin;
         this.regionScheduler = plugin.getServer().getRegionScheduler();
         this.world = world;
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
+        this.tasks = tasks;
     }
 
     private <T> @NotNull Consumer<ScheduledTask> buildFoliaConsumer(
@@ -33,8 +36,13 @@ public class FoliaRegionScheduler implements RegionSchedulerImplementation {
     ) {
         return scheduledTask -> {
             taskImplementation.setScheduledTask(scheduledTask);
-            taskImplementation.setCallback(callbackFunction.apply(taskImplementation));
-            taskImplementation.asFuture().complete(taskImplementation);
+            try {
+                taskImplementation.setCallback(callbackFunction.apply(taskImplementation));
+                taskImplementation.asFuture().complete(taskImplementation);
+            } catch (Throwable ex) {
+                taskImplementation.asFuture().completeExceptionally(ex);
+                throw ex;
+            }
         };
     }
 
@@ -48,7 +56,7 @@ public class FoliaRegionScheduler implements RegionSchedulerImplementation {
         Consumer<ScheduledTask> foliaConsumer = buildFoliaConsumer(taskImplementation, function);
         ScheduledTask scheduledTask = regionScheduler.run(plugin, world, chunkX, chunkZ, foliaConsumer);
         taskImplementation.setScheduledTask(scheduledTask);
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
@@ -57,7 +65,7 @@ public class FoliaRegionScheduler implements RegionSchedulerImplementation {
         Consumer<ScheduledTask> foliaConsumer = buildFoliaConsumer(taskImplementation, function);
         ScheduledTask scheduledTask = regionScheduler.runDelayed(plugin, world, chunkX, chunkZ, foliaConsumer, delay);
         taskImplementation.setScheduledTask(scheduledTask);
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
@@ -66,6 +74,6 @@ public class FoliaRegionScheduler implements RegionSchedulerImplementation {
         Consumer<ScheduledTask> foliaConsumer = buildFoliaConsumer(taskImplementation, function);
         ScheduledTask scheduledTask = regionScheduler.runAtFixedRate(plugin, world, chunkX, chunkZ, foliaConsumer, delay, period);
         taskImplementation.setScheduledTask(scheduledTask);
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 }
@@ -5,6 +5,8 @@ import com.cjcrafter.foliascheduler.EntitySchedulerImplementation;
 import com.cjcrafter.foliascheduler.GlobalSchedulerImplementation;
 import com.cjcrafter.foliascheduler.RegionSchedulerImplementation;
 import com.cjcrafter.foliascheduler.ServerImplementation;
+import com.cjcrafter.foliascheduler.TaskGroup;
+import com.cjcrafter.foliascheduler.TaskRegistry;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -23,12 +25,18 @@ public class FoliaServer implements ServerImplementation {
     private final @NotNull Plugin owningPlugin;
     private final @NotNull FoliaGlobalScheduler globalScheduler;
     private final @NotNull FoliaAsyncScheduler asyncScheduler;
+    private final @NotNull TaskRegistry taskRegistry;
+
+    // Folia has no method to cancel every entity/region task of a plugin, so we track them ourselves
+    private final @NotNull TaskGroup regionTasks;
 
     @ApiStatus.Internal
     public FoliaServer(@NotNull Plugin owningPlugin) {
         this.owningPlugin = owningPlugin;
         this.globalScheduler = new FoliaGlobalScheduler(owningPlugin);
         this.asyncScheduler = new FoliaAsyncScheduler(owningPlugin);
+        this.taskRegistry = new TaskRegistry();
+        this.regionTasks = new TaskGroup("region");
     }
 
     @Override
@@ -78,18 +86,24 @@ public class FoliaServer implements ServerImplementation {
 
     @Override
     public @NotNull EntitySchedulerImplementation entity(@NotNull Entity entity) {
-        return new FoliaEntityScheduler(owningPlugin, entity);
+        return new FoliaEntityScheduler(owningPlugin, entity, regionTasks);
     }
 
     @Override
     public @NotNull RegionSchedulerImplementation region(@NotNull World world, int chunkX, int chunkZ) {
-        return new FoliaRegionScheduler(owningPlugin, world, chunkX, chunkZ);
+        return new FoliaRegionScheduler(owningPlugin, world, chunkX, chunkZ, regionTasks);
+    }
+
+    @Override
+    public @NotNull TaskRegistry getTaskRegistry() {
+        return taskRegistry;
     }
 
     @Override
     public void cancelTasks() {
         globalScheduler.cancelTasks();
         asyncScheduler.cancelTasks();
+        regionTasks.cancel();
     }
 
     @Override
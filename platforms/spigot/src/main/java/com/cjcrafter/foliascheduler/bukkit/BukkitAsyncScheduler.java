@@ -1,6 +1,10 @@
 package com.cjcrafter.foliascheduler.bukkit;
 
+import com.cjcrafter.foliascheduler.AsyncLanes;
 import com.cjcrafter.foliascheduler.AsyncSchedulerImplementation;
+import com.cjcrafter.foliascheduler.BoundedAsyncScheduler;
+import com.cjcrafter.foliascheduler.OverflowPolicy;
+import com.cjcrafter.foliascheduler.TaskGroup;
 import com.cjcrafter.foliascheduler.TaskImplementation;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -15,8 +19,14 @@ public class BukkitAsyncScheduler implements AsyncSchedulerImplementation {
 
     private final @NotNull Plugin plugin;
 
+    // Bukkit can only cancel every task of a plugin, so we track async tasks ourselves
+    private final @NotNull TaskGroup tasks;
+    private final @NotNull AsyncLanes lanes;
+
     public BukkitAsyncScheduler(@NotNull Plugin plugin) {
         this.plugin = plugin;
+        this.tasks = new TaskGroup("async");
+        this.lanes = new AsyncLanes(plugin, this);
     }
 
     private <T> @NotNull BukkitRunnable buildBukkitRunnable(
@@ -26,8 +36,13 @@ public class BukkitAsyncScheduler implements AsyncSchedulerImplementation {
         return new BukkitRunnable() {
             @Override
             public void run() {
-                taskImplementation.setCallback(function.apply(taskImplementation));
-                taskImplementation.asFuture().complete(taskImplementation);
+                try {
+                    taskImplementation.setCallback(function.apply(taskImplementation));
+                    taskImplementation.asFuture().complete(taskImplementation);
+                } catch (Throwable ex) {
+                    taskImplementation.asFuture().completeExceptionally(ex);
+                    throw ex;
+                }
             }
         };
     }
@@ -37,7 +52,7 @@ public class BukkitAsyncScheduler implements AsyncSchedulerImplementation {
         BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, false);
         BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
         taskImplementation.setScheduledTask(runnable.runTaskAsynchronously(plugin));
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
@@ -45,7 +60,7 @@ public class BukkitAsyncScheduler implements AsyncSchedulerImplementation {
         BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, false);
         BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
         taskImplementation.setScheduledTask(runnable.runTaskLaterAsynchronously(plugin, unit.toSeconds(delay) * 20));
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
@@ -53,11 +68,32 @@ public class BukkitAsyncScheduler implements AsyncSchedulerImplementation {
         BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, true);
         BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
         taskImplementation.setScheduledTask(runnable.runTaskTimerAsynchronously(plugin, unit.toSeconds(delay) * 20, unit.toSeconds(period) * 20));
-        return taskImplementation;
+        return tasks.add(taskImplementation);
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation virtual() {
+        return lanes.virtual();
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation io() {
+        return lanes.io();
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation compute() {
+        return lanes.compute();
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation bounded(int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        return new BoundedAsyncScheduler(plugin, this, maxRunning, capacity, policy);
     }
 
     @Override
     public void cancelTasks() {
-        plugin.getServer().getScheduler().cancelTasks(plugin);
+        tasks.cancel();
+        lanes.cancelTasks();
     }
 }
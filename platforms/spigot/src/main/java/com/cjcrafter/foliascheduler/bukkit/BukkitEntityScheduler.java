@@ -15,82 +15,119 @@ import java.util.function.Function;
 public class BukkitEntityScheduler implements EntitySchedulerImplementation {
 
     private final @NotNull Plugin plugin;
+    private final @NotNull BukkitEntityTracker tracker;
     private final @NotNull Entity entity;
 
     @ApiStatus.Internal
-    public BukkitEntityScheduler(@NotNull Plugin plugin, @NotNull Entity entity) {
+    public BukkitEntityScheduler(@NotNull Plugin plugin, @NotNull BukkitEntityTracker tracker, @NotNull Entity entity) {
         this.plugin = plugin;
+        this.tracker = tracker;
         this.entity = entity;
     }
 
     private <T> @NotNull BukkitRunnable buildBukkitRunnable(
         @NotNull Function<TaskImplementation<T>, T> function,
-        @NotNull BukkitTask<T> taskImplementation
+        @NotNull BukkitTask<T> taskImplementation,
+        @NotNull BukkitEntityTracker.Entry entry
     ) {
         return new BukkitRunnable() {
             @Override
             public void run() {
-                taskImplementation.setCallback(function.apply(taskImplementation));
-                taskImplementation.asFuture().complete(taskImplementation);
+                // The tracker cancels the task when the entity retires, but
+                // the entity may retire earlier in the same tick
+                if (entry.isRetired())
+                    return;
+
+                if (!taskImplementation.isRepeatingTask())
+                    entry.remove();
+                try {
+                    taskImplementation.setCallback(function.apply(taskImplementation));
+                    taskImplementation.asFuture().complete(taskImplementation);
+                } catch (Throwable ex) {
+                    taskImplementation.asFuture().completeExceptionally(ex);
+                    throw ex;
+                }
             }
         };
     }
 
-    private boolean isRetired(@Nullable Runnable retired) {
+    private @Nullable BukkitEntityTracker.Entry register(@Nullable Runnable retired) {
+        // Only check the entity once, after that the tracker checks it once
+        // per tick for all of its tasks
         if (!entity.isValid()) {
             if (retired != null)
                 retired.run();
-            return true;
+            return null;
         }
-        return false;
+        return tracker.register(entity, retired);
+    }
+
+    private <T> @Nullable BukkitTask<T> createTask(@Nullable BukkitEntityTracker.Entry entry, boolean isRepeatingTask) {
+        if (entry == null)
+            return null;
+
+        BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, isRepeatingTask);
+        taskImplementation.setCancelListener(entry::remove);
+        return taskImplementation;
     }
 
     @Override
     public boolean execute(@NotNull Runnable run, @Nullable Runnable retired, long delay) {
-        if (isRetired(retired))
+        BukkitEntityTracker.Entry entry = register(retired);
+        if (entry == null)
             return false;
 
-        new BukkitRunnable() {
+        entry.setScheduledTask(new BukkitRunnable() {
             @Override
             public void run() {
-                if (isRetired(retired))
+                if (entry.isRetired())
                     return;
+                entry.remove();
                 run.run();
             }
-        }.runTaskLater(plugin, delay);
+        }.runTaskLater(plugin, delay));
         return true;
     }
 
     @Override
     public @Nullable <T> TaskImplementation<T> run(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired) {
-        if (isRetired(retired))
+        BukkitEntityTracker.Entry entry = register(retired);
+        BukkitTask<T> taskImplementation = createTask(entry, false);
+        if (taskImplementation == null)
             return null;
 
-        BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, false);
-        BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
-        taskImplementation.setScheduledTask(runnable.runTask(plugin));
+        BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation, entry);
+        org.bukkit.scheduler.BukkitTask scheduledTask = runnable.runTask(plugin);
+        taskImplementation.setScheduledTask(scheduledTask);
+        entry.setScheduledTask(scheduledTask);
         return taskImplementation;
     }
 
     @Override
     public @Nullable <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired, long delay) {
-        if (isRetired(retired))
+        BukkitEntityTracker.Entry entry = register(retired);
+        BukkitTask<T> taskImplementation = createTask(entry, false);
+        if (taskImplementation == null)
             return null;
 
-        BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, false);
-        BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
-        taskImplementation.setScheduledTask(runnable.runTaskLater(plugin, delay));
+        BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation, entry);
+        org.bukkit.scheduler.BukkitTask scheduledTask = runnable.runTaskLater(plugin, delay);
+        taskImplementation.setScheduledTask(scheduledTask);
+        entry.setScheduledTask(scheduledTask);
         return taskImplementation;
     }
 
     @Override
     public @Nullable <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired, long delay, long period) {
-        if (isRetired(retired))
+        BukkitEntityTracker.Entry entry = register(retired);
+        BukkitTask<T> taskImplementation = createTask(entry, true);
+        if (taskImplementation == null)
             return null;
 
-        BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, true);
-        BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
-        taskImplementation.setScheduledTask(runnable.runTaskTimer(plugin, delay, period));
+        BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation, entry);
+        org.bukkit.scheduler.BukkitTask scheduledTask = runnable.runTaskTimer(plugin, delay, period);
+        taskImplementation.setScheduledTask(scheduledTask);
+        entry.setScheduledTask(scheduledTask);
         return taskImplementation;
     }
 }
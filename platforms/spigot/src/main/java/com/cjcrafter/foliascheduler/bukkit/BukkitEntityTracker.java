@@ -0,0 +1,232 @@
+package com.cjcrafter.foliascheduler.bukkit;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Tracks the pending entity tasks of a plugin, grouped by entity. Once per
+ * tick, each tracked entity is checked with {@link Entity#isValid()}. When an
+ * entity is no longer valid, all of its tasks are cancelled at once, and each
+ * of their {@code retired} callbacks is called exactly once, like on Folia.
+ *
+ * <p>The sweep only runs while at least 1 entity has pending tasks. If the
+ * sweep was cancelled from outside, for example with
+ * {@code BukkitScheduler#cancelTasks(Plugin)}, which cancels the entity
+ * tasks too, it is replaced when the next task is registered.
+ */
+@ApiStatus.Internal
+public class BukkitEntityTracker {
+
+    private final @NotNull Plugin plugin;
+    private final @NotNull ConcurrentMap<Entity, TrackedEntity> entities;
+    private final @NotNull AtomicBoolean sweeping;
+    private volatile @Nullable org.bukkit.scheduler.BukkitTask sweeper;
+
+    @ApiStatus.Internal
+    public BukkitEntityTracker(@NotNull Plugin plugin) {
+        this.plugin = plugin;
+        this.entities = new ConcurrentHashMap<>();
+        this.sweeping = new AtomicBoolean(false);
+    }
+
+    /**
+     * Adds a task to the entity. The returned entry should be given the
+     * scheduled task with {@link Entry#setScheduledTask}, and should be
+     * removed once a non-repeating task has run.
+     *
+     * @param entity The entity the task belongs to.
+     * @param retired The callback to run if the entity retires first.
+     * @return The entry of the task, or null if the entity already retired.
+     */
+    @ApiStatus.Internal
+    public @Nullable Entry register(@NotNull Entity entity, @Nullable Runnable retired) {
+        while (true) {
+            TrackedEntity tracked = entities.computeIfAbsent(entity, TrackedEntity::new);
+            Entry entry = new Entry(tracked, retired);
+            synchronized (tracked) {
+                if (tracked.retired)
+                    break;
+
+                // The group was removed after it emptied, so use a new group
+                if (tracked.detached)
+                    continue;
+                tracked.entries.add(entry);
+            }
+
+            startSweeping();
+            return entry;
+        }
+
+        runRetired(retired);
+        return null;
+    }
+
+    /**
+     * Forgets every tracked task, without calling any {@code retired}
+     * callbacks. This should be called after the tasks of the plugin were
+     * cancelled through the Bukkit scheduler.
+     */
+    @ApiStatus.Internal
+    public void clear() {
+        for (TrackedEntity tracked : entities.values()) {
+            synchronized (tracked) {
+                tracked.detached = true;
+                tracked.entries.clear();
+            }
+        }
+        entities.clear();
+        sweeper = null;
+        sweeping.set(false);
+    }
+
+    private void startSweeping() {
+        // The sweeper only cancels itself after clearing this field, so a
+        // cancelled sweeper was cancelled by someone else, and is replaced
+        org.bukkit.scheduler.BukkitTask current = sweeper;
+        if (current != null && current.isCancelled() && sweeper == current) {
+            sweeper = null;
+            sweeping.set(false);
+        }
+
+        if (!sweeping.compareAndSet(false, true))
+            return;
+
+        sweeper = new BukkitRunnable() {
+            @Override
+            public void run() {
+                sweep();
+
+                if (entities.isEmpty()) {
+                    sweeper = null;
+                    cancel();
+                    sweeping.set(false);
+
+                    // An entity may have been added after the check
+                    if (!entities.isEmpty())
+                        startSweeping();
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    private void sweep() {
+        for (TrackedEntity tracked : entities.values()) {
+            if (!tracked.entity.isValid())
+                retire(tracked);
+        }
+    }
+
+    private void retire(@NotNull TrackedEntity tracked) {
+        entities.remove(tracked.entity, tracked);
+        List<Entry> retiredEntries;
+        synchronized (tracked) {
+            if (tracked.retired)
+                return;
+            tracked.retired = true;
+            retiredEntries = new ArrayList<>(tracked.entries);
+            tracked.entries.clear();
+        }
+
+        for (Entry entry : retiredEntries) {
+            org.bukkit.scheduler.BukkitTask scheduledTask = entry.scheduledTask;
+
+            // Tasks cancelled by the plugin are not retired
+            if (scheduledTask != null) {
+                if (scheduledTask.isCancelled())
+                    continue;
+                scheduledTask.cancel();
+            }
+            runRetired(entry.retired);
+        }
+    }
+
+    private void runRetired(@Nullable Runnable retired) {
+        if (retired == null)
+            return;
+
+        try {
+            retired.run();
+        } catch (Throwable ex) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to run retired callback", ex);
+        }
+    }
+
+    private static final class TrackedEntity {
+        private final @NotNull Entity entity;
+        private final @NotNull List<Entry> entries;
+        private volatile boolean retired;
+        private boolean detached;
+
+        private TrackedEntity(@NotNull Entity entity) {
+            this.entity = entity;
+            this.entries = new ArrayList<>();
+        }
+    }
+
+    /**
+     * A task that was registered with {@link #register(Entity, Runnable)}.
+     */
+    @ApiStatus.Internal
+    public final class Entry {
+        private final @NotNull TrackedEntity tracked;
+        private final @Nullable Runnable retired;
+        private volatile @Nullable org.bukkit.scheduler.BukkitTask scheduledTask;
+
+        private Entry(@NotNull TrackedEntity tracked, @Nullable Runnable retired) {
+            this.tracked = tracked;
+            this.retired = retired;
+        }
+
+        /**
+         * Sets the Bukkit task, so it can be cancelled when the entity retires.
+         * If the entity retired before the task was scheduled, the task is
+         * cancelled right away.
+         *
+         * @param scheduledTask The scheduled Bukkit task.
+         */
+        @ApiStatus.Internal
+        public void setScheduledTask(@NotNull org.bukkit.scheduler.BukkitTask scheduledTask) {
+            this.scheduledTask = scheduledTask;
+            if (tracked.retired)
+                scheduledTask.cancel();
+        }
+
+        /**
+         * Returns true if the entity retired. Tasks must not run once this
+         * returns true.
+         *
+         * @return true if the entity retired.
+         */
+        @ApiStatus.Internal
+        public boolean isRetired() {
+            return tracked.retired;
+        }
+
+        /**
+         * Stops tracking this task, because it finished or was cancelled. Its
+         * {@code retired} callback will not be called.
+         */
+        @ApiStatus.Internal
+        public void remove() {
+            synchronized (tracked) {
+                if (!tracked.entries.remove(this) || !tracked.entries.isEmpty())
+                    return;
+
+                // Stop tracking the entity, so it can be garbage collected
+                tracked.detached = true;
+                entities.remove(tracked.entity, tracked);
+            }
+        }
+    }
+}
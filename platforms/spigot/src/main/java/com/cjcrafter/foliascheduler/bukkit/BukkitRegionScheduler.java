@@ -23,8 +23,13 @@ public class BukkitRegionScheduler implements RegionSchedulerImplementation {
         return new BukkitRunnable() {
             @Override
             public void run() {
-                taskImplementation.setCallback(function.apply(taskImplementation));
-                taskImplementation.asFuture().complete(taskImplementation);
+                try {
+                    taskImplementation.setCallback(function.apply(taskImplementation));
+                    taskImplementation.asFuture().complete(taskImplementation);
+                } catch (Throwable ex) {
+                    taskImplementation.asFuture().completeExceptionally(ex);
+                    throw ex;
+                }
             }
         };
     }
@@ -5,9 +5,12 @@ import com.cjcrafter.foliascheduler.EntitySchedulerImplementation;
 import com.cjcrafter.foliascheduler.GlobalSchedulerImplementation;
 import com.cjcrafter.foliascheduler.RegionSchedulerImplementation;
 import com.cjcrafter.foliascheduler.ServerImplementation;
+import com.cjcrafter.foliascheduler.TaskRegistry;
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
 import com.cjcrafter.foliascheduler.util.MethodInvoker;
 import com.cjcrafter.foliascheduler.util.ReflectionUtil;
-import com.cjcrafter.foliascheduler.util.WrappedReflectiveOperationException;
+import com.cjcrafter.foliascheduler.util.ServerCapabilities;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -18,9 +21,15 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 @ApiStatus.Internal
@@ -30,9 +39,11 @@ public class BukkitServer implements ServerImplementation {
     private final @NotNull BukkitSyncScheduler sync;
     private final @NotNull BukkitRegionScheduler region;
     private final @NotNull BukkitAsyncScheduler async;
+    private final @NotNull BukkitEntityTracker entityTracker;
+    private final @NotNull TaskRegistry taskRegistry;
 
     // On Paper servers, the teleportAsync method is supported back to 1.13
-    private @Nullable MethodInvoker teleportAsyncMethod;
+    private final @Nullable AsyncTeleporter teleportAsyncMethod;
 
     @ApiStatus.Internal
     public BukkitServer(@NotNull Plugin owningPlugin) {
@@ -40,11 +51,30 @@ public class BukkitServer implements ServerImplementation {
         this.sync = new BukkitSyncScheduler(owningPlugin);
         this.region = new BukkitRegionScheduler(owningPlugin);
         this.async = new BukkitAsyncScheduler(owningPlugin);
+        this.entityTracker = new BukkitEntityTracker(owningPlugin);
+        this.taskRegistry = new TaskRegistry();
 
+        // Older Paper servers and plain Spigot servers do not have this method
+        this.teleportAsyncMethod = ServerCapabilities.get().hasTeleportAsync() ? bindTeleportAsync() : null;
+    }
+
+    /**
+     * Binds Paper's {@code Entity#teleportAsync} to an {@link AsyncTeleporter}
+     * with {@link LambdaMetafactory}, so each teleport is a direct interface
+     * call instead of a reflective one. If the method cannot be bound, falls
+     * back to a {@link MethodInvoker}.
+     */
+    private static @NotNull AsyncTeleporter bindTeleportAsync() {
+        MethodInvoker invoker = ReflectionUtil.getMethod(Entity.class, "teleportAsync", Location.class, PlayerTeleportEvent.TeleportCause.class);
         try {
-            teleportAsyncMethod = ReflectionUtil.getMethod(Entity.class, "teleportAsync", Location.class, PlayerTeleportEvent.TeleportCause.class);
-        } catch (WrappedReflectiveOperationException ignore) {
-            // This happens on older paper servers, or plain Spigot servers
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle target = lookup.unreflect(invoker.getMethod());
+            MethodType type = MethodType.methodType(CompletableFuture.class, Entity.class, Location.class, PlayerTeleportEvent.TeleportCause.class);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "teleport", MethodType.methodType(AsyncTeleporter.class), type, target, type);
+            return (AsyncTeleporter) site.getTarget().invokeExact();
+        } catch (Throwable ex) {
+            // Should not happen, since Entity is public and the method was found
+            return (entity, location, cause) -> (CompletableFuture<Boolean>) Objects.requireNonNull(invoker.invoke(entity, location, cause));
         }
     }
 
@@ -95,7 +125,7 @@ public class BukkitServer implements ServerImplementation {
 
     @Override
     public @NotNull EntitySchedulerImplementation entity(@NotNull Entity entity) {
-        return new BukkitEntityScheduler(owningPlugin, entity);
+        return new BukkitEntityScheduler(owningPlugin, entityTracker, entity);
     }
 
     @Override
@@ -103,23 +133,51 @@ public class BukkitServer implements ServerImplementation {
         return region;
     }
 
+    @Override
+    public <R> @NotNull CompletableFuture<R> mapReduce(@NotNull World world, long @NotNull [] chunkKeys, @NotNull Function<Chunk, R> mapper,
+                                                      @NotNull BinaryOperator<R> combiner, R identity) {
+        // Every chunk is owned by the main thread, so 1 task is enough
+        CompletableFuture<R> future = new CompletableFuture<>();
+        sync.execute(() -> {
+            try {
+                R accumulator = identity;
+                for (long key : chunkKeys) {
+                    int chunkX = ChunkKeys.x(key);
+                    int chunkZ = ChunkKeys.z(key);
+                    if (world.isChunkLoaded(chunkX, chunkZ))
+                        accumulator = combiner.apply(accumulator, mapper.apply(world.getChunkAt(chunkX, chunkZ)));
+                }
+                future.complete(accumulator);
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public @NotNull TaskRegistry getTaskRegistry() {
+        return taskRegistry;
+    }
+
     @Override
     public void cancelTasks() {
         owningPlugin.getServer().getScheduler().cancelTasks(owningPlugin);
+        entityTracker.clear();
     }
 
     @Override
     public @NotNull CompletableFuture<Boolean> teleportAsync(@NotNull Entity entity, @NotNull Location location, PlayerTeleportEvent.@NotNull TeleportCause cause) {
         // Check if the teleportAsync method is supported (Paper 1.13+)
         if (teleportAsyncMethod != null) {
-            Object result = teleportAsyncMethod.invoke(entity, location, cause);
-            return (CompletableFuture<Boolean>) Objects.requireNonNull(result);
+            return Objects.requireNonNull(teleportAsyncMethod.teleport(entity, location, cause));
         }
 
         // Fallback to the synchronous teleport method, executed 1 tick later on the main thread
         // to allow this method to be called asynchronously.
         CompletableFuture<Boolean> future = new CompletableFuture<>();
-        entity(entity).run(task -> {
+        // If the entity is removed first, the task is retired instead of run
+        entity(entity).run(t -> {
             try {
                 entity.teleport(location);
                 future.complete(true);
@@ -127,8 +185,16 @@ public class BukkitServer implements ServerImplementation {
                 owningPlugin.getLogger().log(Level.SEVERE, "Failed to teleport entity", ex);
                 future.complete(false);
             }
-        });
+        }, () -> future.complete(false));
 
         return future;
     }
+
+    /**
+     * Paper's {@code Entity#teleportAsync}, bound once in {@link #bindTeleportAsync()}.
+     */
+    @FunctionalInterface
+    private interface AsyncTeleporter {
+        @NotNull CompletableFuture<Boolean> teleport(@NotNull Entity entity, @NotNull Location location, PlayerTeleportEvent.@NotNull TeleportCause cause);
+    }
 }
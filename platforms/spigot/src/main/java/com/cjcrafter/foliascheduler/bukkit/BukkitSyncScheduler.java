@@ -1,6 +1,7 @@
 package com.cjcrafter.foliascheduler.bukkit;
 
 import com.cjcrafter.foliascheduler.GlobalSchedulerImplementation;
+import com.cjcrafter.foliascheduler.TaskGroup;
 import com.cjcrafter.foliascheduler.TaskImplementation;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -14,8 +15,12 @@ public class BukkitSyncScheduler implements GlobalSchedulerImplementation {
 
     private final @NotNull Plugin plugin;
 
+    // Bukkit can only cancel every task of a plugin, so we track global tasks ourselves
+    private final @NotNull TaskGroup tasks;
+
     public BukkitSyncScheduler(@NotNull Plugin plugin) {
         this.plugin = plugin;
+        this.tasks = new TaskGroup("global");
     }
 
     private <T> @NotNull BukkitRunnable buildBukkitRunnable(
@@ -25,20 +30,33 @@ public class BukkitSyncScheduler implements GlobalSchedulerImplementation {
         return new BukkitRunnable() {
             @Override
             public void run() {
-                taskImplementation.setCallback(function.apply(taskImplementation));
-                taskImplementation.asFuture().complete(taskImplementation);
+                try {
+                    taskImplementation.setCallback(function.apply(taskImplementation));
+                    taskImplementation.asFuture().complete(taskImplementation);
+                } catch (Throwable ex) {
+                    taskImplementation.asFuture().completeExceptionally(ex);
+                    throw ex;
+                }
             }
         };
     }
 
     @Override
     public void execute(@NotNull Runnable run) {
-        new BukkitRunnable() {
+        BukkitTask<Void> taskImplementation = new BukkitTask<>(plugin, false);
+        taskImplementation.setScheduledTask(new BukkitRunnable() {
             @Override
             public void run() {
-                run.run();
+                try {
+                    run.run();
+                    taskImplementation.asFuture().complete(taskImplementation);
+                } catch (Throwable ex) {
+                    taskImplementation.asFuture().completeExceptionally(ex);
+                    throw ex;
+                }
             }
-        }.runTask(plugin);
+        }.runTask(plugin));
+        tasks.add(taskImplementation);
     }
 
     @Override
@@ -46,7 +64,7 @@ public class BukkitSyncScheduler implements GlobalSchedulerImplementation {
         BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, false);
         BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
         taskImplementation.setScheduledTask(runnable.runTask(plugin));
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
@@ -54,7 +72,7 @@ public class BukkitSyncScheduler implements GlobalSchedulerImplementation {
         BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, false);
         BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
         taskImplementation.setScheduledTask(runnable.runTaskLater(plugin, delay));
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
@@ -62,11 +80,11 @@ public class BukkitSyncScheduler implements GlobalSchedulerImplementation {
         BukkitTask<T> taskImplementation = new BukkitTask<>(plugin, true);
         BukkitRunnable runnable = buildBukkitRunnable(function, taskImplementation);
         taskImplementation.setScheduledTask(runnable.runTaskTimer(plugin, delay, period));
-        return taskImplementation;
+        return tasks.add(taskImplementation);
     }
 
     @Override
     public void cancelTasks() {
-        plugin.getServer().getScheduler().cancelTasks(plugin);
+        tasks.cancel();
     }
 }
@@ -19,6 +19,7 @@ public class BukkitTask<T> implements TaskImplementation<T> {
     private final @NotNull AtomicReference<org.bukkit.scheduler.BukkitTask> scheduledTaskRef;
     private final @NotNull CompletableFuture<TaskImplementation<T>> future;
     private @Nullable T callback;
+    private volatile @Nullable Runnable cancelListener;
 
     @ApiStatus.Internal
     public BukkitTask(@NotNull Plugin owningPlugin, boolean isRepeatingTask) {
@@ -39,9 +40,18 @@ public class BukkitTask<T> implements TaskImplementation<T> {
         return owningPlugin;
     }
 
+    @ApiStatus.Internal
+    public void setCancelListener(@Nullable Runnable cancelListener) {
+        this.cancelListener = cancelListener;
+    }
+
     @Override
     public void cancel() {
         scheduledTaskRef.get().cancel();
+
+        Runnable listener = cancelListener;
+        if (listener != null)
+            listener.run();
     }
 
     @Override
@@ -1,5 +1,8 @@
 include(":folia")
 include(":spigot")
+include(":testing")
+include(":jmh")
 
 project(":folia").projectDir = file("platforms/folia")
 project(":spigot").projectDir = file("platforms/spigot")
+project(":testing").projectDir = file("testing")
@@ -0,0 +1,93 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds the extra async schedulers of a platform async scheduler. Each
+ * scheduler (and its threads) is only created when it is first used.
+ *
+ * @see AsyncSchedulerImplementation#virtual()
+ * @see AsyncSchedulerImplementation#io()
+ * @see AsyncSchedulerImplementation#compute()
+ */
+@ApiStatus.Internal
+public final class AsyncLanes {
+
+    private final @NotNull Plugin plugin;
+    private final @NotNull AsyncSchedulerImplementation fallback;
+
+    // Set to the fallback scheduler on Java 8-20
+    private volatile @Nullable AsyncSchedulerImplementation virtual;
+    private volatile @Nullable ExecutorAsyncScheduler io;
+    private volatile @Nullable ExecutorAsyncScheduler compute;
+
+    @ApiStatus.Internal
+    public AsyncLanes(@NotNull Plugin plugin, @NotNull AsyncSchedulerImplementation fallback) {
+        this.plugin = plugin;
+        this.fallback = fallback;
+    }
+
+    public @NotNull AsyncSchedulerImplementation virtual() {
+        AsyncSchedulerImplementation virtual = this.virtual;
+        if (virtual == null) {
+            synchronized (this) {
+                virtual = this.virtual;
+                if (virtual == null) {
+                    ExecutorAsyncScheduler created = ExecutorAsyncScheduler.ofVirtualThreads(plugin);
+                    virtual = created == null ? fallback : created;
+                    this.virtual = virtual;
+                }
+            }
+        }
+        return virtual;
+    }
+
+    public @NotNull ExecutorAsyncScheduler io() {
+        ExecutorAsyncScheduler io = this.io;
+        if (io == null) {
+            synchronized (this) {
+                io = this.io;
+                if (io == null) {
+                    io = ExecutorAsyncScheduler.ofIoPool(plugin);
+                    this.io = io;
+                }
+            }
+        }
+        return io;
+    }
+
+    public @NotNull ExecutorAsyncScheduler compute() {
+        ExecutorAsyncScheduler compute = this.compute;
+        if (compute == null) {
+            synchronized (this) {
+                compute = this.compute;
+                if (compute == null) {
+                    compute = ExecutorAsyncScheduler.ofComputePool(plugin);
+                    this.compute = compute;
+                }
+            }
+        }
+        return compute;
+    }
+
+    /**
+     * Cancels the tasks of every scheduler that was created. Schedulers that
+     * were never used are not created by this method.
+     */
+    public void cancelTasks() {
+        AsyncSchedulerImplementation virtual = this.virtual;
+        if (virtual != null && virtual != fallback)
+            virtual.cancelTasks();
+
+        ExecutorAsyncScheduler io = this.io;
+        if (io != null)
+            io.cancelTasks();
+
+        ExecutorAsyncScheduler compute = this.compute;
+        if (compute != null)
+            compute.cancelTasks();
+    }
+}
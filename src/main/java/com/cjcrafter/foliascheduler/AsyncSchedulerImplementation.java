@@ -4,6 +4,8 @@ import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -40,6 +42,102 @@ public interface AsyncSchedulerImplementation {
         return this.runNow(wrapperFunction);
     }
 
+    /**
+     * Returns an {@link Executor} that runs commands using {@link #runNow(Runnable)}.
+     * This can be used to continue a {@link CompletableFuture} off of the server
+     * thread(s), like {@code future.thenAcceptAsync(consumer, scheduler.async().asExecutor())}.
+     *
+     * @return An executor that runs commands asynchronously.
+     */
+    default @NotNull Executor asExecutor() {
+        return this::runNow;
+    }
+
+    /**
+     * Returns a scheduler that runs each task on its own virtual thread, when
+     * the server runs Java 21 or later. Blocking a virtual thread (for
+     * example, with a JDBC or HTTP call) does not block an OS thread, so
+     * blocking tasks do not occupy the server's async pool.
+     *
+     * <p>On Java 8-20, this method returns this scheduler, so it is always
+     * safe to call. Cancelling this scheduler's tasks with
+     * {@link #cancelTasks()} also cancels the virtual thread tasks.
+     *
+     * @return A scheduler backed by virtual threads, or this scheduler.
+     * @see ExecutorAsyncScheduler#ofVirtualThreads(Plugin)
+     */
+    default @NotNull AsyncSchedulerImplementation virtual() {
+        return this;
+    }
+
+    /**
+     * Returns a scheduler for blocking I/O, like disk or database access. Its
+     * pool grows on demand, and is separate from {@link #compute()}, so slow
+     * I/O never starves CPU-bound tasks.
+     *
+     * <p>The default implementation returns this scheduler.
+     *
+     * @return A scheduler for blocking I/O.
+     * @see ExecutorAsyncScheduler#ofIoPool(Plugin)
+     */
+    default @NotNull AsyncSchedulerImplementation io() {
+        return this;
+    }
+
+    /**
+     * Returns a scheduler for CPU-bound work, like pathfinding. It uses a
+     * work-stealing pool with one thread per core, so tasks scheduled here
+     * should never block.
+     *
+     * <p>The default implementation returns this scheduler.
+     *
+     * @return A scheduler for CPU-bound work.
+     * @see ExecutorAsyncScheduler#ofComputePool(Plugin)
+     */
+    default @NotNull AsyncSchedulerImplementation compute() {
+        return this;
+    }
+
+    /**
+     * Returns the number of tasks that are waiting for a thread, or
+     * {@code -1} if this scheduler cannot measure it (like the platform's
+     * own async scheduler).
+     *
+     * @return The number of tasks waiting for a thread, or -1.
+     */
+    default int getQueueDepth() {
+        return -1;
+    }
+
+    /**
+     * Returns a new scheduler that runs at most {@code maxRunning} tasks at
+     * once using this scheduler, and queues at most {@code capacity} more.
+     * When the queue is full, the policy decides what happens to new tasks.
+     * This keeps a burst of submissions (like a spike of player joins) from
+     * growing memory and latency without limit.
+     *
+     * <pre>{@code
+     * AsyncSchedulerImplementation loader = scheduler.async().io().bounded(8, 1000, OverflowPolicy.REJECT);
+     * loader.runNow(task -> database.load(uuid)).asFuture()
+     *     .exceptionally(ex -> { player.kickPlayer("Server is busy, try again"); return null; });
+     * }</pre>
+     *
+     * <p>Producers can check {@link #getQueueDepth()} on the returned
+     * scheduler to slow down before the queue fills up.
+     *
+     * <p>The default implementation owns its tasks by the plugin that
+     * provides this scheduler's class. The built-in schedulers use the
+     * plugin they were created with.
+     *
+     * @param maxRunning The maximum number of tasks running at once.
+     * @param capacity The maximum number of tasks waiting to run.
+     * @param policy What to do with new tasks when the queue is full.
+     * @return The bounded scheduler.
+     */
+    default @NotNull AsyncSchedulerImplementation bounded(int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        return new BoundedAsyncScheduler(this, maxRunning, capacity, policy);
+    }
+
     /**
      * Schedules a task to be run asynchronously after a delay.
      *
@@ -255,10 +353,9 @@ public interface AsyncSchedulerImplementation {
      * Cancels all async tasks that were scheduled using your {@link Plugin}
      * instance.
      *
-     * <p>Note that the behavior of this method changes depending on the
-     * server implementation. For example, in Spigot, this method will cancel
-     * all tasks (sync + async) scheduled by the plugin, while in Paper/Folia,
-     * this method will only cancel tasks scheduled using the async scheduler.
+     * <p>On all servers, this method will only cancel tasks scheduled using
+     * the async scheduler. Use {@link ServerImplementation#cancelTasks()} to
+     * cancel every task scheduled by the plugin.
      *
      * @see GlobalSchedulerImplementation#cancelTasks()
      * @see <a href="https://github.com/CJCrafter/FoliaScheduler/issues/28">Issue #28</a>
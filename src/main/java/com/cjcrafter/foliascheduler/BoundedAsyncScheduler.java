@@ -0,0 +1,265 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * An {@link AsyncSchedulerImplementation} that limits how many tasks may run
+ * at once, and how many tasks may wait for their turn. Tasks are started in
+ * the order they were submitted. When the queue is full, the
+ * {@link OverflowPolicy} decides what happens to the new task.
+ *
+ * <p>Only {@link #runNow(Function)} is bounded. Delayed and repeating tasks
+ * are passed to the underlying scheduler as-is.
+ *
+ * @see AsyncSchedulerImplementation#bounded(int, int, OverflowPolicy)
+ */
+public class BoundedAsyncScheduler implements AsyncSchedulerImplementation {
+
+    private final @NotNull Plugin plugin;
+    private final @NotNull AsyncSchedulerImplementation delegate;
+    private final @NotNull Executor executor;
+    private final int maxRunning;
+    private final int capacity;
+    private final @NotNull OverflowPolicy policy;
+    private final @NotNull TaskGroup tasks;
+
+    // The lock guards the queue and the running count
+    private final @NotNull ReentrantLock lock;
+    private final @NotNull Condition notFull;
+    private final @NotNull ArrayDeque<Entry> queue;
+    private int running;
+
+    /**
+     * Creates a bounded scheduler for tasks owned by the plugin that provides
+     * the delegate's class.
+     *
+     * @param delegate The scheduler that runs the tasks.
+     * @param maxRunning The maximum number of tasks running at once.
+     * @param capacity The maximum number of tasks waiting to run.
+     * @param policy What to do with new tasks when the queue is full.
+     * @throws IllegalArgumentException If the delegate's class was not loaded by a plugin.
+     * @see JavaPlugin#getProvidingPlugin(Class)
+     */
+    public BoundedAsyncScheduler(@NotNull AsyncSchedulerImplementation delegate, int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        this(JavaPlugin.getProvidingPlugin(delegate.getClass()), delegate, maxRunning, capacity, policy);
+    }
+
+    /**
+     * Creates a bounded scheduler for tasks owned by the given plugin.
+     *
+     * @param plugin The plugin that owns the tasks.
+     * @param delegate The scheduler that runs the tasks.
+     * @param maxRunning The maximum number of tasks running at once.
+     * @param capacity The maximum number of tasks waiting to run.
+     * @param policy What to do with new tasks when the queue is full.
+     */
+    public BoundedAsyncScheduler(@NotNull Plugin plugin, @NotNull AsyncSchedulerImplementation delegate, int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        if (maxRunning < 1)
+            throw new IllegalArgumentException("maxRunning must be at least 1, got " + maxRunning);
+        if (capacity < 0)
+            throw new IllegalArgumentException("capacity cannot be negative, got " + capacity);
+
+        this.plugin = plugin;
+        this.delegate = delegate;
+        this.executor = delegate.asExecutor();
+        this.maxRunning = maxRunning;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.tasks = new TaskGroup("bounded");
+        this.lock = new ReentrantLock();
+        this.notFull = lock.newCondition();
+        this.queue = new ArrayDeque<>();
+    }
+
+    /**
+     * Returns the number of tasks waiting for their turn to run.
+     *
+     * @return The number of tasks in the queue.
+     */
+    @Override
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximum number of tasks that can wait in the queue.
+     *
+     * @return The capacity of the queue.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of tasks currently handed to the underlying scheduler.
+     *
+     * @return The number of running tasks.
+     */
+    public int getRunning() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> @NotNull TaskImplementation<T> runNow(@NotNull Function<TaskImplementation<T>, T> function) {
+        ExecutorTask<T> taskImplementation = new ExecutorTask<>(plugin, false);
+        Entry entry = new Entry(taskImplementation, () -> taskImplementation.run(function));
+        tasks.add(taskImplementation);
+
+        boolean dispatch = false;
+        boolean rejected = false;
+        boolean callerRuns = false;
+        Entry dropped = null;
+
+        lock.lock();
+        try {
+            while (true) {
+                if (running < maxRunning) {
+                    running++;
+                    dispatch = true;
+                    break;
+                }
+                if (queue.size() < capacity) {
+                    queue.addLast(entry);
+                    break;
+                }
+
+                if (policy == OverflowPolicy.BLOCK) {
+                    try {
+                        notFull.await();
+                        continue;
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        rejected = true;
+                    }
+                } else if (policy == OverflowPolicy.DROP_OLDEST && !queue.isEmpty()) {
+                    dropped = queue.pollFirst();
+                    queue.addLast(entry);
+                } else if (policy == OverflowPolicy.CALLER_RUNS) {
+                    callerRuns = true;
+                } else {
+                    rejected = true;
+                }
+                break;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Run callbacks outside the lock, since they may run user code
+        if (dropped != null) {
+            dropped.task.cancel();
+            dropped.task.asFuture().cancel(false);
+        }
+        if (rejected)
+            reject(taskImplementation, new RejectedExecutionException("Async queue is full"));
+        else if (callerRuns)
+            entry.body.run();
+        else if (dispatch)
+            dispatch(entry);
+        return taskImplementation;
+    }
+
+    @Override
+    public <T> @NotNull TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, long delay, @NotNull TimeUnit unit) {
+        return tasks.add(delegate.runDelayed(function, delay, unit));
+    }
+
+    @Override
+    public <T> @NotNull TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period, @NotNull TimeUnit unit) {
+        return tasks.add(delegate.runAtFixedRate(function, delay, period, unit));
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation bounded(int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        return new BoundedAsyncScheduler(plugin, this, maxRunning, capacity, policy);
+    }
+
+    @Override
+    public void cancelTasks() {
+        tasks.cancel();
+    }
+
+    private void dispatch(@NotNull Entry first) {
+        // Loop instead of recursing, so an executor that keeps rejecting
+        // drains the queue without overflowing the stack
+        Entry entry = first;
+        while (entry != null) {
+            Entry current = entry;
+            try {
+                executor.execute(() -> {
+                    try {
+                        current.body.run();
+                    } finally {
+                        onFinish();
+                    }
+                });
+                return;
+            } catch (RuntimeException ex) {
+                // RejectedExecutionException, or Bukkit's IllegalPluginAccessException
+                // once the plugin is disabled
+                reject(current.task, ex);
+                entry = next();
+            }
+        }
+    }
+
+    private void onFinish() {
+        // The slot is handed straight to the next task
+        Entry next = next();
+        if (next != null)
+            dispatch(next);
+    }
+
+    /**
+     * Takes the next queued task, which inherits the running slot of the task
+     * that just finished. If the queue is empty, the slot is released.
+     */
+    private @Nullable Entry next() {
+        lock.lock();
+        try {
+            Entry next = queue.pollFirst();
+            if (next == null)
+                running--;
+            notFull.signal();
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void reject(@NotNull ExecutorTask<?> task, @NotNull Throwable cause) {
+        task.cancel();
+        task.asFuture().completeExceptionally(cause);
+    }
+
+    private static final class Entry {
+        private final @NotNull ExecutorTask<?> task;
+        private final @NotNull Runnable body;
+
+        private Entry(@NotNull ExecutorTask<?> task, @NotNull Runnable body) {
+            this.task = task;
+            this.body = body;
+        }
+    }
+}
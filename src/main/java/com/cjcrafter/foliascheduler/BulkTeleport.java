@@ -0,0 +1,182 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
+import com.cjcrafter.foliascheduler.util.LongObjectMap;
+import com.cjcrafter.foliascheduler.util.ServerCapabilities;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teleports many entities at once, for
+ * {@link ServerImplementation#teleportAllAsync(Map, PlayerTeleportEvent.TeleportCause, int)}.
+ *
+ * <p>Destinations are grouped by chunk, so each chunk is loaded once. On
+ * Paper, every chunk is loaded with {@code World#getChunkAtAsync} up front.
+ * On Spigot, chunks are loaded on the main thread, within the same per-tick
+ * budget as the teleports. A task on the global region starts at most
+ * {@code perTick} chunk loads and teleports each tick, for chunks that are
+ * already loaded.
+ */
+final class BulkTeleport {
+
+    private final @NotNull ServerImplementation server;
+    private final @NotNull PlayerTeleportEvent.TeleportCause cause;
+    private final int perTick;
+
+    // Only used by the global region task
+    private final @NotNull Queue<Destinations> unloaded = new ArrayDeque<>();
+    private @Nullable Destinations current;
+    private int currentIndex;
+
+    private final @NotNull Queue<Destinations> ready = new ConcurrentLinkedQueue<>();
+    private final @NotNull Map<Entity, Boolean> results = new ConcurrentHashMap<>();
+    private final @NotNull AtomicInteger remaining = new AtomicInteger();
+    private final @NotNull CompletableFuture<Map<Entity, Boolean>> future = new CompletableFuture<>();
+
+    BulkTeleport(@NotNull ServerImplementation server, @NotNull PlayerTeleportEvent.TeleportCause cause, int perTick) {
+        if (perTick < 1)
+            throw new IllegalArgumentException("perTick must be at least 1, got " + perTick);
+
+        this.server = server;
+        this.cause = cause;
+        this.perTick = perTick;
+    }
+
+    @NotNull CompletableFuture<Map<Entity, Boolean>> start(@NotNull Map<? extends Entity, ? extends Location> destinations) {
+        if (destinations.isEmpty())
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+
+        // Group by chunk, so each chunk is only loaded once
+        Map<World, LongObjectMap<Destinations>> chunks = new HashMap<>();
+        for (Map.Entry<? extends Entity, ? extends Location> entry : destinations.entrySet()) {
+            Location location = entry.getValue();
+            World world = location.getWorld();
+            if (world == null)
+                throw new IllegalArgumentException("Destination of " + entry.getKey() + " has no world");
+
+            int chunkX = location.getBlockX() >> 4;
+            int chunkZ = location.getBlockZ() >> 4;
+            chunks.computeIfAbsent(world, k -> new LongObjectMap<>())
+                .computeIfAbsent(ChunkKeys.pack(chunkX, chunkZ), k -> new Destinations(world, chunkX, chunkZ))
+                .add(entry.getKey(), location);
+        }
+        remaining.set(destinations.size());
+
+        boolean loadAsync = ServerCapabilities.get().hasChunkAtAsync();
+        for (LongObjectMap<Destinations> worldChunks : chunks.values()) {
+            worldChunks.forEach((key, group) -> {
+                if (loadAsync)
+                    loadAsync(group);
+                else
+                    unloaded.add(group);
+            });
+        }
+
+        server.global().runAtFixedRate(this::tick, 1L, 1L);
+        return future;
+    }
+
+    private void loadAsync(@NotNull Destinations group) {
+        ChunkPreloader.loadAsync(group.world, group.chunkX, group.chunkZ).whenComplete((chunk, ex) -> {
+            if (ex != null)
+                fail(group);
+            else
+                ready.add(group);
+        });
+    }
+
+    private void tick(@NotNull TaskImplementation<Void> task) {
+        if (future.isDone()) {
+            task.cancel();
+            return;
+        }
+
+        int budget = perTick;
+
+        // Spigot has no async chunk loading, so load a few chunks each tick
+        Destinations group;
+        while (budget > 0 && (group = unloaded.poll()) != null) {
+            budget--;
+            try {
+                group.world.getChunkAt(group.chunkX, group.chunkZ);
+                ready.add(group);
+            } catch (Throwable ex) {
+                fail(group);
+            }
+        }
+
+        while (budget > 0) {
+            if (current == null || currentIndex == current.entities.size()) {
+                current = ready.poll();
+                currentIndex = 0;
+                if (current == null)
+                    break;
+            }
+
+            budget--;
+            Entity entity = current.entities.get(currentIndex);
+            Location location = current.locations.get(currentIndex);
+            currentIndex++;
+
+            // Entities removed since the call, like players that quit, are not teleported
+            if (!entity.isValid()) {
+                finish(entity, false);
+                continue;
+            }
+            try {
+                server.teleportAsync(entity, location, cause).whenComplete((success, ex) -> finish(entity, ex == null && Boolean.TRUE.equals(success)));
+            } catch (Throwable ex) {
+                finish(entity, false);
+            }
+        }
+    }
+
+    private void fail(@NotNull Destinations group) {
+        for (Entity entity : group.entities)
+            finish(entity, false);
+    }
+
+    private void finish(@NotNull Entity entity, boolean success) {
+        results.put(entity, success);
+        if (remaining.decrementAndGet() == 0)
+            future.complete(Collections.unmodifiableMap(results));
+    }
+
+    /**
+     * The entities going to one chunk.
+     */
+    private static final class Destinations {
+        private final @NotNull World world;
+        private final int chunkX;
+        private final int chunkZ;
+        private final @NotNull List<Entity> entities = new ArrayList<>();
+        private final @NotNull List<Location> locations = new ArrayList<>();
+
+        Destinations(@NotNull World world, int chunkX, int chunkZ) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        void add(@NotNull Entity entity, @NotNull Location location) {
+            entities.add(entity);
+            locations.add(location);
+        }
+    }
+}
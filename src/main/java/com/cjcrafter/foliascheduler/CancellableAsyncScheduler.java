@@ -0,0 +1,71 @@
+package com.cjcrafter.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Links every task scheduled by the delegate scheduler to a {@link CancellationToken}.
+ *
+ * @see ServerImplementation#withToken(CancellationToken)
+ */
+class CancellableAsyncScheduler implements AsyncSchedulerImplementation {
+
+    private final @NotNull AsyncSchedulerImplementation delegate;
+    private final @NotNull CancellationToken token;
+
+    CancellableAsyncScheduler(@NotNull AsyncSchedulerImplementation delegate, @NotNull CancellationToken token) {
+        this.delegate = delegate;
+        this.token = token;
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runNow(@NotNull Function<TaskImplementation<T>, T> function) {
+        return token.link(delegate.runNow(token.guard(function)));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, long delay, @NotNull TimeUnit unit) {
+        return token.link(delegate.runDelayed(token.guard(function), delay, unit));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period, @NotNull TimeUnit unit) {
+        return token.link(delegate.runAtFixedRate(token.guard(function), delay, period, unit));
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation virtual() {
+        return wrap(delegate.virtual());
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation io() {
+        return wrap(delegate.io());
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation compute() {
+        return wrap(delegate.compute());
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation bounded(int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        return new CancellableAsyncScheduler(delegate.bounded(maxRunning, capacity, policy), token);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return delegate.getQueueDepth();
+    }
+
+    @Override
+    public void cancelTasks() {
+        delegate.cancelTasks();
+    }
+
+    private @NotNull AsyncSchedulerImplementation wrap(@NotNull AsyncSchedulerImplementation lane) {
+        return lane == delegate ? this : new CancellableAsyncScheduler(lane, token);
+    }
+}
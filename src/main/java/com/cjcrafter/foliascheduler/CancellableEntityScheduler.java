@@ -0,0 +1,42 @@
+package com.cjcrafter.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Links every task scheduled by the delegate scheduler to a {@link CancellationToken}.
+ *
+ * @see ServerImplementation#withToken(CancellationToken)
+ */
+class CancellableEntityScheduler implements EntitySchedulerImplementation {
+
+    private final @NotNull EntitySchedulerImplementation delegate;
+    private final @NotNull CancellationToken token;
+
+    CancellableEntityScheduler(@NotNull EntitySchedulerImplementation delegate, @NotNull CancellationToken token) {
+        this.delegate = delegate;
+        this.token = token;
+    }
+
+    @Override
+    public boolean execute(@NotNull Runnable run, @Nullable Runnable retired, long delay) {
+        return delegate.execute(token.guard(run), retired, delay);
+    }
+
+    @Override
+    public @Nullable <T> TaskImplementation<T> run(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired) {
+        return token.link(delegate.run(token.guard(function), retired));
+    }
+
+    @Override
+    public @Nullable <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired, long delay) {
+        return token.link(delegate.runDelayed(token.guard(function), retired, delay));
+    }
+
+    @Override
+    public @Nullable <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired, long delay, long period) {
+        return token.link(delegate.runAtFixedRate(token.guard(function), retired, delay, period));
+    }
+}
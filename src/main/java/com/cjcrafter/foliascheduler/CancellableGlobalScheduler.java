@@ -0,0 +1,46 @@
+package com.cjcrafter.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+/**
+ * Links every task scheduled by the delegate scheduler to a {@link CancellationToken}.
+ *
+ * @see ServerImplementation#withToken(CancellationToken)
+ */
+class CancellableGlobalScheduler implements GlobalSchedulerImplementation {
+
+    private final @NotNull GlobalSchedulerImplementation delegate;
+    private final @NotNull CancellationToken token;
+
+    CancellableGlobalScheduler(@NotNull GlobalSchedulerImplementation delegate, @NotNull CancellationToken token) {
+        this.delegate = delegate;
+        this.token = token;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable run) {
+        delegate.execute(token.guard(run));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> run(@NotNull Function<TaskImplementation<T>, T> function) {
+        return token.link(delegate.run(token.guard(function)));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, long delay) {
+        return token.link(delegate.runDelayed(token.guard(function), delay));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period) {
+        return token.link(delegate.runAtFixedRate(token.guard(function), delay, period));
+    }
+
+    @Override
+    public void cancelTasks() {
+        delegate.cancelTasks();
+    }
+}
@@ -0,0 +1,46 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A view of a {@link ServerImplementation} that links every scheduled task to
+ * a {@link CancellationToken}. Every method that does not schedule a task is
+ * delegated to the original server.
+ *
+ * @see ServerImplementation#withToken(CancellationToken)
+ */
+class CancellableServer extends ForwardingServer {
+
+    private final @NotNull CancellationToken token;
+    private final @NotNull CancellableGlobalScheduler global;
+    private final @NotNull CancellableAsyncScheduler async;
+
+    CancellableServer(@NotNull ServerImplementation delegate, @NotNull CancellationToken token) {
+        super(delegate);
+        this.token = token;
+        this.global = new CancellableGlobalScheduler(delegate.global(), token);
+        this.async = new CancellableAsyncScheduler(delegate.async(), token);
+    }
+
+    @Override
+    public @NotNull GlobalSchedulerImplementation global() {
+        return global;
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation async() {
+        return async;
+    }
+
+    @Override
+    public @NotNull EntitySchedulerImplementation entity(@NotNull Entity entity) {
+        return new CancellableEntityScheduler(delegate.entity(entity), token);
+    }
+
+    @Override
+    public @NotNull RegionSchedulerImplementation region(@NotNull World world, int chunkX, int chunkZ) {
+        return new CancellableRegionScheduler(delegate.region(world, chunkX, chunkZ), token);
+    }
+}
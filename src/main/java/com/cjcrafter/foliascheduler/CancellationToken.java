@@ -0,0 +1,157 @@
+package com.cjcrafter.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A token that can cancel a tree of tasks spread across the entity, region,
+ * global and async schedulers, like every follow-up task of a minigame arena.
+ *
+ * <p>Tasks are linked to a token by scheduling them through
+ * {@link ServerImplementation#withToken(CancellationToken)}. When the token is
+ * cancelled, every linked task that is still pending is cancelled, and its
+ * {@link TaskImplementation#asFuture() future} is cancelled. Linked tasks that
+ * were already handed to a server thread check the token (a single volatile
+ * read) before running, and are skipped if it was cancelled.
+ *
+ * <pre>{@code
+ * CancellationToken token = new CancellationToken();
+ * ServerImplementation arena = scheduler.withToken(token);
+ * arena.region(spawn).runDelayed(task -> {
+ *     arena.entity(boss).runAtFixedRate(bossTask -> bossTick(), 1L, 1L);
+ * }, 200L);
+ *
+ * // Later, when the arena resets. Both tasks are cancelled.
+ * token.cancel();
+ * }</pre>
+ *
+ * <p>Tokens can be nested with {@link #child()}. Cancelling a token cancels
+ * all of its children, but cancelling a child does not affect its parent.
+ */
+public class CancellationToken {
+
+    private final @Nullable CancellationToken parent;
+    private final @NotNull TaskGroup tasks;
+    private final @NotNull Set<CancellationToken> children;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(null);
+    }
+
+    private CancellationToken(@Nullable CancellationToken parent) {
+        this.parent = parent;
+        this.tasks = new TaskGroup("token");
+        this.children = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Creates a new token that is cancelled when this token is cancelled.
+     *
+     * @return The child token.
+     */
+    public @NotNull CancellationToken child() {
+        CancellationToken child = new CancellationToken(this);
+        children.add(child);
+
+        // If this token was cancelled while the child was added, the child
+        // may have been missed by #cancel()
+        if (cancelled)
+            child.cancel();
+        return child;
+    }
+
+    /**
+     * Returns whether this token has been cancelled.
+     *
+     * @return Whether this token has been cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels this token, every linked task, and every child token. Calling
+     * this method more than once has no effect.
+     */
+    public void cancel() {
+        if (cancelled)
+            return;
+        cancelled = true;
+
+        for (TaskImplementation<?> task : tasks.getTasks()) {
+            tasks.remove(task);
+            cancelTask(task);
+        }
+        for (CancellationToken child : children)
+            child.cancel();
+        children.clear();
+
+        if (parent != null)
+            parent.children.remove(this);
+    }
+
+    /**
+     * Links a task to this token, so cancelling the token also cancels the
+     * task. If this token is already cancelled, the task is cancelled
+     * immediately.
+     *
+     * @param task The task to link, or null.
+     * @return The same task.
+     * @param <T> The callback type of the task.
+     */
+    public <T> @Nullable TaskImplementation<T> link(@Nullable TaskImplementation<T> task) {
+        if (task == null)
+            return null;
+
+        tasks.add(task);
+        if (cancelled) {
+            tasks.remove(task);
+            cancelTask(task);
+        }
+        return task;
+    }
+
+    /**
+     * Wraps a task function, so the function is skipped if this token is
+     * cancelled before the task starts running.
+     *
+     * @param function The task function to wrap.
+     * @return The wrapped function.
+     * @param <T> The callback type of the task.
+     */
+    public <T> @NotNull Function<TaskImplementation<T>, T> guard(@NotNull Function<TaskImplementation<T>, T> function) {
+        return task -> {
+            if (cancelled) {
+                cancelTask(task);
+                return null;
+            }
+            return function.apply(task);
+        };
+    }
+
+    /**
+     * Wraps a runnable, so the runnable is skipped if this token is cancelled
+     * before it starts running.
+     *
+     * @param runnable The runnable to wrap.
+     * @return The wrapped runnable.
+     */
+    public @NotNull Runnable guard(@NotNull Runnable runnable) {
+        return () -> {
+            if (!cancelled)
+                runnable.run();
+        };
+    }
+
+    private static void cancelTask(@NotNull TaskImplementation<?> task) {
+        task.cancel();
+
+        // Complete the future so chained callbacks do not wait forever
+        task.asFuture().cancel(false);
+    }
+}
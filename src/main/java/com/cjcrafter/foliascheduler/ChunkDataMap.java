@@ -0,0 +1,222 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
+import com.cjcrafter.foliascheduler.util.ConcurrentLongObjectMap;
+import com.cjcrafter.foliascheduler.util.LongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Stores a value per chunk (like claim data), where each value belongs to the
+ * thread that owns its chunk. Since a chunk is only ever owned by one region
+ * at a time, the owning thread can read and write its chunks without any
+ * locks, and threads of different regions never contend with each other.
+ *
+ * <p>{@link #get}, {@link #put}, {@link #remove} and {@link #computeIfAbsent}
+ * may only be called from the thread that owns the chunk, and throw an
+ * {@link IllegalStateException} otherwise. From any other thread, use
+ * {@link #runOnOwner(World, int, int, Supplier)} to hop to the owning thread
+ * first:
+ *
+ * <pre>{@code
+ * ChunkDataMap<Claim> claims = new ChunkDataMap<>(scheduler);
+ *
+ * // In a BlockBreakEvent, we are already on the owning thread
+ * Claim claim = claims.get(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+ *
+ * // From a command, which may run on any thread
+ * claims.runOnOwner(location, () -> claims.put(world, chunkX, chunkZ, new Claim(player)));
+ * }</pre>
+ *
+ * <p>Values are grouped by Folia region section (see
+ * {@link ChunkKeys#REGION_SECTION_SHIFT}), and each region only touches the
+ * sections it owns. This relies on Folia's {@code grid-exponent} being at
+ * least its default of {@code 4}. On Paper/Spigot, every chunk is owned by the
+ * main thread.
+ *
+ * @param <V> The type of the values.
+ */
+public class ChunkDataMap<V> {
+
+    private final @NotNull ServerImplementation server;
+    private final @NotNull ConcurrentMap<UUID, ConcurrentLongObjectMap<LongObjectMap<V>>> worlds;
+
+    public ChunkDataMap(@NotNull ServerImplementation server) {
+        this.server = server;
+        this.worlds = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the value for the chunk, or null if there is no value. Must be
+     * called from the thread that owns the chunk.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @return The value, or null.
+     * @throws IllegalStateException If the current thread does not own the chunk.
+     */
+    public @Nullable V get(@NotNull World world, int chunkX, int chunkZ) {
+        checkOwned(world, chunkX, chunkZ);
+        LongObjectMap<V> section = section(world, chunkX, chunkZ, false);
+        return section == null ? null : section.get(ChunkKeys.pack(chunkX, chunkZ));
+    }
+
+    /**
+     * Sets the value for the chunk. Must be called from the thread that owns
+     * the chunk.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @param value The new value.
+     * @return The previous value, or null.
+     * @throws IllegalStateException If the current thread does not own the chunk.
+     */
+    public @Nullable V put(@NotNull World world, int chunkX, int chunkZ, @NotNull V value) {
+        checkOwned(world, chunkX, chunkZ);
+        LongObjectMap<V> section = section(world, chunkX, chunkZ, true);
+        return section.put(ChunkKeys.pack(chunkX, chunkZ), value);
+    }
+
+    /**
+     * Returns the value for the chunk, creating it if there is no value. Must
+     * be called from the thread that owns the chunk.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @param supplier Creates the value if there is no value.
+     * @return The current value.
+     * @throws IllegalStateException If the current thread does not own the chunk.
+     */
+    public @NotNull V computeIfAbsent(@NotNull World world, int chunkX, int chunkZ, @NotNull Supplier<? extends V> supplier) {
+        checkOwned(world, chunkX, chunkZ);
+        LongObjectMap<V> section = section(world, chunkX, chunkZ, true);
+        return section.computeIfAbsent(ChunkKeys.pack(chunkX, chunkZ), key -> supplier.get());
+    }
+
+    /**
+     * Removes the value for the chunk. Must be called from the thread that
+     * owns the chunk.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @return The removed value, or null.
+     * @throws IllegalStateException If the current thread does not own the chunk.
+     */
+    public @Nullable V remove(@NotNull World world, int chunkX, int chunkZ) {
+        checkOwned(world, chunkX, chunkZ);
+
+        // Keep the world's map, since clear(World) may remove it meanwhile
+        ConcurrentLongObjectMap<LongObjectMap<V>> sections = worlds.get(world.getUID());
+        if (sections == null)
+            return null;
+
+        long key = ChunkKeys.pack(chunkX, chunkZ);
+        long sectionKey = ChunkKeys.section(key);
+        LongObjectMap<V> section = sections.get(sectionKey);
+        if (section == null)
+            return null;
+
+        V removed = section.remove(key);
+
+        // Only the owning region touches this section, so it is safe to
+        // remove it once it is empty
+        if (section.isEmpty())
+            sections.remove(sectionKey, section);
+        return removed;
+    }
+
+    /**
+     * Runs the action on the thread that owns the chunk. If the current
+     * thread already owns the chunk, the action runs immediately, without
+     * scheduling a task.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @param action The action to run.
+     * @return A future that completes with the result of the action.
+     * @param <R> The result type of the action.
+     */
+    public <R> @NotNull CompletableFuture<R> runOnOwner(@NotNull World world, int chunkX, int chunkZ, @NotNull Supplier<R> action) {
+        if (server.isOwnedByCurrentRegion(world, chunkX, chunkZ)) {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (Throwable ex) {
+                CompletableFuture<R> failed = new CompletableFuture<>();
+                failed.completeExceptionally(ex);
+                return failed;
+            }
+        }
+
+        CompletableFuture<R> future = new CompletableFuture<>();
+        server.region(world, chunkX, chunkZ).execute(() -> {
+            try {
+                future.complete(action.get());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs the action on the thread that owns the chunk containing the
+     * location.
+     *
+     * @param location The location in the chunk.
+     * @param action The action to run.
+     * @return A future that completes with the result of the action.
+     * @param <R> The result type of the action.
+     * @see #runOnOwner(World, int, int, Supplier)
+     */
+    public <R> @NotNull CompletableFuture<R> runOnOwner(@NotNull Location location, @NotNull Supplier<R> action) {
+        World world = location.getWorld();
+        if (world == null)
+            throw new IllegalArgumentException("Location world cannot be null");
+        return runOnOwner(world, location.getBlockX() >> 4, location.getBlockZ() >> 4, action);
+    }
+
+    /**
+     * Removes every value of the world. This should be called when the world
+     * is unloaded.
+     *
+     * @param world The world to clear.
+     */
+    public void clear(@NotNull World world) {
+        worlds.remove(world.getUID());
+    }
+
+    private void checkOwned(@NotNull World world, int chunkX, int chunkZ) {
+        if (!server.isOwnedByCurrentRegion(world, chunkX, chunkZ))
+            throw new IllegalStateException("Chunk " + chunkX + ", " + chunkZ + " in " + world.getName() + " is not owned by this thread, use runOnOwner");
+    }
+
+    private @Nullable LongObjectMap<V> section(@NotNull World world, int chunkX, int chunkZ, boolean create) {
+        long sectionKey = ChunkKeys.section(ChunkKeys.pack(chunkX, chunkZ));
+
+        // get() first, since computeIfAbsent may lock even when the key exists
+        ConcurrentLongObjectMap<LongObjectMap<V>> sections = worlds.get(world.getUID());
+        if (sections == null) {
+            if (!create)
+                return null;
+            sections = worlds.computeIfAbsent(world.getUID(), uuid -> new ConcurrentLongObjectMap<>());
+        }
+
+        LongObjectMap<V> section = sections.get(sectionKey);
+        if (section == null && create)
+            section = sections.computeIfAbsent(sectionKey, key -> new LongObjectMap<>());
+        return section;
+    }
+}
@@ -0,0 +1,72 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
+import com.cjcrafter.foliascheduler.util.LazyMethodInvoker;
+import com.cjcrafter.foliascheduler.util.ServerCapabilities;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads chunks before region work runs, using Paper's
+ * {@code World#getChunkAtAsync} when it is available.
+ */
+final class ChunkPreloader {
+
+    // Paper 1.13+, not in the Spigot API this library is compiled against
+    private static final LazyMethodInvoker GET_CHUNK_AT_ASYNC = LazyMethodInvoker.of(World.class, "getChunkAtAsync", int.class, int.class);
+
+    private ChunkPreloader() {
+    }
+
+    /**
+     * Loads one chunk asynchronously. Only call this when
+     * {@link ServerCapabilities#hasChunkAtAsync()} is true.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @return A future that completes when the chunk is loaded.
+     */
+    static @NotNull CompletableFuture<?> loadAsync(@NotNull World world, int chunkX, int chunkZ) {
+        try {
+            CompletableFuture<?> future = (CompletableFuture<?>) GET_CHUNK_AT_ASYNC.invoke(world, chunkX, chunkZ);
+            if (future == null)
+                throw new IllegalStateException("getChunkAtAsync returned null for " + chunkX + ", " + chunkZ);
+            return future;
+        } catch (Throwable ex) {
+            CompletableFuture<?> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+    }
+
+    /**
+     * Loads every chunk in the list. On servers without asynchronous chunk
+     * loading, the chunks are loaded in one task on the given executor,
+     * which must run on the thread that owns the chunks.
+     *
+     * @param world The world the chunks are in.
+     * @param chunkKeys The chunks to load, packed with {@link ChunkKeys#pack(int, int)}.
+     * @param fallback Runs synchronous chunk loads, when they are needed.
+     * @return A future that completes when every chunk is loaded.
+     */
+    static @NotNull CompletableFuture<Void> loadAll(@NotNull World world, long @NotNull [] chunkKeys, @NotNull Executor fallback) {
+        if (chunkKeys.length == 0)
+            return CompletableFuture.completedFuture(null);
+
+        if (ServerCapabilities.get().hasChunkAtAsync()) {
+            CompletableFuture<?>[] loads = new CompletableFuture<?>[chunkKeys.length];
+            for (int i = 0; i < chunkKeys.length; i++)
+                loads[i] = loadAsync(world, ChunkKeys.x(chunkKeys[i]), ChunkKeys.z(chunkKeys[i]));
+            return CompletableFuture.allOf(loads);
+        }
+
+        return CompletableFuture.runAsync(() -> {
+            for (long key : chunkKeys)
+                world.getChunkAt(ChunkKeys.x(key), ChunkKeys.z(key));
+        }, fallback);
+    }
+}
@@ -1,8 +1,11 @@
 package com.cjcrafter.foliascheduler;
 
+import org.bukkit.entity.Entity;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -33,6 +36,26 @@ public interface EntitySchedulerImplementation {
         return execute(run, null, 1);
     }
 
+    /**
+     * Returns an {@link Executor} that runs commands on the next tick, on the
+     * thread that owns the entity. If the entity is already retired, the
+     * executor throws a {@link RejectedExecutionException}, which fails the
+     * dependent {@link java.util.concurrent.CompletableFuture} stage.
+     *
+     * <p>If the entity is retired <i>after</i> a command was accepted, the
+     * command is silently dropped. Use
+     * {@link FutureChain#thenApplyOnEntity(Entity, Function)} if you need the
+     * chain to fail in that case.
+     *
+     * @return An executor that runs commands on the thread that owns the entity.
+     */
+    default @NotNull Executor asExecutor() {
+        return command -> {
+            if (!execute(command, null, 1))
+                throw new RejectedExecutionException("Entity is retired");
+        };
+    }
+
     /**
      * Schedules a task to be run on the next tick.
      *
@@ -0,0 +1,223 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.util.MethodInvoker;
+import com.cjcrafter.foliascheduler.util.ServerCapabilities;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * An {@link AsyncSchedulerImplementation} that runs tasks using any
+ * {@link Executor}. Delayed and repeating tasks wait on a single shared timer
+ * thread, and are handed to the executor when they are due, so the executor's
+ * threads are only used while a task is actually running.
+ *
+ * <p>Use {@link AsyncSchedulerImplementation#virtual()},
+ * {@link AsyncSchedulerImplementation#io()} or
+ * {@link AsyncSchedulerImplementation#compute()} to get a shared scheduler
+ * for a specific kind of work.
+ */
+public class ExecutorAsyncScheduler implements AsyncSchedulerImplementation {
+
+    private final @NotNull Plugin plugin;
+    private final @NotNull Executor executor;
+    private final @NotNull TaskGroup tasks;
+    private final @NotNull AtomicInteger queueDepth;
+
+    public ExecutorAsyncScheduler(@NotNull Plugin plugin, @NotNull String name, @NotNull Executor executor) {
+        this.plugin = plugin;
+        this.executor = executor;
+        this.tasks = new TaskGroup(name);
+        this.queueDepth = new AtomicInteger();
+    }
+
+    /**
+     * Creates a scheduler that runs each task on a new virtual thread. Virtual
+     * threads are cheap to create and to block, which makes them a good fit
+     * for blocking I/O, like JDBC or HTTP calls.
+     *
+     * <p>Virtual threads were added in Java 21. On older versions of Java,
+     * this method returns null.
+     *
+     * @param plugin The plugin that owns the tasks.
+     * @return The new scheduler, or null if virtual threads are not supported.
+     */
+    public static @Nullable ExecutorAsyncScheduler ofVirtualThreads(@NotNull Plugin plugin) {
+        if (ServerCapabilities.get().getJavaVersion() < 21)
+            return null;
+
+        try {
+            // Compiled against Java 8, so we have to find this method at runtime
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            Executor executor = (Executor) new MethodInvoker(method).invoke(null);
+            return new ExecutorAsyncScheduler(plugin, "virtual", executor);
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a scheduler for blocking I/O, like disk or database access. The
+     * pool grows on demand up to {@code 10} threads per core, and threads are
+     * stopped after being idle for a minute. At most {@code 100,000} tasks
+     * may wait for a thread, after which a {@link RejectedExecutionException}
+     * is thrown.
+     *
+     * @param plugin The plugin that owns the tasks.
+     * @return The new scheduler.
+     */
+    public static @NotNull ExecutorAsyncScheduler ofIoPool(@NotNull Plugin plugin) {
+        int threads = 10 * Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(100_000), threadFactory(plugin.getName() + " IO Thread"));
+
+        // Since core == max, this makes the pool elastic: threads are only
+        // created when there is work, and are stopped when there is not
+        executor.allowCoreThreadTimeOut(true);
+        return new ExecutorAsyncScheduler(plugin, "io", executor);
+    }
+
+    /**
+     * Creates a scheduler for CPU-bound work, like pathfinding or world
+     * generation. Tasks run on a work-stealing {@link ForkJoinPool} with one
+     * thread per core. Blocking tasks should use {@link #ofIoPool(Plugin)}
+     * instead, since they would prevent other tasks from using the core.
+     *
+     * @param plugin The plugin that owns the tasks.
+     * @return The new scheduler.
+     */
+    public static @NotNull ExecutorAsyncScheduler ofComputePool(@NotNull Plugin plugin) {
+        String name = plugin.getName() + " Compute Thread";
+        AtomicInteger count = new AtomicInteger();
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(name + " #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // asyncMode uses FIFO ordering, which suits independent tasks that are never joined
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), factory, null, true);
+        return new ExecutorAsyncScheduler(plugin, "compute", pool);
+    }
+
+    private static @NotNull ThreadFactory threadFactory(@NotNull String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + " #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns the number of tasks that are due, but are waiting for a thread.
+     * Delayed tasks are not counted until their delay is over. Producers can
+     * use this number to slow down when this scheduler falls behind.
+     *
+     * @return The number of tasks waiting for a thread.
+     */
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public <T> @NotNull TaskImplementation<T> runNow(@NotNull Function<TaskImplementation<T>, T> function) {
+        ExecutorTask<T> taskImplementation = new ExecutorTask<>(plugin, false);
+        submit(taskImplementation, function);
+        return tasks.add(taskImplementation);
+    }
+
+    @Override
+    public <T> @NotNull TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, long delay, @NotNull TimeUnit unit) {
+        ExecutorTask<T> taskImplementation = new ExecutorTask<>(plugin, false);
+        Runnable submit = () -> submitFromTimer(taskImplementation, function);
+        taskImplementation.setTimerHandle(Timer.INSTANCE.schedule(submit, delay, unit));
+        return tasks.add(taskImplementation);
+    }
+
+    @Override
+    public <T> @NotNull TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period, @NotNull TimeUnit unit) {
+        ExecutorTask<T> taskImplementation = new ExecutorTask<>(plugin, true);
+        Runnable submit = () -> submitFromTimer(taskImplementation, function);
+        ScheduledFuture<?> handle = Timer.INSTANCE.scheduleAtFixedRate(submit, delay, Math.max(1, period), unit);
+        taskImplementation.setTimerHandle(handle);
+        return tasks.add(taskImplementation);
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation bounded(int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        return new BoundedAsyncScheduler(plugin, this, maxRunning, capacity, policy);
+    }
+
+    @Override
+    public void cancelTasks() {
+        tasks.cancel();
+    }
+
+    private <T> void submit(@NotNull ExecutorTask<T> taskImplementation, @NotNull Function<TaskImplementation<T>, T> function) {
+        queueDepth.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                queueDepth.decrementAndGet();
+                taskImplementation.run(function);
+            });
+        } catch (RejectedExecutionException ex) {
+            queueDepth.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    private <T> void submitFromTimer(@NotNull ExecutorTask<T> taskImplementation, @NotNull Function<TaskImplementation<T>, T> function) {
+        try {
+            submit(taskImplementation, function);
+        } catch (RejectedExecutionException ex) {
+            // Thrown on the shared timer thread, where it would only stop the
+            // timer handle, so fail the task instead
+            taskImplementation.cancel();
+            taskImplementation.asFuture().completeExceptionally(ex);
+            plugin.getLogger().log(Level.WARNING, "Async task was rejected by the executor", ex);
+        }
+    }
+
+    /**
+     * Holds the timer, so the thread is only created when a delayed task is
+     * first scheduled.
+     */
+    private static final class Timer {
+
+        private static final @NotNull ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static @NotNull ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "FoliaScheduler Timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            // Let the thread die when idle, so reloading the plugin does not
+            // leak a thread (and the plugin's class loader)
+            timer.setKeepAliveTime(10, TimeUnit.SECONDS);
+            timer.allowCoreThreadTimeOut(true);
+            timer.setRemoveOnCancelPolicy(true);
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * A task scheduled by an {@link ExecutorAsyncScheduler}.
+ *
+ * @param <T> The callback type of the task.
+ */
+class ExecutorTask<T> implements TaskImplementation<T> {
+
+    private final @NotNull Plugin owningPlugin;
+    private final boolean isRepeatingTask;
+    private final @NotNull ReentrantLock lock;
+    private final @NotNull AtomicInteger running;
+    private final @NotNull CompletableFuture<TaskImplementation<T>> future;
+    private volatile @Nullable Future<?> timerHandle;
+    private volatile boolean cancelled;
+    private @Nullable T callback;
+
+    ExecutorTask(@NotNull Plugin owningPlugin, boolean isRepeatingTask) {
+        this.owningPlugin = owningPlugin;
+        this.isRepeatingTask = isRepeatingTask;
+        this.lock = new ReentrantLock();
+        this.running = new AtomicInteger();
+        this.future = new CompletableFuture<>();
+    }
+
+    void setTimerHandle(@NotNull Future<?> timerHandle) {
+        this.timerHandle = timerHandle;
+
+        // #cancel() may have been called before the handle was set
+        if (cancelled)
+            timerHandle.cancel(false);
+    }
+
+    void run(@NotNull Function<TaskImplementation<T>, T> function) {
+        if (cancelled)
+            return;
+
+        running.incrementAndGet();
+        try {
+            setCallback(function.apply(this));
+            future.complete(this);
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+            owningPlugin.getLogger().log(Level.SEVERE, "Async task threw an exception", ex);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    @Override
+    public @NotNull Plugin getOwningPlugin() {
+        return owningPlugin;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        Future<?> handle = timerHandle;
+        if (handle != null)
+            handle.cancel(false);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get() > 0;
+    }
+
+    @Override
+    public boolean isRepeatingTask() {
+        return isRepeatingTask;
+    }
+
+    @Override
+    public @Nullable T getCallback() {
+        lock.lock();
+        try {
+            return callback;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setCallback(@Nullable T callback) {
+        lock.lock();
+        try {
+            this.callback = callback;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TaskImplementation<T>> asFuture() {
+        return future;
+    }
+}
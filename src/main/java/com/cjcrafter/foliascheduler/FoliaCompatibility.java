@@ -1,7 +1,6 @@
 package com.cjcrafter.foliascheduler;
 
-import org.bukkit.Location;
-import org.bukkit.Server;
+import com.cjcrafter.foliascheduler.util.ServerCapabilities;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,18 +18,11 @@ public class FoliaCompatibility {
         // Look for the method org.bukkit.Server#isOwnedByCurrentRegion(Location)
         // If such a method exists, use the Folia scheduler. Otherwise, use the Bukkit scheduler.
         try {
-            try {
-                Server.class.getMethod("isOwnedByCurrentRegion", Location.class);
-                scheduler = Class.forName(this.getClass().getPackage().getName() + ".folia.FoliaServer")
-                        .asSubclass(ServerImplementation.class)
-                        .getConstructor(Plugin.class)
-                        .newInstance(plugin);
-            } catch (NoSuchMethodException ex) {
-                scheduler = Class.forName(this.getClass().getPackage().getName() + ".bukkit.BukkitServer")
-                        .asSubclass(ServerImplementation.class)
-                        .getConstructor(Plugin.class)
-                        .newInstance(plugin);
-            }
+            String platform = ServerCapabilities.get().hasRegionizedScheduling() ? ".folia.FoliaServer" : ".bukkit.BukkitServer";
+            scheduler = Class.forName(this.getClass().getPackage().getName() + platform)
+                    .asSubclass(ServerImplementation.class)
+                    .getConstructor(Plugin.class)
+                    .newInstance(plugin);
         } catch (Throwable ex) {
             throw new RuntimeException("Failed to initialize scheduler", ex);
         }
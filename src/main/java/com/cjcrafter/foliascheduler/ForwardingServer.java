@@ -0,0 +1,107 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * A view of a {@link ServerImplementation} that delegates every method to the
+ * original server. Subclasses override the schedulers they decorate.
+ *
+ * <p>Default methods that a platform overrides, like
+ * {@link #mapReduce(World, long[], Function, BinaryOperator, Object)}, are
+ * forwarded too, so a view keeps the platform's implementation.
+ */
+abstract class ForwardingServer implements ServerImplementation {
+
+    protected final @NotNull ServerImplementation delegate;
+
+    ForwardingServer(@NotNull ServerImplementation delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public @NotNull Plugin getOwningPlugin() {
+        return delegate.getOwningPlugin();
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull Location location) {
+        return delegate.isOwnedByCurrentRegion(location);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull Location location, int squareRadiusChunks) {
+        return delegate.isOwnedByCurrentRegion(location, squareRadiusChunks);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull Block block) {
+        return delegate.isOwnedByCurrentRegion(block);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull World world, int chunkX, int chunkZ) {
+        return delegate.isOwnedByCurrentRegion(world, chunkX, chunkZ);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull World world, int chunkX, int chunkZ, int squareRadiusChunks) {
+        return delegate.isOwnedByCurrentRegion(world, chunkX, chunkZ, squareRadiusChunks);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull Entity entity) {
+        return delegate.isOwnedByCurrentRegion(entity);
+    }
+
+    @Override
+    public @NotNull GlobalSchedulerImplementation global() {
+        return delegate.global();
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation async() {
+        return delegate.async();
+    }
+
+    @Override
+    public @NotNull EntitySchedulerImplementation entity(@NotNull Entity entity) {
+        return delegate.entity(entity);
+    }
+
+    @Override
+    public @NotNull RegionSchedulerImplementation region(@NotNull World world, int chunkX, int chunkZ) {
+        return delegate.region(world, chunkX, chunkZ);
+    }
+
+    @Override
+    public <R> @NotNull CompletableFuture<R> mapReduce(@NotNull World world, long @NotNull [] chunkKeys, @NotNull Function<Chunk, R> mapper,
+                                                      @NotNull BinaryOperator<R> combiner, R identity) {
+        return delegate.mapReduce(world, chunkKeys, mapper, combiner, identity);
+    }
+
+    @Override
+    public @NotNull TaskRegistry getTaskRegistry() {
+        return delegate.getTaskRegistry();
+    }
+
+    @Override
+    public void cancelTasks() {
+        delegate.cancelTasks();
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> teleportAsync(@NotNull Entity entity, @NotNull Location location, @NotNull PlayerTeleportEvent.TeleportCause cause) {
+        return delegate.teleportAsync(entity, location, cause);
+    }
+}
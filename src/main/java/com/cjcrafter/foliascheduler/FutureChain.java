@@ -0,0 +1,250 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Wraps a {@link CompletableFuture} and continues it on a specific thread:
+ * the global region, the region that owns a location, the region that owns an
+ * entity, or the async scheduler. None of these methods block.
+ *
+ * <pre>{@code
+ * scheduler.supplyAsync(() -> database.load(player.getUniqueId()))
+ *     .thenApplyOnEntity(player, data -> data.apply(player))
+ *     .thenAcceptAsync(data -> database.save(data));
+ * }</pre>
+ *
+ * <p>Every method returns a new chain, and the original chain is never
+ * modified. If a step throws an exception, every following step is skipped
+ * and the exception is passed along to {@link #toFuture()}.
+ *
+ * @param <T> The type of the value held by this chain.
+ * @see ServerImplementation#chain(CompletableFuture)
+ */
+public final class FutureChain<T> {
+
+    private final @NotNull ServerImplementation server;
+    private final @NotNull CompletableFuture<T> future;
+
+    FutureChain(@NotNull ServerImplementation server, @NotNull CompletableFuture<T> future) {
+        this.server = server;
+        this.future = future;
+    }
+
+    /**
+     * Returns the future that completes when every step of this chain has
+     * completed.
+     *
+     * @return The underlying future.
+     */
+    public @NotNull CompletableFuture<T> toFuture() {
+        return future;
+    }
+
+    /**
+     * Applies the function on the global region thread.
+     *
+     * @param function The function to apply.
+     * @return The next chain.
+     * @param <U> The return type of the function.
+     */
+    public <U> @NotNull FutureChain<U> thenApplyOnGlobal(@NotNull Function<? super T, ? extends U> function) {
+        return thenApplyOn(server.global().asExecutor(), function);
+    }
+
+    /**
+     * Applies the function on the thread that owns the location.
+     *
+     * @param location The location whose region should run the function.
+     * @param function The function to apply.
+     * @return The next chain.
+     * @param <U> The return type of the function.
+     */
+    public <U> @NotNull FutureChain<U> thenApplyOnRegion(@NotNull Location location, @NotNull Function<? super T, ? extends U> function) {
+        return thenApplyOn(server.region(location).asExecutor(), function);
+    }
+
+    /**
+     * Applies the function on the thread that owns the entity. If the entity
+     * is retired before the function runs, the chain fails with a
+     * {@link RejectedExecutionException}.
+     *
+     * @param entity The entity whose region should run the function.
+     * @param function The function to apply.
+     * @return The next chain.
+     * @param <U> The return type of the function.
+     */
+    public <U> @NotNull FutureChain<U> thenApplyOnEntity(@NotNull Entity entity, @NotNull Function<? super T, ? extends U> function) {
+        CompletableFuture<U> next = new CompletableFuture<>();
+        future.whenComplete((value, ex) -> {
+            if (ex != null) {
+                next.completeExceptionally(ex);
+                return;
+            }
+
+            // The retired callback is not always called when the entity was
+            // retired before scheduling, so we handle both cases
+            Runnable retired = () -> next.completeExceptionally(new RejectedExecutionException("Entity is retired"));
+            boolean isScheduled = server.entity(entity).execute(() -> {
+                try {
+                    next.complete(function.apply(value));
+                } catch (Throwable throwable) {
+                    next.completeExceptionally(throwable);
+                }
+            }, retired, 1);
+
+            if (!isScheduled)
+                retired.run();
+        });
+        return new FutureChain<>(server, next);
+    }
+
+    /**
+     * Applies the function using the async scheduler.
+     *
+     * @param function The function to apply.
+     * @return The next chain.
+     * @param <U> The return type of the function.
+     */
+    public <U> @NotNull FutureChain<U> thenApplyAsync(@NotNull Function<? super T, ? extends U> function) {
+        return thenApplyOn(server.async().asExecutor(), function);
+    }
+
+    /**
+     * Runs the consumer on the global region thread.
+     *
+     * @param consumer The consumer to run.
+     * @return The next chain.
+     */
+    public @NotNull FutureChain<Void> thenAcceptOnGlobal(@NotNull Consumer<? super T> consumer) {
+        return thenApplyOnGlobal(accepting(consumer));
+    }
+
+    /**
+     * Runs the consumer on the thread that owns the location.
+     *
+     * @param location The location whose region should run the consumer.
+     * @param consumer The consumer to run.
+     * @return The next chain.
+     */
+    public @NotNull FutureChain<Void> thenAcceptOnRegion(@NotNull Location location, @NotNull Consumer<? super T> consumer) {
+        return thenApplyOnRegion(location, accepting(consumer));
+    }
+
+    /**
+     * Runs the consumer on the thread that owns the entity.
+     *
+     * @param entity The entity whose region should run the consumer.
+     * @param consumer The consumer to run.
+     * @return The next chain.
+     * @see #thenApplyOnEntity(Entity, Function)
+     */
+    public @NotNull FutureChain<Void> thenAcceptOnEntity(@NotNull Entity entity, @NotNull Consumer<? super T> consumer) {
+        return thenApplyOnEntity(entity, accepting(consumer));
+    }
+
+    /**
+     * Runs the consumer using the async scheduler.
+     *
+     * @param consumer The consumer to run.
+     * @return The next chain.
+     */
+    public @NotNull FutureChain<Void> thenAcceptAsync(@NotNull Consumer<? super T> consumer) {
+        return thenApplyAsync(accepting(consumer));
+    }
+
+    /**
+     * Runs the runnable on the global region thread.
+     *
+     * @param runnable The runnable to run.
+     * @return The next chain.
+     */
+    public @NotNull FutureChain<Void> thenRunOnGlobal(@NotNull Runnable runnable) {
+        return thenApplyOnGlobal(running(runnable));
+    }
+
+    /**
+     * Runs the runnable on the thread that owns the location.
+     *
+     * @param location The location whose region should run the runnable.
+     * @param runnable The runnable to run.
+     * @return The next chain.
+     */
+    public @NotNull FutureChain<Void> thenRunOnRegion(@NotNull Location location, @NotNull Runnable runnable) {
+        return thenApplyOnRegion(location, running(runnable));
+    }
+
+    /**
+     * Runs the runnable on the thread that owns the entity.
+     *
+     * @param entity The entity whose region should run the runnable.
+     * @param runnable The runnable to run.
+     * @return The next chain.
+     * @see #thenApplyOnEntity(Entity, Function)
+     */
+    public @NotNull FutureChain<Void> thenRunOnEntity(@NotNull Entity entity, @NotNull Runnable runnable) {
+        return thenApplyOnEntity(entity, running(runnable));
+    }
+
+    /**
+     * Runs the runnable using the async scheduler.
+     *
+     * @param runnable The runnable to run.
+     * @return The next chain.
+     */
+    public @NotNull FutureChain<Void> thenRunAsync(@NotNull Runnable runnable) {
+        return thenApplyAsync(running(runnable));
+    }
+
+    /**
+     * Calls the function using the async scheduler, and continues this chain
+     * once the returned stage completes.
+     *
+     * @param function The function returning the next stage.
+     * @return The next chain.
+     * @param <U> The type of the value of the next stage.
+     */
+    public <U> @NotNull FutureChain<U> thenComposeAsync(@NotNull Function<? super T, ? extends CompletionStage<U>> function) {
+        return new FutureChain<>(server, future.thenComposeAsync(function, server.async().asExecutor()));
+    }
+
+    /**
+     * Calls the function on whichever thread completed the previous step, and
+     * continues this chain once the returned stage completes. This is useful
+     * for functions that just schedule more work, like
+     * {@link ServerImplementation#teleportAsync(Entity, Location)}.
+     *
+     * @param function The function returning the next stage.
+     * @return The next chain.
+     * @param <U> The type of the value of the next stage.
+     */
+    public <U> @NotNull FutureChain<U> thenCompose(@NotNull Function<? super T, ? extends CompletionStage<U>> function) {
+        return new FutureChain<>(server, future.thenCompose(function));
+    }
+
+    private <U> @NotNull FutureChain<U> thenApplyOn(@NotNull Executor executor, @NotNull Function<? super T, ? extends U> function) {
+        return new FutureChain<>(server, future.thenApplyAsync(function, executor));
+    }
+
+    private static <T> @NotNull Function<T, Void> accepting(@NotNull Consumer<? super T> consumer) {
+        return value -> {
+            consumer.accept(value);
+            return null;
+        };
+    }
+
+    private static <T> @NotNull Function<T, Void> running(@NotNull Runnable runnable) {
+        return value -> {
+            runnable.run();
+            return null;
+        };
+    }
+}
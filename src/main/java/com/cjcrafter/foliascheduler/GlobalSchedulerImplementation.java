@@ -3,6 +3,8 @@ package com.cjcrafter.foliascheduler;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -18,6 +20,17 @@ public interface GlobalSchedulerImplementation {
      */
     void execute(@NotNull Runnable run);
 
+    /**
+     * Returns an {@link Executor} that runs commands using {@link #execute(Runnable)}.
+     * This can be used to continue a {@link CompletableFuture} on the global
+     * region thread, like {@code future.thenAcceptAsync(consumer, scheduler.global().asExecutor())}.
+     *
+     * @return An executor that runs commands on the global region thread.
+     */
+    default @NotNull Executor asExecutor() {
+        return this::execute;
+    }
+
     /**
      * Schedules a task to be run after a delay.
      *
@@ -159,10 +172,9 @@ public interface GlobalSchedulerImplementation {
      * Cancels all scheduled global tasks that were scheduled using your
      * {@link Plugin} instance.
      *
-     * <p>Note that the behavior of this method changes depending on the
-     * server implementation. For example, in Spigot, this method will cancel
-     * all tasks (sync + async) scheduled by the plugin, while in Paper/Folia,
-     * this method will only cancel tasks scheduled using the global scheduler.
+     * <p>On all servers, this method will only cancel tasks scheduled using
+     * the global scheduler. Use {@link ServerImplementation#cancelTasks()} to
+     * cancel every task scheduled by the plugin.
      *
      * @see AsyncSchedulerImplementation#cancelTasks()
      * @see <a href="https://github.com/CJCrafter/FoliaScheduler/issues/28">Issue #28</a>
@@ -0,0 +1,49 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+/**
+ * Adds every task scheduled by the delegate scheduler to a {@link RegionTaskIndex}.
+ *
+ * @see ServerImplementation#withIndex(RegionTaskIndex)
+ */
+class IndexedRegionScheduler implements RegionSchedulerImplementation {
+
+    private final @NotNull RegionSchedulerImplementation delegate;
+    private final @NotNull RegionTaskIndex index;
+    private final @NotNull World world;
+    private final int chunkX;
+    private final int chunkZ;
+
+    IndexedRegionScheduler(@NotNull RegionSchedulerImplementation delegate, @NotNull RegionTaskIndex index, @NotNull World world, int chunkX, int chunkZ) {
+        this.delegate = delegate;
+        this.index = index;
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable run) {
+        // There is no task to index
+        delegate.execute(run);
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> run(@NotNull Function<TaskImplementation<T>, T> function) {
+        return index.add(world, chunkX, chunkZ, delegate.run(function));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, long delay) {
+        return index.add(world, chunkX, chunkZ, delegate.runDelayed(function, delay));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period) {
+        return index.add(world, chunkX, chunkZ, delegate.runAtFixedRate(function, delay, period));
+    }
+}
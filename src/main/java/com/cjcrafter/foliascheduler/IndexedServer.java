@@ -0,0 +1,26 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A view of a {@link ServerImplementation} that adds every region task to a
+ * {@link RegionTaskIndex}. Every other method is delegated to the original
+ * server.
+ *
+ * @see ServerImplementation#withIndex(RegionTaskIndex)
+ */
+class IndexedServer extends ForwardingServer {
+
+    private final @NotNull RegionTaskIndex index;
+
+    IndexedServer(@NotNull ServerImplementation delegate, @NotNull RegionTaskIndex index) {
+        super(delegate);
+        this.index = index;
+    }
+
+    @Override
+    public @NotNull RegionSchedulerImplementation region(@NotNull World world, int chunkX, int chunkZ) {
+        return new IndexedRegionScheduler(delegate.region(world, chunkX, chunkZ), index, world, chunkX, chunkZ);
+    }
+}
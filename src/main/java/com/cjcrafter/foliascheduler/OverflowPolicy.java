@@ -0,0 +1,40 @@
+package com.cjcrafter.foliascheduler;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Decides what a {@link BoundedAsyncScheduler} does with a new task when its
+ * queue is full.
+ *
+ * @see AsyncSchedulerImplementation#bounded(int, int, OverflowPolicy)
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Blocks the submitting thread until there is room in the queue. Never
+     * use this policy from a server thread, since it would freeze the server.
+     */
+    BLOCK,
+
+    /**
+     * Rejects the new task. The task is marked as cancelled, and its
+     * {@link TaskImplementation#asFuture() future} completes exceptionally
+     * with a {@link RejectedExecutionException}.
+     */
+    REJECT,
+
+    /**
+     * Drops the oldest task in the queue to make room for the new task. The
+     * dropped task is marked as cancelled, and its
+     * {@link TaskImplementation#asFuture() future} is cancelled. If the queue
+     * has a capacity of 0, there is nothing to drop, so the new task is
+     * rejected like with {@link #REJECT}.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Runs the new task immediately on the submitting thread. This slows the
+     * producer down naturally, but should never be used from a server thread.
+     */
+    CALLER_RUNS
+}
@@ -1,7 +1,11 @@
 package com.cjcrafter.foliascheduler;
 
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
+import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -17,6 +21,17 @@ public interface RegionSchedulerImplementation {
      */
     void execute(@NotNull Runnable run);
 
+    /**
+     * Returns an {@link Executor} that runs commands using {@link #execute(Runnable)}.
+     * This can be used to continue a {@link CompletableFuture} on the thread
+     * that owns this region, like {@code future.thenAcceptAsync(consumer, scheduler.region(location).asExecutor())}.
+     *
+     * @return An executor that runs commands on the thread that owns this region.
+     */
+    default @NotNull Executor asExecutor() {
+        return this::execute;
+    }
+
     /**
      * Schedules a task to be run after a delay.
      *
@@ -153,4 +168,77 @@ public interface RegionSchedulerImplementation {
         };
         return runAtFixedRate(wrapperFunction, delay, period);
     }
-}
\ No newline at end of file
+
+    /**
+     * Loads every chunk in the list, then schedules the task to be run. The
+     * chunks are loaded with Paper's {@code World#getChunkAtAsync} when it is
+     * available (Paper 1.13+ and Folia), so the thread that owns this region
+     * never stalls on a synchronous chunk load. On other servers, the chunks
+     * are loaded in a task on this scheduler first.
+     *
+     * <p>The chunks should be owned by this region, like the chunks around
+     * the location this scheduler was created for. If any chunk fails to
+     * load, the returned future completes exceptionally and the task is never
+     * scheduled. Like {@link TaskImplementation#asFuture()}, the future never
+     * completes if the task is cancelled before it runs.
+     *
+     * <pre>{@code
+     * long[] chunks = ...; // ChunkKeys.pack(chunkX, chunkZ) for each chunk the arena covers
+     * scheduler.region(world, centerX, centerZ).whenLoaded(world, chunks, task -> arena.reset());
+     * }</pre>
+     *
+     * @param world The world the chunks are in.
+     * @param chunkKeys The chunks to load, packed with {@link ChunkKeys#pack(int, int)}.
+     * @param function The task to run.
+     * @return A future that completes with the task after it has run.
+     */
+    default <T> @NotNull CompletableFuture<TaskImplementation<T>> whenLoaded(
+        @NotNull World world,
+        long @NotNull [] chunkKeys,
+        @NotNull Function<TaskImplementation<T>, T> function
+    ) {
+        return ChunkPreloader.loadAll(world, chunkKeys, asExecutor()).thenCompose(loaded -> run(function).asFuture());
+    }
+
+    /**
+     * Loads every chunk in the list, then schedules the task to be run.
+     *
+     * @param world The world the chunks are in.
+     * @param chunkKeys The chunks to load, packed with {@link ChunkKeys#pack(int, int)}.
+     * @param consumer The task to run.
+     * @return A future that completes with the task after it has run.
+     * @see #whenLoaded(World, long[], Function)
+     */
+    default @NotNull CompletableFuture<TaskImplementation<Void>> whenLoaded(
+        @NotNull World world,
+        long @NotNull [] chunkKeys,
+        @NotNull Consumer<TaskImplementation<Void>> consumer
+    ) {
+        Function<TaskImplementation<Void>, Void> wrapperFunction = task -> {
+            consumer.accept(task);
+            return null;
+        };
+        return whenLoaded(world, chunkKeys, wrapperFunction);
+    }
+
+    /**
+     * Loads every chunk in the list, then schedules the task to be run.
+     *
+     * @param world The world the chunks are in.
+     * @param chunkKeys The chunks to load, packed with {@link ChunkKeys#pack(int, int)}.
+     * @param runnable The task to run.
+     * @return A future that completes with the task after it has run.
+     * @see #whenLoaded(World, long[], Function)
+     */
+    default @NotNull CompletableFuture<TaskImplementation<Void>> whenLoaded(
+        @NotNull World world,
+        long @NotNull [] chunkKeys,
+        @NotNull Runnable runnable
+    ) {
+        Function<TaskImplementation<Void>, Void> wrapperFunction = task -> {
+            runnable.run();
+            return null;
+        };
+        return whenLoaded(world, chunkKeys, wrapperFunction);
+    }
+}
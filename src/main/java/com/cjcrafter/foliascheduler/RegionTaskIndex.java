@@ -0,0 +1,276 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
+import com.cjcrafter.foliascheduler.util.ConcurrentLongObjectMap;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A spatial index of region tasks, keyed by the chunk each task was
+ * scheduled in. This is used to find or cancel every pending task in an area,
+ * like when an arena is wiped, or when chunks are unloaded.
+ *
+ * <p>Tasks are added to the index by scheduling them through
+ * {@link ServerImplementation#withIndex(RegionTaskIndex)}. Tasks that are not
+ * scheduled through the view are not indexed, so the index costs nothing
+ * unless it is used.
+ *
+ * <pre>{@code
+ * RegionTaskIndex index = new RegionTaskIndex();
+ * ServerImplementation indexed = scheduler.withIndex(index);
+ * indexed.region(location).runAtFixedRate(task -> spawnParticles(), 1L, 1L);
+ *
+ * // Later, when the arena (chunks 0..15, 0..15) is wiped
+ * index.cancel(world, 0, 0, 15, 15);
+ * }</pre>
+ *
+ * <p>Queries and cancellations check each chunk in the box, or each chunk
+ * of the world that has tasks if that is fewer, plus the tasks found. A
+ * huge box over a world with many busy chunks therefore costs about as much
+ * as scanning the whole index.
+ *
+ * <p>Tasks that are cancelled outside of the index, like repeating tasks
+ * stopped with {@link TaskImplementation#cancel()}, never complete their
+ * future. They are dropped when a query or cancellation finds them, and by
+ * a sweep of the whole index that runs once in a while as tasks are added.
+ */
+public class RegionTaskIndex {
+
+    // Smallest number of added tasks that will trigger a sweep of the index
+    private static final int MIN_SWEEP_THRESHOLD = 64;
+
+    private final @NotNull ConcurrentMap<UUID, ConcurrentLongObjectMap<TaskGroup>> worlds;
+    private final @NotNull AtomicInteger addedSinceSweep;
+    private volatile int sweepThreshold;
+
+    public RegionTaskIndex() {
+        this.worlds = new ConcurrentHashMap<>();
+        this.addedSinceSweep = new AtomicInteger();
+        this.sweepThreshold = MIN_SWEEP_THRESHOLD;
+    }
+
+    /**
+     * Adds a task to the chunk it was scheduled in.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @param task The task to add.
+     * @return The same task.
+     * @param <T> The callback type of the task.
+     */
+    public <T> @NotNull TaskImplementation<T> add(@NotNull World world, int chunkX, int chunkZ, @NotNull TaskImplementation<T> task) {
+        ConcurrentLongObjectMap<TaskGroup> existing = worlds.get(world.getUID());
+        ConcurrentLongObjectMap<TaskGroup> chunks = existing != null ? existing
+            : worlds.computeIfAbsent(world.getUID(), uuid -> new ConcurrentLongObjectMap<>());
+
+        long key = ChunkKeys.pack(chunkX, chunkZ);
+        while (true) {
+            TaskGroup group = chunks.computeIfAbsent(key, k -> new TaskGroup("region-index"));
+            group.add(task);
+
+            // An empty group may have been pruned while we were adding
+            if (chunks.get(key) == group)
+                break;
+            group.remove(task);
+        }
+
+        // Remove the group once its last task is done, so chunks that are
+        // never cancelled do not stay in the index forever. The group removes
+        // the task itself too, but its callback may run after this one.
+        if (!task.isRepeatingTask()) {
+            task.asFuture().whenComplete((ignore, ex) -> {
+                TaskGroup group = chunks.get(key);
+                if (group != null && group.remove(task))
+                    prune(chunks, key);
+            });
+        }
+
+        // Sweep once as many tasks were added as were left after the last
+        // sweep, so adding a task is amortized constant time
+        if (addedSinceSweep.incrementAndGet() >= sweepThreshold) {
+            addedSinceSweep.set(0);
+            sweep();
+        }
+        return task;
+    }
+
+    /**
+     * Returns every indexed task in the chunk.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @return The tasks in the chunk.
+     */
+    public @NotNull List<TaskImplementation<?>> getTasks(@NotNull World world, int chunkX, int chunkZ) {
+        return getTasks(world, chunkX, chunkZ, chunkX, chunkZ);
+    }
+
+    /**
+     * Returns every indexed task in the box of chunks. Both corners are
+     * inclusive.
+     *
+     * @param world The world the chunks are in.
+     * @param minChunkX The smallest x-coordinate of the box.
+     * @param minChunkZ The smallest z-coordinate of the box.
+     * @param maxChunkX The largest x-coordinate of the box.
+     * @param maxChunkZ The largest z-coordinate of the box.
+     * @return The tasks in the box.
+     */
+    public @NotNull List<TaskImplementation<?>> getTasks(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        List<TaskImplementation<?>> tasks = new ArrayList<>();
+        ConcurrentLongObjectMap<TaskGroup> chunks = worlds.get(world.getUID());
+        if (chunks == null)
+            return tasks;
+
+        for (long key : findKeys(chunks, minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
+            TaskGroup group = chunks.get(key);
+            if (group == null)
+                continue;
+
+            group.sweep();
+            tasks.addAll(group.getTasks());
+            prune(chunks, key);
+        }
+        return tasks;
+    }
+
+    /**
+     * Cancels every indexed task in the chunk. This is useful in a
+     * {@code ChunkUnloadEvent}.
+     *
+     * @param world The world the chunk is in.
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @return The number of tasks that were cancelled.
+     */
+    public int cancel(@NotNull World world, int chunkX, int chunkZ) {
+        return cancel(world, chunkX, chunkZ, chunkX, chunkZ);
+    }
+
+    /**
+     * Cancels every indexed task in the box of chunks. Both corners are
+     * inclusive.
+     *
+     * @param world The world the chunks are in.
+     * @param minChunkX The smallest x-coordinate of the box.
+     * @param minChunkZ The smallest z-coordinate of the box.
+     * @param maxChunkX The largest x-coordinate of the box.
+     * @param maxChunkZ The largest z-coordinate of the box.
+     * @return The number of tasks that were cancelled.
+     */
+    public int cancel(@NotNull World world, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        ConcurrentLongObjectMap<TaskGroup> chunks = worlds.get(world.getUID());
+        if (chunks == null)
+            return 0;
+
+        int count = 0;
+        for (long key : findKeys(chunks, minChunkX, minChunkZ, maxChunkX, maxChunkZ)) {
+            TaskGroup group = chunks.get(key);
+            if (group == null)
+                continue;
+
+            // Tasks that were already cancelled are not counted
+            group.sweep();
+            count += group.cancel();
+            prune(chunks, key);
+        }
+        return count;
+    }
+
+    /**
+     * Cancels every indexed task in the world, and removes the world from
+     * this index. This is useful in a {@code WorldUnloadEvent}.
+     *
+     * @param world The world to clear.
+     * @return The number of tasks that were cancelled.
+     */
+    public int cancel(@NotNull World world) {
+        ConcurrentLongObjectMap<TaskGroup> chunks = worlds.remove(world.getUID());
+        if (chunks == null)
+            return 0;
+
+        List<TaskGroup> groups = new ArrayList<>();
+        chunks.forEach((key, group) -> groups.add(group));
+
+        int count = 0;
+        for (TaskGroup group : groups) {
+            group.sweep();
+            count += group.cancel();
+        }
+        return count;
+    }
+
+    private void sweep() {
+        int remaining = 0;
+        for (ConcurrentLongObjectMap<TaskGroup> chunks : worlds.values()) {
+            for (long key : chunks.keys()) {
+                TaskGroup group = chunks.get(key);
+                if (group == null)
+                    continue;
+
+                group.sweep();
+                remaining += group.size();
+                prune(chunks, key);
+            }
+        }
+        sweepThreshold = Math.max(MIN_SWEEP_THRESHOLD, remaining);
+    }
+
+    private static long @NotNull [] findKeys(@NotNull ConcurrentLongObjectMap<TaskGroup> chunks, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        if (minChunkX > maxChunkX || minChunkZ > maxChunkZ)
+            return new long[0];
+
+        // Check every chunk in the box, or every chunk in the index,
+        // whichever is fewer
+        long area = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+        if (area <= chunks.size()) {
+            long[] keys = new long[(int) area];
+            int size = 0;
+            for (int x = minChunkX; x <= maxChunkX; x++) {
+                for (int z = minChunkZ; z <= maxChunkZ; z++) {
+                    long key = ChunkKeys.pack(x, z);
+                    if (chunks.containsKey(key))
+                        keys[size++] = key;
+                }
+            }
+            return Arrays.copyOf(keys, size);
+        }
+
+        long[] keys = chunks.keys();
+        int size = 0;
+        for (long key : keys) {
+            int x = ChunkKeys.x(key);
+            int z = ChunkKeys.z(key);
+            if (x >= minChunkX && x <= maxChunkX && z >= minChunkZ && z <= maxChunkZ)
+                keys[size++] = key;
+        }
+        return Arrays.copyOf(keys, size);
+    }
+
+    private static void prune(@NotNull ConcurrentLongObjectMap<TaskGroup> chunks, long key) {
+        TaskGroup group = chunks.get(key);
+        if (group == null || group.size() != 0 || !chunks.remove(key, group))
+            return;
+
+        // A task may have been added right before the group was removed.
+        // #add() retries when its group is removed, but only if it checks
+        // after the removal, so move any stragglers to the current group.
+        if (group.size() != 0) {
+            TaskGroup current = chunks.computeIfAbsent(key, k -> group);
+            if (current != group) {
+                for (TaskImplementation<?> task : group.getTasks())
+                    current.add(task);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.cjcrafter.foliascheduler;
 
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
+import com.cjcrafter.foliascheduler.util.LongObjectMap;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -9,7 +11,11 @@ import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public interface ServerImplementation {
 
@@ -127,15 +133,162 @@ public interface ServerImplementation {
         return region(chunk.getWorld(), chunk.getX(), chunk.getZ());
     }
 
+    /**
+     * Runs the mapper on every loaded chunk in the list, on the thread that
+     * owns each chunk, and combines the results into a single value. This is
+     * useful for server-wide scans, like counting mobs per type.
+     *
+     * <p>On Folia, one task is scheduled per region section (see
+     * {@link ChunkKeys#REGION_SECTION_SHIFT}), so independent regions are
+     * scanned in parallel. On Paper/Spigot, every chunk is scanned in a single
+     * task on the main thread. Chunks that are not loaded are skipped, and are
+     * never loaded by this method.
+     *
+     * <p>The combiner must be associative, and {@code identity} must be an
+     * identity value for the combiner, since partial results are combined in
+     * no particular order. The combiner may be called on any thread, and
+     * should be cheap. No thread is ever blocked waiting for results.
+     *
+     * <pre>{@code
+     * long[] chunks = ...; // ChunkKeys.pack(chunk) for each chunk to scan
+     * scheduler.mapReduce(world, chunks, chunk -> chunk.getEntities().length, Integer::sum, 0)
+     *     .thenAccept(count -> plugin.getLogger().info("Found " + count + " entities"));
+     * }</pre>
+     *
+     * @param world The world the chunks are in.
+     * @param chunkKeys The chunks to scan, packed with {@link ChunkKeys#pack(int, int)}.
+     * @param mapper The function to run on each loaded chunk.
+     * @param combiner The associative function used to combine results.
+     * @param identity The identity value of the combiner.
+     * @return A future that completes with the combined result.
+     * @param <R> The type of the result.
+     */
+    default <R> @NotNull CompletableFuture<R> mapReduce(@NotNull World world, long @NotNull [] chunkKeys, @NotNull Function<Chunk, R> mapper,
+                                                       @NotNull BinaryOperator<R> combiner, R identity) {
+        // Count the chunks of each section first, so each section gets an
+        // exactly sized array, and no chunk key is boxed
+        LongObjectMap<int[]> counts = new LongObjectMap<>();
+        for (long key : chunkKeys)
+            counts.computeIfAbsent(ChunkKeys.section(key), k -> new int[1])[0]++;
+
+        LongObjectMap<long[]> sections = new LongObjectMap<>(counts.size());
+        for (long key : chunkKeys) {
+            long sectionKey = ChunkKeys.section(key);
+            int[] count = counts.get(sectionKey);
+            sections.computeIfAbsent(sectionKey, k -> new long[count[0]])[--count[0]] = key;
+        }
+
+        CompletableFuture<R> result = CompletableFuture.completedFuture(identity);
+        for (long sectionKey : sections.keys()) {
+            long[] section = sections.get(sectionKey);
+            long first = section[0];
+            CompletableFuture<R> partial = new CompletableFuture<>();
+            region(world, ChunkKeys.x(first), ChunkKeys.z(first)).execute(() -> {
+                try {
+                    R accumulator = identity;
+                    for (long key : section) {
+                        int chunkX = ChunkKeys.x(key);
+                        int chunkZ = ChunkKeys.z(key);
+                        if (world.isChunkLoaded(chunkX, chunkZ))
+                            accumulator = combiner.apply(accumulator, mapper.apply(world.getChunkAt(chunkX, chunkZ)));
+                    }
+                    partial.complete(accumulator);
+                } catch (Throwable ex) {
+                    partial.completeExceptionally(ex);
+                }
+            });
+            result = result.thenCombine(partial, combiner);
+        }
+        return result;
+    }
+
+    /**
+     * Wraps the future in a {@link FutureChain}, so each following step can
+     * choose which thread it runs on.
+     *
+     * @param future The future to continue.
+     * @return A chain continuing the future.
+     * @param <T> The type of the value of the future.
+     */
+    default <T> @NotNull FutureChain<T> chain(@NotNull CompletableFuture<T> future) {
+        return new FutureChain<>(this, future);
+    }
+
+    /**
+     * Wraps the task's callback value in a {@link FutureChain}, so each
+     * following step can choose which thread it runs on.
+     *
+     * @param task The task to continue.
+     * @return A chain continuing the task's callback value.
+     * @param <T> The callback type of the task.
+     */
+    default <T> @NotNull FutureChain<T> chain(@NotNull TaskImplementation<T> task) {
+        return new FutureChain<>(this, task.asFuture().thenApply(TaskImplementation::getCallback));
+    }
+
+    /**
+     * Starts a {@link FutureChain} by running the supplier using the async
+     * scheduler.
+     *
+     * @param supplier The supplier to run.
+     * @return A chain continuing the supplier's value.
+     * @param <T> The type of the value of the supplier.
+     */
+    default <T> @NotNull FutureChain<T> supplyAsync(@NotNull Supplier<T> supplier) {
+        return new FutureChain<>(this, CompletableFuture.supplyAsync(supplier, async().asExecutor()));
+    }
+
+    /**
+     * Returns the task registry, used to group tasks by name (like per arena,
+     * or per player session) so each group can be cancelled in one call.
+     *
+     * @return The task registry for this server.
+     */
+    @NotNull TaskRegistry getTaskRegistry();
+
+    /**
+     * Returns a view of this server that links every task scheduled through it
+     * to the given {@link CancellationToken}. Cancelling the token cancels
+     * every linked task that has not run yet, on every scheduler.
+     *
+     * <p>The view is cheap to create, and can be stored and reused for the
+     * lifetime of the token. Schedule follow-up tasks through the same view
+     * so they are linked too. The tasks of
+     * {@link #mapReduce(World, long[], Function, BinaryOperator, Object)}
+     * are not linked, since the view runs it on this server.
+     *
+     * @param token The token to link tasks to.
+     * @return A view of this server that links tasks to the token.
+     */
+    default @NotNull ServerImplementation withToken(@NotNull CancellationToken token) {
+        return new CancellableServer(this, token);
+    }
+
+    /**
+     * Returns a view of this server that adds every region task scheduled
+     * through it to the given {@link RegionTaskIndex}, so the tasks can later
+     * be found or cancelled by chunk area.
+     *
+     * <p>Tasks scheduled with {@link RegionSchedulerImplementation#execute(Runnable)}
+     * are not indexed, since they do not return a task. Neither are the tasks
+     * of {@link #mapReduce(World, long[], Function, BinaryOperator, Object)}.
+     *
+     * @param index The index to add region tasks to.
+     * @return A view of this server that indexes region tasks.
+     */
+    default @NotNull ServerImplementation withIndex(@NotNull RegionTaskIndex index) {
+        return new IndexedServer(this, index);
+    }
+
     /**
      * Cancels all scheduled tasks that were scheduled using your {@link Plugin}
      * instance.
      *
-     * <p>Note that Folia implementations will only cancel tasks scheduled using
-     * the {@link GlobalSchedulerImplementation} and
-     * {@link AsyncSchedulerImplementation}, ignoring any tasks scheduled using
-     * the {@link EntitySchedulerImplementation} and
-     * {@link RegionSchedulerImplementation}.
+     * <p>Note that Folia implementations can only cancel entity and region
+     * tasks that returned a {@link TaskImplementation}. Tasks scheduled with
+     * {@link EntitySchedulerImplementation#execute(Runnable, Runnable, long)}
+     * and {@link RegionSchedulerImplementation#execute(Runnable)} are not
+     * tracked, and will still run.
      *
      * @see AsyncSchedulerImplementation#cancelTasks()
      * @see GlobalSchedulerImplementation#cancelTasks()
@@ -173,4 +326,45 @@ public interface ServerImplementation {
      * @return A future that completes when the entity is teleported, or the teleport fails
      */
     @NotNull CompletableFuture<Boolean> teleportAsync(@NotNull Entity entity, @NotNull Location location, @NotNull PlayerTeleportEvent.TeleportCause cause);
+
+    /**
+     * Teleports many entities, spreading the work over several ticks.
+     * Shortcut for {@link #teleportAllAsync(Map, PlayerTeleportEvent.TeleportCause, int)},
+     * with the {@link PlayerTeleportEvent.TeleportCause#PLUGIN PLUGIN} cause
+     * and up to 20 teleports per tick.
+     *
+     * @param destinations The location to teleport each entity to
+     * @return A future that completes when every teleport finished
+     */
+    default @NotNull CompletableFuture<Map<Entity, Boolean>> teleportAllAsync(@NotNull Map<? extends Entity, ? extends Location> destinations) {
+        return teleportAllAsync(destinations, PlayerTeleportEvent.TeleportCause.PLUGIN, 20);
+    }
+
+    /**
+     * Teleports many entities, spreading the work over several ticks. This is
+     * useful for moving a whole arena or event of players at once, without a
+     * lag spike.
+     *
+     * <p>Destinations are grouped by chunk, so each destination chunk is
+     * loaded only once. On Paper 1.13+, every chunk is loaded asynchronously
+     * up front. On other servers, chunks are loaded on the main thread, and
+     * each load counts against {@code perTick}. Every tick, at most
+     * {@code perTick} teleports are started with
+     * {@link #teleportAsync(Entity, Location, PlayerTeleportEvent.TeleportCause)}.
+     *
+     * <p>The returned future completes with whether each entity was
+     * teleported, after the last teleport finishes. It never completes
+     * exceptionally because of a failed teleport or chunk load; that entity
+     * is mapped to {@code false} instead.
+     *
+     * @param destinations The location to teleport each entity to
+     * @param cause The cause of the teleports
+     * @param perTick The maximum number of chunk loads and teleports to start each tick
+     * @return A future that completes when every teleport finished
+     * @throws IllegalArgumentException If {@code perTick} is less than 1, or a location has no world
+     */
+    default @NotNull CompletableFuture<Map<Entity, Boolean>> teleportAllAsync(@NotNull Map<? extends Entity, ? extends Location> destinations,
+                                                                             @NotNull PlayerTeleportEvent.TeleportCause cause, int perTick) {
+        return new BulkTeleport(this, cause, perTick).start(destinations);
+    }
 }
@@ -0,0 +1,74 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.util.TickClock;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TickClock} that counts ticks of the global region scheduler, so
+ * rate limits follow the server's actual tick rate when it is lagging.
+ *
+ * <p>If the server stops ticking for more than a second (for example, when
+ * the tick task was cancelled because the plugin was disabled), the clock
+ * falls back to wall-clock time, so rate limiters are never stuck. When the
+ * server starts ticking again, the tick count catches up on the time that
+ * passed.
+ *
+ * <pre>{@code
+ * TickClock clock = new ServerTickClock(scheduler);
+ * TokenBucket bucket = new TokenBucket(clock, 5, 1, 20);
+ * }</pre>
+ */
+public class ServerTickClock implements TickClock {
+
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long FALLBACK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final @NotNull TaskImplementation<Void> task;
+
+    // Only written by the global region thread. The tick count and its time
+    // are published together, so readers never mix an old time with a new
+    // count, which would count a stall twice.
+    private volatile @NotNull State state;
+
+    public ServerTickClock(@NotNull ServerImplementation server) {
+        this.state = new State(0, System.nanoTime());
+        this.task = server.global().runAtFixedRate(this::tick, 1, 1);
+    }
+
+    private void tick() {
+        State last = state;
+        long now = System.nanoTime();
+        long gap = now - last.nanos;
+
+        // Catch up on the time that #currentTick() covered with wall-clock time
+        long next = gap > FALLBACK_NANOS ? last.ticks + gap / NANOS_PER_TICK : last.ticks + 1;
+        state = new State(next, now);
+    }
+
+    @Override
+    public long currentTick() {
+        State current = state;
+        long gap = System.nanoTime() - current.nanos;
+        return gap > FALLBACK_NANOS ? current.ticks + gap / NANOS_PER_TICK : current.ticks;
+    }
+
+    /**
+     * Stops counting server ticks. After this method is called, the clock
+     * continues with wall-clock time.
+     */
+    public void cancel() {
+        task.cancel();
+    }
+
+    private static final class State {
+        private final long ticks;
+        private final long nanos;
+
+        private State(long ticks, long nanos) {
+            this.ticks = ticks;
+            this.nanos = nanos;
+        }
+    }
+}
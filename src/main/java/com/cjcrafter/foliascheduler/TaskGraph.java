@@ -0,0 +1,226 @@
+package com.cjcrafter.foliascheduler;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Builds a graph of steps, where each step runs on a specific thread (the
+ * global region, a region, an entity's region, or async) and may depend on
+ * the results of earlier steps. When the graph is executed, each step starts
+ * as soon as all of its dependencies have completed, so independent branches
+ * run in parallel across Folia regions and the async pool.
+ *
+ * <pre>{@code
+ * TaskGraph graph = new TaskGraph(scheduler);
+ * TaskGraph.Node<PlayerData> data = graph.async(results -> database.load(player.getUniqueId()));
+ * TaskGraph.Node<Integer> mobs = graph.region(arena, results -> countMobs(arena));
+ * graph.entity(player, results -> {
+ *     player.sendMessage(results.get(data).getName() + ", there are " + results.get(mobs) + " mobs left");
+ *     return null;
+ * }, data, mobs);
+ *
+ * graph.execute().thenRun(() -> plugin.getLogger().info("Done!"));
+ * }</pre>
+ *
+ * <p>Dependencies must be added to the graph before the steps that depend on
+ * them, which guarantees the graph has no cycles. If a step throws an
+ * exception, every step that depends on it is skipped, and the future
+ * returned by {@link #execute()} completes exceptionally.
+ *
+ * <p>Building a graph is not thread-safe, but a built graph may be executed
+ * any number of times, from any thread.
+ */
+public class TaskGraph {
+
+    private final @NotNull ServerImplementation server;
+    private final @NotNull List<Node<?>> nodes;
+
+    public TaskGraph(@NotNull ServerImplementation server) {
+        this.server = server;
+        this.nodes = new ArrayList<>();
+    }
+
+    /**
+     * Adds a step that runs on the global region thread.
+     *
+     * @param function The step to run.
+     * @param dependencies The steps that must complete before this step starts.
+     * @return The new step.
+     * @param <T> The result type of the step.
+     */
+    public <T> @NotNull Node<T> global(@NotNull Function<Results, T> function, @NotNull Node<?>... dependencies) {
+        return add(FutureChain::thenApplyOnGlobal, function, dependencies);
+    }
+
+    /**
+     * Adds a step that runs on the thread that owns the location.
+     *
+     * @param location The location whose region should run the step.
+     * @param function The step to run.
+     * @param dependencies The steps that must complete before this step starts.
+     * @return The new step.
+     * @param <T> The result type of the step.
+     */
+    public <T> @NotNull Node<T> region(@NotNull Location location, @NotNull Function<Results, T> function, @NotNull Node<?>... dependencies) {
+        return add((chain, step) -> chain.thenApplyOnRegion(location, step), function, dependencies);
+    }
+
+    /**
+     * Adds a step that runs on the thread that owns the entity. If the entity
+     * is retired before the step runs, the step fails.
+     *
+     * @param entity The entity whose region should run the step.
+     * @param function The step to run.
+     * @param dependencies The steps that must complete before this step starts.
+     * @return The new step.
+     * @param <T> The result type of the step.
+     * @see FutureChain#thenApplyOnEntity(Entity, Function)
+     */
+    public <T> @NotNull Node<T> entity(@NotNull Entity entity, @NotNull Function<Results, T> function, @NotNull Node<?>... dependencies) {
+        return add((chain, step) -> chain.thenApplyOnEntity(entity, step), function, dependencies);
+    }
+
+    /**
+     * Adds a step that runs using the async scheduler.
+     *
+     * @param function The step to run.
+     * @param dependencies The steps that must complete before this step starts.
+     * @return The new step.
+     * @param <T> The result type of the step.
+     */
+    public <T> @NotNull Node<T> async(@NotNull Function<Results, T> function, @NotNull Node<?>... dependencies) {
+        return add(FutureChain::thenApplyAsync, function, dependencies);
+    }
+
+    /**
+     * Returns an unmodifiable view of the steps in this graph, in the order
+     * they were added.
+     *
+     * @return The steps in this graph.
+     */
+    public @NotNull List<Node<?>> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Starts every step of this graph. Steps without dependencies are
+     * scheduled immediately, and every other step is scheduled once its last
+     * dependency completes. This method never blocks.
+     *
+     * @return A future that completes with the results of every step.
+     */
+    public @NotNull CompletableFuture<Results> execute() {
+        Results results = new Results(new ConcurrentHashMap<>(nodes.size()));
+        CompletableFuture<?>[] all = new CompletableFuture[nodes.size()];
+
+        // Nodes are stored in the order they were added, and dependencies
+        // must be added first, so this is a topological order
+        for (int i = 0; i < nodes.size(); i++) {
+            Node<?> node = nodes.get(i);
+            all[i] = node.start(server, results);
+        }
+        return CompletableFuture.allOf(all).thenApply(ignore -> results);
+    }
+
+    private <T> @NotNull Node<T> add(@NotNull BiFunction<FutureChain<Void>, Function<Void, T>, FutureChain<T>> context,
+                                     @NotNull Function<Results, T> function, @NotNull Node<?>[] dependencies) {
+        for (Node<?> dependency : dependencies) {
+            if (dependency.graph != this)
+                throw new IllegalArgumentException("Dependency " + dependency + " belongs to another graph");
+        }
+
+        Node<T> node = new Node<>(this, nodes.size(), context, function, dependencies.clone());
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * A step in a {@link TaskGraph}. Use {@link Results#get(Node)} to read the
+     * result of a step.
+     *
+     * @param <T> The result type of the step.
+     */
+    public static final class Node<T> {
+
+        private final @NotNull TaskGraph graph;
+        private final int index;
+        private final @NotNull BiFunction<FutureChain<Void>, Function<Void, T>, FutureChain<T>> context;
+        private final @NotNull Function<Results, T> function;
+        private final @NotNull Node<?>[] dependencies;
+
+        private Node(@NotNull TaskGraph graph, int index, @NotNull BiFunction<FutureChain<Void>, Function<Void, T>, FutureChain<T>> context,
+                     @NotNull Function<Results, T> function, @NotNull Node<?>[] dependencies) {
+            this.graph = graph;
+            this.index = index;
+            this.context = context;
+            this.function = function;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * Returns an unmodifiable view of the steps this step depends on.
+         *
+         * @return The dependencies of this step.
+         */
+        public @NotNull List<Node<?>> getDependencies() {
+            return Collections.unmodifiableList(Arrays.asList(dependencies));
+        }
+
+        private @NotNull CompletableFuture<T> start(@NotNull ServerImplementation server, @NotNull Results results) {
+            CompletableFuture<?>[] inputs = new CompletableFuture[dependencies.length];
+            for (int i = 0; i < dependencies.length; i++)
+                inputs[i] = results.futures.get(dependencies[i]);
+
+            FutureChain<Void> ready = server.chain(CompletableFuture.allOf(inputs));
+            CompletableFuture<T> future = context.apply(ready, ignore -> function.apply(results)).toFuture();
+            results.futures.put(this, future);
+            return future;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return "Node{index=" + index + ", dependencies=" + dependencies.length + "}";
+        }
+    }
+
+    /**
+     * The results of the steps of a {@link TaskGraph} execution.
+     */
+    public static final class Results {
+
+        private final @NotNull Map<Node<?>, CompletableFuture<?>> futures;
+
+        private Results(@NotNull Map<Node<?>, CompletableFuture<?>> futures) {
+            this.futures = futures;
+        }
+
+        /**
+         * Returns the result of the step. Inside a step, this may only be
+         * called with the step's dependencies, since other steps may not have
+         * completed yet.
+         *
+         * @param node The step to get the result of.
+         * @return The result of the step.
+         * @param <T> The result type of the step.
+         * @throws IllegalStateException If the step has not completed yet.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T get(@NotNull Node<T> node) {
+            CompletableFuture<?> future = futures.get(node);
+            if (future == null || !future.isDone())
+                throw new IllegalStateException(node + " has not completed yet, is it a dependency?");
+            return (T) future.join();
+        }
+    }
+}
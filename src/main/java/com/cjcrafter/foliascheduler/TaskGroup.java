@@ -0,0 +1,138 @@
+package com.cjcrafter.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A named set of tasks that can be cancelled together, like all the tasks of
+ * a minigame arena, or all the tasks of a player's session.
+ *
+ * <p>Tasks can be added from any thread. Non-repeating tasks leave the group
+ * as soon as they finish. Tasks that are cancelled by other means (for
+ * example, with {@link TaskImplementation#cancel()}) are swept out of the
+ * group periodically, so adding a task is amortized constant time.
+ *
+ * @see TaskRegistry
+ */
+public class TaskGroup {
+
+    // Smallest group size that will trigger a sweep of finished tasks
+    private static final int MIN_SWEEP_THRESHOLD = 64;
+
+    private final @NotNull String name;
+    private final @NotNull Set<TaskImplementation<?>> tasks;
+    private volatile int sweepThreshold;
+
+    public TaskGroup(@NotNull String name) {
+        this.name = name;
+        this.tasks = ConcurrentHashMap.newKeySet();
+        this.sweepThreshold = MIN_SWEEP_THRESHOLD;
+    }
+
+    /**
+     * Returns the name of this group.
+     *
+     * @return The name of this group.
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Adds a task to this group. The task is returned, so scheduling and
+     * grouping can be done in one line:
+     * <pre>{@code
+     * group.add(scheduler.region(location).runDelayed(task -> explode(), 20L));
+     * }</pre>
+     *
+     * <p>A {@code null} task is ignored, so the return value of an
+     * {@link EntitySchedulerImplementation} can be passed in directly.
+     *
+     * @param task The task to add.
+     * @return The same task.
+     * @param <T> The callback type of the task.
+     */
+    public <T> @Nullable TaskImplementation<T> add(@Nullable TaskImplementation<T> task) {
+        if (task == null)
+            return null;
+
+        tasks.add(task);
+        if (!task.isRepeatingTask())
+            task.asFuture().whenComplete((ignore, ex) -> tasks.remove(task));
+
+        // Tasks that are cancelled outside of this group never complete their
+        // future, so we need to sweep them out once in a while.
+        if (tasks.size() >= sweepThreshold)
+            sweep();
+        return task;
+    }
+
+    /**
+     * Removes a task from this group without cancelling it.
+     *
+     * @param task The task to remove.
+     * @return true if the task was in this group.
+     */
+    public boolean remove(@NotNull TaskImplementation<?> task) {
+        return tasks.remove(task);
+    }
+
+    /**
+     * Cancels every task in this group, and removes them from the group. The
+     * group may still be used after this method is called.
+     *
+     * @return The number of tasks that were cancelled.
+     */
+    public int cancel() {
+        int count = 0;
+        Iterator<TaskImplementation<?>> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            TaskImplementation<?> task = iterator.next();
+            iterator.remove();
+            task.cancel();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of tasks in this group. This may include tasks that
+     * were cancelled outside of this group and have not been swept yet.
+     *
+     * @return The number of tasks in this group.
+     */
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * Returns an unmodifiable view of the tasks in this group.
+     *
+     * @return The tasks in this group.
+     */
+    public @NotNull Set<TaskImplementation<?>> getTasks() {
+        return Collections.unmodifiableSet(tasks);
+    }
+
+    /**
+     * Removes every task that finished or was cancelled outside of this group.
+     */
+    void sweep() {
+        tasks.removeIf(TaskGroup::isFinished);
+        sweepThreshold = Math.max(MIN_SWEEP_THRESHOLD, tasks.size() * 2);
+    }
+
+    private static boolean isFinished(@NotNull TaskImplementation<?> task) {
+        return task.isCancelled() || (!task.isRepeatingTask() && task.asFuture().isDone());
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "TaskGroup{name=" + name + ", size=" + tasks.size() + "}";
+    }
+}
@@ -55,8 +55,8 @@ public interface TaskImplementation<T> {
      * Returns a CompletableFuture that will be completed when the task has finished executing.
      * For repeating tasks, the future will be completed on the first loop execution.
      * <p>
-     * The future may not be completed if the task is cancelled before it is run, or if an
-     * exception occurs during execution of the task.
+     * If the task throws an exception, the future is completed exceptionally with it. The
+     * future may not be completed if the task is cancelled before it is run.
      *
      * @return A CompletableFuture that will be completed when the task has finished executing.
      */
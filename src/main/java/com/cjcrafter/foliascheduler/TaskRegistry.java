@@ -0,0 +1,98 @@
+package com.cjcrafter.foliascheduler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds named {@link TaskGroup}s, so tasks spread across the entity, region,
+ * global and async schedulers can be cancelled in one call. Looking up a
+ * group is constant time, and cancelling a group only touches the tasks in
+ * that group.
+ *
+ * <pre>{@code
+ * TaskRegistry registry = scheduler.getTaskRegistry();
+ * registry.group("arena-" + arena.getId()).add(scheduler.region(spawn).runAtFixedRate(task -> tick(), 1L, 1L));
+ *
+ * // Later, when the arena resets
+ * registry.cancelGroup("arena-" + arena.getId());
+ * }</pre>
+ */
+public class TaskRegistry {
+
+    private final @NotNull ConcurrentMap<String, TaskGroup> groups;
+
+    public TaskRegistry() {
+        this.groups = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the group with the given name, creating it if it does not
+     * exist.
+     *
+     * @param name The name of the group.
+     * @return The group with the given name.
+     */
+    public @NotNull TaskGroup group(@NotNull String name) {
+        return groups.computeIfAbsent(name, TaskGroup::new);
+    }
+
+    /**
+     * Returns the group with the given name, or null if it does not exist.
+     *
+     * @param name The name of the group.
+     * @return The group with the given name, or null.
+     */
+    public @Nullable TaskGroup getGroup(@NotNull String name) {
+        return groups.get(name);
+    }
+
+    /**
+     * Returns an unmodifiable view of the names of every group.
+     *
+     * @return The names of every group.
+     */
+    public @NotNull Set<String> getGroupNames() {
+        return Collections.unmodifiableSet(groups.keySet());
+    }
+
+    /**
+     * Cancels every task in the group with the given name. The group is kept,
+     * so it can be reused (for example, when an arena restarts).
+     *
+     * @param name The name of the group.
+     * @return The number of tasks that were cancelled.
+     */
+    public int cancelGroup(@NotNull String name) {
+        TaskGroup group = groups.get(name);
+        return group == null ? 0 : group.cancel();
+    }
+
+    /**
+     * Cancels every task in the group with the given name, and removes the
+     * group from this registry.
+     *
+     * @param name The name of the group.
+     * @return The number of tasks that were cancelled.
+     */
+    public int removeGroup(@NotNull String name) {
+        TaskGroup group = groups.remove(name);
+        return group == null ? 0 : group.cancel();
+    }
+
+    /**
+     * Cancels every task in every group of this registry.
+     *
+     * @return The number of tasks that were cancelled.
+     */
+    public int cancelAll() {
+        int count = 0;
+        for (TaskGroup group : groups.values())
+            count += group.cancel();
+        return count;
+    }
+}
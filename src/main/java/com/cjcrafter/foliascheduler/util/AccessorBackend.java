@@ -0,0 +1,405 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The ways a {@link FieldAccessor} or {@link MethodInvoker} can access its
+ * member. {@link ReflectionUtil} always returns {@link #REFLECTION} handles.
+ * Handles on hot paths can be converted with {@link #field(FieldAccessor)}
+ * and {@link #method(MethodInvoker)}:
+ *
+ * <pre>{@code
+ * private static final MethodInvoker GET_HANDLE = AccessorBackend.getBest().method(
+ *     ReflectionUtil.getMethod(craftEntityClass, "getHandle"));
+ * }</pre>
+ *
+ * <p>Only {@link FieldAccessor#get(Object)}, {@link FieldAccessor#set(Object, Object)}
+ * and {@link MethodInvoker#invoke(Object, Object...)} use the backend. The
+ * typed primitive getters and setters of {@link FieldAccessor} still use
+ * reflection.
+ */
+public enum AccessorBackend {
+
+    /**
+     * Uses core reflection. On Java 8 through 17, reflection generates its
+     * own bytecode after a member is used a few times, so this is the fastest
+     * backend that works everywhere.
+     */
+    REFLECTION,
+
+    /**
+     * Uses a {@link MethodHandle}. Since Java 18, core reflection is built on
+     * method handles, so calling the handle directly skips the extra checks.
+     */
+    METHOD_HANDLE,
+
+    /**
+     * Generates a small hidden class per member, which uses a direct
+     * {@code getfield}, {@code putfield} or {@code invoke*} instruction.
+     * This needs Java 15 or higher, and the member's package must be open to
+     * this library, which is always true for Minecraft and plugin classes.
+     */
+    HIDDEN_CLASS;
+
+    /**
+     * Returns true if this backend works on this JVM.
+     *
+     * @return true if this backend is supported.
+     */
+    public boolean isSupported() {
+        return this != HIDDEN_CLASS || AccessorGenerator.isSupported();
+    }
+
+    /**
+     * Returns an accessor for the same field that uses this backend. If this
+     * backend cannot access the field, the {@link #getFallback() fallback} is
+     * used instead.
+     *
+     * @param accessor The accessor to convert.
+     * @return The converted accessor.
+     */
+    public @NotNull FieldAccessor field(@NotNull FieldAccessor accessor) {
+        Field field = accessor.getField();
+        switch (this) {
+            case HIDDEN_CLASS:
+                if (AccessorGenerator.isSupported()) {
+                    try {
+                        // Final fields can only be set with reflection, if at all
+                        BiConsumer<Object, Object> setter = Modifier.isFinal(field.getModifiers()) ? null : AccessorGenerator.setter(field);
+                        return new GeneratedFieldAccessor(field, AccessorGenerator.getter(field), setter);
+                    } catch (RuntimeException | LinkageError ex) {
+                        // The package is not open to us, or the class could not be verified
+                    }
+                }
+                return getFallback().field(accessor);
+            case METHOD_HANDLE:
+                return new HandleFieldAccessor(field);
+            default:
+                return accessor.getClass() == FieldAccessor.class ? accessor : new FieldAccessor(field);
+        }
+    }
+
+    /**
+     * Returns an invoker for the same method that uses this backend. If this
+     * backend cannot access the method, the {@link #getFallback() fallback}
+     * is used instead.
+     *
+     * @param invoker The invoker to convert.
+     * @return The converted invoker.
+     */
+    public @NotNull MethodInvoker method(@NotNull MethodInvoker invoker) {
+        Method method = invoker.getMethod();
+        switch (this) {
+            case HIDDEN_CLASS:
+                if (AccessorGenerator.isSupported()) {
+                    try {
+                        return new GeneratedMethodInvoker(method, AccessorGenerator.invoker(method));
+                    } catch (RuntimeException | LinkageError ex) {
+                        // The package is not open to us, or the class could not be verified
+                    }
+                }
+                return getFallback().method(invoker);
+            case METHOD_HANDLE:
+                return new HandleMethodInvoker(method);
+            default:
+                return invoker.getClass() == MethodInvoker.class ? invoker : new MethodInvoker(method);
+        }
+    }
+
+    /**
+     * Returns the backend to use when {@link #HIDDEN_CLASS} cannot access a
+     * member: {@link #METHOD_HANDLE} on Java 18 and higher, where reflection
+     * is built on method handles anyway, otherwise {@link #REFLECTION}.
+     *
+     * @return The fallback backend.
+     */
+    public static @NotNull AccessorBackend getFallback() {
+        return ServerCapabilities.get().getJavaVersion() >= 18 ? METHOD_HANDLE : REFLECTION;
+    }
+
+    /**
+     * Returns the fastest backend for this JVM, based on
+     * {@link ServerVersions#getJavaVersion()}. This is {@link #HIDDEN_CLASS}
+     * on Java 17 and higher, and the {@link #getFallback() fallback}
+     * otherwise.
+     *
+     * @return The fastest backend.
+     */
+    public static @NotNull AccessorBackend getBest() {
+        if (ServerCapabilities.get().getJavaVersion() >= 17 && HIDDEN_CLASS.isSupported())
+            return HIDDEN_CLASS;
+        return getFallback();
+    }
+
+    private static @NotNull WrappedReflectiveOperationException wrapInvocation(@NotNull Throwable ex) {
+        // Matches Method#invoke, which wraps everything the method throws
+        return new WrappedReflectiveOperationException(new InvocationTargetException(ex));
+    }
+
+    /**
+     * Checks the receiver and arguments the way {@link Method#invoke} does,
+     * before the method is called, so a mistake by the caller is thrown as an
+     * {@link IllegalArgumentException} instead of looking like the method
+     * threw. Primitive arguments are unboxed and widened like reflection does.
+     *
+     * @return The arguments to pass, which are only copied if one was widened.
+     */
+    private static Object @NotNull [] checkArguments(@NotNull Method method, @NotNull Class<?> @NotNull [] parameterTypes, @Nullable Object obj, Object @Nullable [] args) {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            if (obj == null)
+                throw new NullPointerException("Cannot invoke " + method + " on null");
+            if (!method.getDeclaringClass().isInstance(obj))
+                throw new IllegalArgumentException("object is not an instance of declaring class");
+        }
+
+        if (args == null)
+            args = new Object[0];
+        if (args.length != parameterTypes.length)
+            throw new IllegalArgumentException("wrong number of arguments: " + args.length + " expected: " + parameterTypes.length);
+
+        Object[] result = args;
+        for (int i = 0; i < args.length; i++) {
+            Object converted = convert(parameterTypes[i], args[i]);
+            if (converted != args[i]) {
+                if (result == args)
+                    result = args.clone();
+                result[i] = converted;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts a value to the given type the way reflection does: reference
+     * types must match, and primitive types are unboxed, then widened.
+     *
+     * @throws IllegalArgumentException If reflection would not accept the value.
+     */
+    private static @Nullable Object convert(@NotNull Class<?> type, @Nullable Object value) {
+        if (!type.isPrimitive()) {
+            if (value != null && !type.isInstance(value))
+                throw mismatch(type, value);
+            return value;
+        }
+        if (value == null)
+            throw mismatch(type, null);
+
+        if (type == boolean.class || type == char.class) {
+            if (value.getClass() == (type == boolean.class ? Boolean.class : Character.class))
+                return value;
+            throw mismatch(type, value);
+        }
+
+        int from = rank(value.getClass());
+        int to = rank(type);
+        if (from == to && from != 0)
+            return value;
+
+        if (value instanceof Character) {
+            // char widens to int, long, float and double, but not to short
+            char c = (Character) value;
+            if (type == int.class) return (int) c;
+            if (type == long.class) return (long) c;
+            if (type == float.class) return (float) c;
+            if (type == double.class) return (double) c;
+        } else if (value instanceof Number && from > 0 && from < to) {
+            Number number = (Number) value;
+            if (type == short.class) return number.shortValue();
+            if (type == int.class) return number.intValue();
+            if (type == long.class) return number.longValue();
+            if (type == float.class) return number.floatValue();
+            if (type == double.class) return number.doubleValue();
+        }
+        throw mismatch(type, value);
+    }
+
+    private static @NotNull IllegalArgumentException mismatch(@NotNull Class<?> type, @Nullable Object value) {
+        String name = value == null ? "null" : value.getClass().getName();
+        return new IllegalArgumentException("argument type mismatch: " + name + " is not a " + type.getName());
+    }
+
+    // The order of the numeric widening conversions, or 0 for boolean and char
+    private static int rank(@NotNull Class<?> type) {
+        if (type == byte.class || type == Byte.class) return 1;
+        if (type == short.class || type == Short.class) return 2;
+        if (type == int.class || type == Integer.class) return 3;
+        if (type == long.class || type == Long.class) return 4;
+        if (type == float.class || type == Float.class) return 5;
+        if (type == double.class || type == Double.class) return 6;
+        return 0;
+    }
+
+    private static final class GeneratedFieldAccessor extends FieldAccessor {
+        private final @NotNull Function<Object, Object> getter;
+        private final @Nullable BiConsumer<Object, Object> setter;
+
+        GeneratedFieldAccessor(@NotNull Field field, @NotNull Function<Object, Object> getter, @Nullable BiConsumer<Object, Object> setter) {
+            super(field);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public @Nullable Object get(@Nullable Object obj) {
+            try {
+                return getter.apply(obj);
+            } catch (ClassCastException ex) {
+                throw new IllegalArgumentException(ex);
+            }
+        }
+
+        @Override
+        public void set(@Nullable Object obj, @Nullable Object value) {
+            if (setter == null) {
+                super.set(obj, value);
+                return;
+            }
+
+            Class<?> type = getField().getType();
+            if (type.isPrimitive())
+                value = convert(type, value);
+            try {
+                setter.accept(obj, value);
+            } catch (ClassCastException ex) {
+                throw new IllegalArgumentException(ex);
+            }
+        }
+    }
+
+    private static final class GeneratedMethodInvoker extends MethodInvoker {
+        private final @NotNull Class<?> @NotNull [] parameterTypes;
+        private final @NotNull BiFunction<Object, Object[], Object> invoker;
+
+        GeneratedMethodInvoker(@NotNull Method method, @NotNull BiFunction<Object, Object[], Object> invoker) {
+            super(method);
+            this.parameterTypes = method.getParameterTypes();
+            this.invoker = invoker;
+        }
+
+        @Override
+        public @Nullable Object invoke(@Nullable Object obj, Object... args) {
+            // Checked first, so everything caught below was thrown by the method
+            args = checkArguments(getMethod(), parameterTypes, obj, args);
+            try {
+                return invoker.apply(obj, args);
+            } catch (Throwable ex) {
+                throw wrapInvocation(ex);
+            }
+        }
+    }
+
+    private static final class HandleFieldAccessor extends FieldAccessor {
+        private final @NotNull MethodHandle getter;
+        private final @Nullable MethodHandle setter;
+
+        HandleFieldAccessor(@NotNull Field field) {
+            super(field);
+            try {
+                if (!field.isAccessible())
+                    field.setAccessible(true);
+
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                boolean isStatic = Modifier.isStatic(field.getModifiers());
+                MethodHandle getter = lookup.unreflectGetter(field);
+                this.getter = isStatic
+                    ? MethodHandles.dropArguments(getter, 0, Object.class).asType(MethodType.methodType(Object.class, Object.class))
+                    : getter.asType(MethodType.methodType(Object.class, Object.class));
+
+                this.setter = setter(lookup, field);
+            } catch (IllegalAccessException ex) {
+                throw new WrappedReflectiveOperationException(ex);
+            }
+        }
+
+        private static @Nullable MethodHandle setter(@NotNull MethodHandles.Lookup lookup, @NotNull Field field) {
+            try {
+                MethodHandle setter = lookup.unreflectSetter(field);
+                if (Modifier.isStatic(field.getModifiers()))
+                    setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                return setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException ex) {
+                // Some final fields can only be set with reflection, if at all
+                return null;
+            }
+        }
+
+        @Override
+        public @Nullable Object get(@Nullable Object obj) {
+            try {
+                return getter.invokeExact(obj);
+            } catch (ClassCastException ex) {
+                throw new IllegalArgumentException(ex);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex); // Getters do not throw checked exceptions
+            }
+        }
+
+        @Override
+        public void set(@Nullable Object obj, @Nullable Object value) {
+            if (setter == null) {
+                super.set(obj, value);
+                return;
+            }
+
+            Class<?> type = getField().getType();
+            if (type.isPrimitive())
+                value = convert(type, value);
+            try {
+                setter.invokeExact(obj, value);
+            } catch (ClassCastException ex) {
+                throw new IllegalArgumentException(ex);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex); // Setters do not throw checked exceptions
+            }
+        }
+    }
+
+    private static final class HandleMethodInvoker extends MethodInvoker {
+        private final @NotNull Class<?> @NotNull [] parameterTypes;
+        private final @NotNull MethodHandle handle;
+
+        HandleMethodInvoker(@NotNull Method method) {
+            super(method);
+            this.parameterTypes = method.getParameterTypes();
+            try {
+                if (!method.isAccessible())
+                    method.setAccessible(true);
+
+                MethodHandle handle = MethodHandles.lookup().unreflect(method);
+                if (Modifier.isStatic(method.getModifiers()))
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                this.handle = handle.asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            } catch (IllegalAccessException ex) {
+                throw new WrappedReflectiveOperationException(ex);
+            }
+        }
+
+        @Override
+        public @Nullable Object invoke(@Nullable Object obj, Object... args) {
+            // Checked first, so everything caught below was thrown by the method
+            args = checkArguments(getMethod(), parameterTypes, obj, args);
+            try {
+                return handle.invokeExact(obj, args);
+            } catch (Throwable ex) {
+                throw wrapInvocation(ex);
+            }
+        }
+    }
+}
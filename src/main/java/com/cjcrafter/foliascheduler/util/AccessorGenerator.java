@@ -0,0 +1,409 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Generates tiny hidden classes that read a field, write a field or call a
+ * method with a direct {@code getfield}, {@code putfield} or {@code invoke*}
+ * instruction. The classes are defined as nestmates of the class that
+ * declares the member, so private members are accessible without any access
+ * checks at runtime.
+ *
+ * <p>The generated classes are defined by the class loader of the member's
+ * class, which cannot see this library. So they only implement JDK
+ * interfaces: {@link Function} for getters, {@link BiConsumer} for setters,
+ * and {@link BiFunction} for methods.
+ *
+ * <p>Hidden classes were added in Java 15, and this library is compiled for
+ * Java 8, so the JDK methods are called reflectively. Use
+ * {@link #isSupported()} before generating anything.
+ */
+final class AccessorGenerator {
+
+    private static final int CLASS_VERSION = 59; // Java 15
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final @Nullable MethodInvoker PRIVATE_LOOKUP_IN;
+    private static final @Nullable MethodInvoker DEFINE_HIDDEN_CLASS;
+    private static final @Nullable Object NESTMATE_OPTIONS;
+
+    static {
+        MethodInvoker privateLookupIn = null;
+        MethodInvoker defineHiddenClass = null;
+        Object options = null;
+        if (ServerCapabilities.get().getJavaVersion() >= 15) {
+            try {
+                Class<?> optionClass = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+                options = Array.newInstance(optionClass, 1);
+                Array.set(options, 0, optionClass.getField("NESTMATE").get(null));
+
+                privateLookupIn = new MethodInvoker(MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class));
+                defineHiddenClass = new MethodInvoker(MethodHandles.Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, options.getClass()));
+            } catch (ReflectiveOperationException ex) {
+                privateLookupIn = null;
+                defineHiddenClass = null;
+            }
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+        DEFINE_HIDDEN_CLASS = defineHiddenClass;
+        NESTMATE_OPTIONS = options;
+    }
+
+    private AccessorGenerator() {
+    }
+
+    /**
+     * Returns true if this JVM supports hidden classes.
+     *
+     * @return true if hidden classes can be generated.
+     */
+    static boolean isSupported() {
+        return DEFINE_HIDDEN_CLASS != null;
+    }
+
+    /**
+     * Generates a getter for the field.
+     *
+     * @param field The field to read.
+     * @return A function that takes the object (ignored for static fields), and returns the boxed value.
+     * @throws WrappedReflectiveOperationException If the class cannot be defined.
+     */
+    @SuppressWarnings("unchecked")
+    static @NotNull Function<Object, Object> getter(@NotNull Field field) {
+        ClassWriter writer = new ClassWriter(field.getDeclaringClass(), "java/util/function/Function");
+        Code code = new Code();
+        String owner = internalName(field.getDeclaringClass());
+        int ref = writer.memberRef(9, owner, field.getName(), descriptor(field.getType()));
+        if (Modifier.isStatic(field.getModifiers())) {
+            code.op(0xB2).u2(ref); // getstatic
+        } else {
+            code.op(0x2B); // aload_1
+            code.op(0xC0).u2(writer.classRef(owner)); // checkcast
+            code.op(0xB4).u2(ref); // getfield
+        }
+        box(writer, code, field.getType());
+        code.op(0xB0); // areturn
+        writer.method("apply", "(Ljava/lang/Object;)Ljava/lang/Object;", 3, 2, code);
+        return (Function<Object, Object>) define(field.getDeclaringClass(), writer.toByteArray());
+    }
+
+    /**
+     * Generates a setter for the field. Final fields cannot be set outside
+     * of their constructor, so they are not supported.
+     *
+     * @param field The non-final field to write.
+     * @return A consumer that takes the object (ignored for static fields), and the boxed value.
+     * @throws WrappedReflectiveOperationException If the class cannot be defined.
+     */
+    @SuppressWarnings("unchecked")
+    static @NotNull BiConsumer<Object, Object> setter(@NotNull Field field) {
+        if (Modifier.isFinal(field.getModifiers()))
+            throw new IllegalArgumentException("Cannot generate a setter for final field " + field);
+
+        ClassWriter writer = new ClassWriter(field.getDeclaringClass(), "java/util/function/BiConsumer");
+        Code code = new Code();
+        String owner = internalName(field.getDeclaringClass());
+        int ref = writer.memberRef(9, owner, field.getName(), descriptor(field.getType()));
+        boolean isStatic = Modifier.isStatic(field.getModifiers());
+        if (!isStatic) {
+            code.op(0x2B); // aload_1
+            code.op(0xC0).u2(writer.classRef(owner)); // checkcast
+        }
+        code.op(0x2C); // aload_2
+        unbox(writer, code, field.getType());
+        code.op(isStatic ? 0xB3 : 0xB5).u2(ref); // putstatic, putfield
+        code.op(0xB1); // return
+        writer.method("accept", "(Ljava/lang/Object;Ljava/lang/Object;)V", 4, 3, code);
+        return (BiConsumer<Object, Object>) define(field.getDeclaringClass(), writer.toByteArray());
+    }
+
+    /**
+     * Generates an invoker for the method.
+     *
+     * @param method The method to call.
+     * @return A function that takes the object (ignored for static methods), and the argument array, and returns the boxed result.
+     * @throws WrappedReflectiveOperationException If the class cannot be defined.
+     */
+    @SuppressWarnings("unchecked")
+    static @NotNull BiFunction<Object, Object[], Object> invoker(@NotNull Method method) {
+        ClassWriter writer = new ClassWriter(method.getDeclaringClass(), "java/util/function/BiFunction");
+        Code code = new Code();
+        Class<?> declaring = method.getDeclaringClass();
+        String owner = internalName(declaring);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            code.op(0x2B); // aload_1
+            code.op(0xC0).u2(writer.classRef(owner)); // checkcast
+        }
+
+        Class<?>[] parameters = method.getParameterTypes();
+        StringBuilder descriptor = new StringBuilder("(");
+        int arrayClass = writer.classRef("[Ljava/lang/Object;");
+        for (int i = 0; i < parameters.length; i++) {
+            code.op(0x2C); // aload_2
+            code.op(0xC0).u2(arrayClass); // checkcast
+            code.op(0x11).u2(i); // sipush
+            code.op(0x32); // aaload
+            unbox(writer, code, parameters[i]);
+            descriptor.append(descriptor(parameters[i]));
+        }
+        descriptor.append(')').append(descriptor(method.getReturnType()));
+
+        int ref = writer.memberRef(declaring.isInterface() ? 11 : 10, owner, method.getName(), descriptor.toString());
+        if (isStatic) {
+            code.op(0xB8).u2(ref); // invokestatic
+        } else if (declaring.isInterface()) {
+            int slots = 1;
+            for (Class<?> parameter : parameters)
+                slots += (parameter == long.class || parameter == double.class) ? 2 : 1;
+            code.op(0xB9).u2(ref).u1(slots).u1(0); // invokeinterface
+        } else {
+            code.op(0xB6).u2(ref); // invokevirtual, which also works for private nestmate methods
+        }
+
+        if (method.getReturnType() == void.class)
+            code.op(0x01); // aconst_null
+        else
+            box(writer, code, method.getReturnType());
+        code.op(0xB0); // areturn
+
+        int maxStack = Math.min(4 + 2 * parameters.length, 0xFFFF);
+        writer.method("apply", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", maxStack, 3, code);
+        return (BiFunction<Object, Object[], Object>) define(declaring, writer.toByteArray());
+    }
+
+    private static @NotNull Object define(@NotNull Class<?> host, byte @NotNull [] bytes) {
+        if (DEFINE_HIDDEN_CLASS == null || PRIVATE_LOOKUP_IN == null)
+            throw new IllegalStateException("Hidden classes are not supported on Java " + ServerCapabilities.get().getJavaVersion());
+
+        MethodHandles.Lookup lookup = (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, host, MethodHandles.lookup());
+        MethodHandles.Lookup hidden = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(lookup, bytes, true, NESTMATE_OPTIONS);
+        try {
+            return hidden.lookupClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new WrappedReflectiveOperationException(ex);
+        }
+    }
+
+    private static void box(@NotNull ClassWriter writer, @NotNull Code code, @NotNull Class<?> type) {
+        if (!type.isPrimitive())
+            return;
+        String wrapper = internalName(wrapper(type));
+        int ref = writer.memberRef(10, wrapper, "valueOf", "(" + descriptor(type) + ")L" + wrapper + ";");
+        code.op(0xB8).u2(ref); // invokestatic
+    }
+
+    private static void unbox(@NotNull ClassWriter writer, @NotNull Code code, @NotNull Class<?> type) {
+        if (type == Object.class)
+            return;
+        if (!type.isPrimitive()) {
+            code.op(0xC0).u2(writer.classRef(internalName(type))); // checkcast
+            return;
+        }
+        String wrapper = internalName(wrapper(type));
+        code.op(0xC0).u2(writer.classRef(wrapper)); // checkcast
+        int ref = writer.memberRef(10, wrapper, type.getName() + "Value", "()" + descriptor(type));
+        code.op(0xB6).u2(ref); // invokevirtual
+    }
+
+    private static @NotNull Class<?> wrapper(@NotNull Class<?> primitive) {
+        if (primitive == boolean.class) return Boolean.class;
+        if (primitive == byte.class) return Byte.class;
+        if (primitive == char.class) return Character.class;
+        if (primitive == short.class) return Short.class;
+        if (primitive == int.class) return Integer.class;
+        if (primitive == long.class) return Long.class;
+        if (primitive == float.class) return Float.class;
+        if (primitive == double.class) return Double.class;
+        throw new IllegalArgumentException("Not a primitive: " + primitive);
+    }
+
+    private static @NotNull String internalName(@NotNull Class<?> clazz) {
+        // Arrays use their descriptor as their class name
+        return clazz.isArray() ? descriptor(clazz) : clazz.getName().replace('.', '/');
+    }
+
+    private static @NotNull String descriptor(@NotNull Class<?> clazz) {
+        if (clazz.isArray())
+            return clazz.getName().replace('.', '/');
+        if (clazz == void.class) return "V";
+        if (clazz == boolean.class) return "Z";
+        if (clazz == byte.class) return "B";
+        if (clazz == char.class) return "C";
+        if (clazz == short.class) return "S";
+        if (clazz == int.class) return "I";
+        if (clazz == long.class) return "J";
+        if (clazz == float.class) return "F";
+        if (clazz == double.class) return "D";
+        return "L" + clazz.getName().replace('.', '/') + ";";
+    }
+
+    /**
+     * Bytecode for one method. Every generated method is straight-line code,
+     * so no stack map frames are needed.
+     */
+    private static final class Code {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        @NotNull Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        @NotNull Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        @NotNull Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+    }
+
+    /**
+     * Writes a class with a public no-arg constructor, one interface and the
+     * methods added with {@link #method}.
+     */
+    private static final class ClassWriter {
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        private final DataOutputStream poolOut = new DataOutputStream(pool);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+        private final DataOutputStream methodsOut = new DataOutputStream(methods);
+        private int poolSize = 1;
+        private int methodCount;
+
+        private final int thisClass;
+        private final int superClass;
+        private final int interfaceClass;
+
+        ClassWriter(@NotNull Class<?> host, @NotNull String interfaceName) {
+            // Hidden classes must be in the same package as their host
+            thisClass = classRef(internalName(host) + "$$Accessor");
+            superClass = classRef("java/lang/Object");
+            interfaceClass = classRef(interfaceName);
+
+            Code init = new Code();
+            init.op(0x2A); // aload_0
+            init.op(0xB7).u2(memberRef(10, "java/lang/Object", "<init>", "()V")); // invokespecial
+            init.op(0xB1); // return
+            method("<init>", "()V", 1, 1, init);
+        }
+
+        int utf8(@NotNull String value) {
+            return entry("U" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(@NotNull String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, out -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+
+        int memberRef(int tag, @NotNull String owner, @NotNull String name, @NotNull String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + ":" + descriptor, out -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry(tag + owner + "." + name + ":" + descriptor, out -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        void method(@NotNull String name, @NotNull String descriptor, int maxStack, int maxLocals, @NotNull Code code) {
+            byte[] bytecode = code.bytes.toByteArray();
+            try {
+                methodsOut.writeShort(ACC_PUBLIC);
+                methodsOut.writeShort(utf8(name));
+                methodsOut.writeShort(utf8(descriptor));
+                methodsOut.writeShort(1); // attributes
+                methodsOut.writeShort(utf8("Code"));
+                methodsOut.writeInt(12 + bytecode.length);
+                methodsOut.writeShort(maxStack);
+                methodsOut.writeShort(maxLocals);
+                methodsOut.writeInt(bytecode.length);
+                methodsOut.write(bytecode);
+                methodsOut.writeShort(0); // exception table
+                methodsOut.writeShort(0); // attributes
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex); // ByteArrayOutputStream does not throw
+            }
+            methodCount++;
+        }
+
+        byte @NotNull [] toByteArray() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(CLASS_VERSION);
+                out.writeShort(poolSize);
+                out.write(pool.toByteArray());
+                out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);
+                out.writeShort(interfaceClass);
+                out.writeShort(0); // fields
+                out.writeShort(methodCount);
+                out.write(methods.toByteArray());
+                out.writeShort(0); // attributes
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex); // ByteArrayOutputStream does not throw
+            }
+            return bytes.toByteArray();
+        }
+
+        private int entry(@NotNull String key, @NotNull PoolWriter writer) {
+            Integer existing = entries.get(key);
+            if (existing != null)
+                return existing;
+
+            try {
+                writer.write(poolOut);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex); // ByteArrayOutputStream does not throw
+            }
+            int index = poolSize++;
+            entries.put(key, index);
+            return index;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PoolWriter {
+        void write(@NotNull DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,88 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A utility class that packs chunk coordinates into a single {@code long},
+ * using the same layout as Paper's {@code Chunk#getChunkKey()}. Packed keys
+ * avoid allocating a coordinate object per chunk, and can be stored in
+ * primitive arrays.
+ */
+public final class ChunkKeys {
+
+    /**
+     * Folia groups chunks into square sections of {@code 2^4 = 16} chunks by
+     * default. A region always owns every chunk of a section, so chunks in the
+     * same section can always be handled by the same region task.
+     */
+    public static final int REGION_SECTION_SHIFT = 4;
+
+    private ChunkKeys() {
+        throw new UnsupportedOperationException("This class cannot be instantiated");
+    }
+
+    /**
+     * Packs the chunk coordinates into a single key.
+     *
+     * @param chunkX The x-coordinate of the chunk.
+     * @param chunkZ The z-coordinate of the chunk.
+     * @return The packed key.
+     */
+    public static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Packs the coordinates of the chunk into a single key.
+     *
+     * @param chunk The chunk to pack.
+     * @return The packed key.
+     */
+    public static long pack(@NotNull Chunk chunk) {
+        return pack(chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Packs the coordinates of the chunk containing the location into a
+     * single key.
+     *
+     * @param location The location to pack.
+     * @return The packed key.
+     */
+    public static long pack(@NotNull Location location) {
+        return pack(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Returns the x-coordinate of the chunk.
+     *
+     * @param key The packed key.
+     * @return The x-coordinate of the chunk.
+     */
+    public static int x(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Returns the z-coordinate of the chunk.
+     *
+     * @param key The packed key.
+     * @return The z-coordinate of the chunk.
+     */
+    public static int z(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Returns the packed key of the region section containing the chunk. See
+     * {@link #REGION_SECTION_SHIFT}.
+     *
+     * @param key The packed key of the chunk.
+     * @return The packed key of the region section.
+     */
+    public static long section(long key) {
+        return pack(x(key) >> REGION_SECTION_SHIFT, z(key) >> REGION_SECTION_SHIFT);
+    }
+}
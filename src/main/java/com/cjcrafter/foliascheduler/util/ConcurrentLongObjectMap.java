@@ -0,0 +1,256 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+
+/**
+ * A thread-safe {@link LongObjectMap}. Keys are split into segments, each
+ * with its own lock, so threads working on different keys rarely contend.
+ * Reads are optimistic: they do not lock unless a write to the same segment
+ * happens at the same time.
+ *
+ * <p>Null values are not allowed.
+ *
+ * @param <V> The type of the values.
+ */
+public class ConcurrentLongObjectMap<V> {
+
+    private final @NotNull Segment<V>[] segments;
+    private final int segmentShift;
+
+    public ConcurrentLongObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Creates a map with the given number of segments, rounded up to a power
+     * of 2. More segments mean less contention between writers.
+     *
+     * @param concurrencyLevel The number of segments.
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongObjectMap(int concurrencyLevel) {
+        int count = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++)
+            segments[i] = new Segment<>();
+
+        // Use the high bits of the hash for the segment, since each segment
+        // uses the low bits for its own table
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    private @NotNull Segment<V> segment(long key) {
+        return segments.length == 1 ? segments[0] : segments[LongObjectMap.hash(key) >>> segmentShift];
+    }
+
+    /**
+     * Returns the value for the key, or null if there is no value.
+     *
+     * @param key The key.
+     * @return The value, or null.
+     */
+    public @Nullable V get(long key) {
+        Segment<V> segment = segment(key);
+        StampedLock lock = segment.lock;
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            V value = segment.map.get(key);
+            if (lock.validate(stamp))
+                return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns true if this map has a value for the key.
+     *
+     * @param key The key.
+     * @return true if there is a value for the key.
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Sets the value for the key.
+     *
+     * @param key The key.
+     * @param value The new value.
+     * @return The previous value, or null.
+     */
+    public @Nullable V put(long key, @NotNull V value) {
+        Segment<V> segment = segment(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the value for the key, creating it if there is no value. The
+     * function is called at most once per key, while the key's segment is
+     * locked, so it should be fast.
+     *
+     * @param key The key.
+     * @param function Creates the value if there is no value.
+     * @return The current value.
+     */
+    public @NotNull V computeIfAbsent(long key, @NotNull LongFunction<? extends V> function) {
+        V value = get(key);
+        if (value != null)
+            return value;
+
+        Segment<V> segment = segment(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.computeIfAbsent(key, function);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the value for the key.
+     *
+     * @param key The key.
+     * @return The removed value, or null.
+     */
+    public @Nullable V remove(long key) {
+        Segment<V> segment = segment(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            return segment.map.remove(key);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the value for the key, only if it is currently mapped to the
+     * given value.
+     *
+     * @param key The key.
+     * @param value The expected value.
+     * @return true if the value was removed.
+     */
+    public boolean remove(long key, @NotNull V value) {
+        Segment<V> segment = segment(key);
+        long stamp = segment.lock.writeLock();
+        try {
+            if (segment.map.get(key) != value)
+                return false;
+            segment.map.remove(key);
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of entries in this map. The result may be out of
+     * date if the map is modified at the same time.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns true if this map has no entries.
+     *
+     * @return true if this map is empty.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes every entry of this map.
+     */
+    public void clear() {
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Returns every key of this map, in no particular order. Each segment is
+     * copied separately, so keys added or removed at the same time may or may
+     * not be included.
+     *
+     * @return A new array of keys.
+     */
+    public long @NotNull [] keys() {
+        long[][] parts = new long[segments.length][];
+        int size = 0;
+        for (int i = 0; i < segments.length; i++) {
+            Segment<V> segment = segments[i];
+            long stamp = segment.lock.readLock();
+            try {
+                parts[i] = segment.map.keys();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+            size += parts[i].length;
+        }
+
+        long[] result = new long[size];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+
+    /**
+     * Calls the consumer for every entry of this map, one segment at a time.
+     * Each segment is read-locked while its entries are visited, so the
+     * consumer must not modify this map.
+     *
+     * @param consumer The consumer to call.
+     */
+    public void forEach(@NotNull LongObjectMap.EntryConsumer<? super V> consumer) {
+        for (Segment<V> segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                segment.map.forEach(consumer);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    private static final class Segment<V> {
+        private final @NotNull StampedLock lock = new StampedLock();
+        private final @NotNull LongObjectMap<V> map = new LongObjectMap<>();
+    }
+}
@@ -0,0 +1,87 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Holds one {@link RateLimiter} per key, like one per player. Limiters are
+ * created on first use. Looking up an existing limiter does not lock, so
+ * players in different regions never contend with each other.
+ *
+ * <pre>{@code
+ * KeyedRateLimiter<UUID> commands = new KeyedRateLimiter<>(uuid -> new TokenBucket(clock, 3, 1, 20));
+ * if (!commands.tryAcquire(player.getUniqueId()))
+ *     player.sendMessage("Slow down!");
+ *
+ * // In PlayerQuitEvent
+ * commands.remove(player.getUniqueId());
+ * }</pre>
+ *
+ * @param <K> The key type.
+ */
+public class KeyedRateLimiter<K> {
+
+    private final @NotNull Function<? super K, ? extends RateLimiter> factory;
+    private final @NotNull ConcurrentMap<K, RateLimiter> limiters;
+
+    public KeyedRateLimiter(@NotNull Function<? super K, ? extends RateLimiter> factory) {
+        this.factory = factory;
+        this.limiters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the limiter for the key, creating it if it does not exist.
+     *
+     * @param key The key.
+     * @return The limiter for the key.
+     */
+    public @NotNull RateLimiter get(@NotNull K key) {
+        // get() first, since computeIfAbsent may lock even when the key exists
+        RateLimiter limiter = limiters.get(key);
+        return limiter != null ? limiter : limiters.computeIfAbsent(key, factory);
+    }
+
+    /**
+     * Tries to take a single permit from the key's limiter.
+     *
+     * @param key The key.
+     * @return true if the action is allowed.
+     */
+    public boolean tryAcquire(@NotNull K key) {
+        return get(key).tryAcquire(1);
+    }
+
+    /**
+     * Tries to take the given number of permits from the key's limiter.
+     *
+     * @param key The key.
+     * @param permits The number of permits to take.
+     * @return true if the action is allowed.
+     */
+    public boolean tryAcquire(@NotNull K key, int permits) {
+        return get(key).tryAcquire(permits);
+    }
+
+    /**
+     * Removes the key's limiter. This should be called when the key is no
+     * longer used (like when a player leaves), so the map does not grow
+     * forever.
+     *
+     * @param key The key.
+     */
+    public void remove(@NotNull K key) {
+        limiters.remove(key);
+    }
+
+    /**
+     * Returns the number of limiters in this map.
+     *
+     * @return The number of limiters.
+     */
+    public int size() {
+        return limiters.size();
+    }
+}
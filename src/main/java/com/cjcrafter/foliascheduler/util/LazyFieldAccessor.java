@@ -0,0 +1,90 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link FieldAccessor} that is looked up the first time it is used.
+ *
+ * <pre>{@code
+ * private static final LazyFieldAccessor PING = LazyFieldAccessor.of("net.minecraft.server.level.EntityPlayer", "ping");
+ *
+ * int ping = PING.get().getInt(handle);
+ * }</pre>
+ *
+ * @see LazyHandle
+ */
+public final class LazyFieldAccessor extends LazyHandle<FieldAccessor> {
+
+    /**
+     * Creates a lazy handle that runs the given lookup on first use.
+     *
+     * @param lookup The lookup, usually a call to {@link ReflectionUtil}.
+     */
+    public LazyFieldAccessor(@NotNull Supplier<? extends FieldAccessor> lookup) {
+        super(lookup);
+    }
+
+    /**
+     * Returns a lazy {@link ReflectionUtil#getField(Class, String)}.
+     *
+     * @param clazz The class that owns the field.
+     * @param fieldName The <b>Spigot mapped</b> name of the field.
+     * @return The lazy handle.
+     */
+    public static @NotNull LazyFieldAccessor of(@NotNull Class<?> clazz, @NotNull String fieldName) {
+        return new LazyFieldAccessor(() -> ReflectionUtil.getField(clazz, fieldName));
+    }
+
+    /**
+     * Returns a lazy {@link ReflectionUtil#getField(Class, String)}, where
+     * the class is also looked up on first use.
+     *
+     * @param className The fully qualified name of the class that owns the field.
+     * @param fieldName The <b>Spigot mapped</b> name of the field.
+     * @return The lazy handle.
+     * @see ReflectionUtil#getClass(String)
+     */
+    public static @NotNull LazyFieldAccessor of(@NotNull String className, @NotNull String fieldName) {
+        return new LazyFieldAccessor(() -> ReflectionUtil.getField(ReflectionUtil.getClass(className), fieldName));
+    }
+
+    /**
+     * Returns a lazy {@link ReflectionUtil#getField(Class, Class, int, Predicate)}.
+     *
+     * @param clazz The class that owns the field.
+     * @param fieldType The type of the field.
+     * @param index The index of the field among the matching fields.
+     * @param predicate A predicate to filter the fields, or null.
+     * @return The lazy handle.
+     */
+    public static @NotNull LazyFieldAccessor of(@NotNull Class<?> clazz, @NotNull Class<?> fieldType, int index, @Nullable Predicate<? super Field> predicate) {
+        return new LazyFieldAccessor(() -> ReflectionUtil.getField(clazz, fieldType, index, predicate));
+    }
+
+    /**
+     * Shorthand for {@code get().get(obj)}.
+     *
+     * @param obj The object to get the value from, or null for static fields.
+     * @return The value of the field.
+     * @see FieldAccessor#get(Object)
+     */
+    public @Nullable Object get(@Nullable Object obj) {
+        return get().get(obj);
+    }
+
+    /**
+     * Shorthand for {@code get().set(obj, value)}.
+     *
+     * @param obj The object to set the value on, or null for static fields.
+     * @param value The new value of the field.
+     * @see FieldAccessor#set(Object, Object)
+     */
+    public void set(@Nullable Object obj, @Nullable Object value) {
+        get().set(obj, value);
+    }
+}
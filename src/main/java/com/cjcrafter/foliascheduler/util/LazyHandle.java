@@ -0,0 +1,66 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * A reflection handle that is looked up the first time it is used, instead of
+ * when it is declared. This lets plugins declare every handle as a
+ * {@code static final} field without slowing down startup for handles that
+ * are only used in rare code paths.
+ *
+ * <p>The lookup runs at most once, even if many threads use the handle at the
+ * same time. If the lookup throws, the exception is thrown to the caller, and
+ * the next call tries again.
+ *
+ * <p>After the lookup, {@link #get()} is a plain field read. This is safe
+ * without {@code volatile} since {@link FieldAccessor} and
+ * {@link MethodInvoker} only have {@code final} fields, so a thread that
+ * sees the handle also sees it fully constructed. A thread that sees
+ * {@code null} takes the lock and checks again.
+ *
+ * @param <T> The type of the handle.
+ */
+public abstract class LazyHandle<T> implements Supplier<T> {
+
+    private @Nullable Supplier<? extends T> lookup;
+    private @Nullable T handle;
+
+    LazyHandle(@NotNull Supplier<? extends T> lookup) {
+        this.lookup = lookup;
+    }
+
+    /**
+     * Returns the handle, looking it up if this is the first call.
+     *
+     * @return The handle.
+     * @throws WrappedReflectiveOperationException If the lookup fails.
+     * @throws IllegalArgumentException If no member matches the lookup.
+     */
+    @Override
+    public final @NotNull T get() {
+        T handle = this.handle;
+        return handle != null ? handle : resolve();
+    }
+
+    /**
+     * Returns true if the handle was already looked up.
+     *
+     * @return true if {@link #get()} will not run the lookup.
+     */
+    public final boolean isResolved() {
+        return handle != null;
+    }
+
+    private synchronized @NotNull T resolve() {
+        T handle = this.handle;
+        if (handle == null) {
+            handle = lookup.get();
+            this.handle = handle;
+            lookup = null;
+        }
+        return handle;
+    }
+}
@@ -0,0 +1,83 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MethodInvoker} that is looked up the first time it is used.
+ *
+ * <pre>{@code
+ * private static final LazyMethodInvoker GET_HANDLE = LazyMethodInvoker.of("org.bukkit.craftbukkit.entity.CraftEntity", "getHandle");
+ *
+ * Object handle = GET_HANDLE.invoke(entity);
+ * }</pre>
+ *
+ * @see LazyHandle
+ */
+public final class LazyMethodInvoker extends LazyHandle<MethodInvoker> {
+
+    /**
+     * Creates a lazy handle that runs the given lookup on first use.
+     *
+     * @param lookup The lookup, usually a call to {@link ReflectionUtil}.
+     */
+    public LazyMethodInvoker(@NotNull Supplier<? extends MethodInvoker> lookup) {
+        super(lookup);
+    }
+
+    /**
+     * Returns a lazy {@link ReflectionUtil#getMethod(Class, String, Class...)}.
+     *
+     * @param clazz The class that owns the method.
+     * @param methodName The <b>Spigot mapped</b> name of the method.
+     * @param parameterTypes The parameter types of the method.
+     * @return The lazy handle.
+     */
+    public static @NotNull LazyMethodInvoker of(@NotNull Class<?> clazz, @NotNull String methodName, Class<?>... parameterTypes) {
+        return new LazyMethodInvoker(() -> ReflectionUtil.getMethod(clazz, methodName, parameterTypes));
+    }
+
+    /**
+     * Returns a lazy {@link ReflectionUtil#getMethod(Class, String, Class...)},
+     * where the class is also looked up on first use.
+     *
+     * @param className The fully qualified name of the class that owns the method.
+     * @param methodName The <b>Spigot mapped</b> name of the method.
+     * @param parameterTypes The parameter types of the method.
+     * @return The lazy handle.
+     * @see ReflectionUtil#getClass(String)
+     */
+    public static @NotNull LazyMethodInvoker of(@NotNull String className, @NotNull String methodName, Class<?>... parameterTypes) {
+        return new LazyMethodInvoker(() -> ReflectionUtil.getMethod(ReflectionUtil.getClass(className), methodName, parameterTypes));
+    }
+
+    /**
+     * Returns a lazy {@link ReflectionUtil#getMethod(Class, Class, int, Predicate, Class...)}.
+     *
+     * @param clazz The class that owns the method.
+     * @param returnType The return type of the method.
+     * @param index The index of the method among the matching methods.
+     * @param predicate A predicate to filter the methods, or null.
+     * @param parameterTypes The parameter types of the method.
+     * @return The lazy handle.
+     */
+    public static @NotNull LazyMethodInvoker of(@NotNull Class<?> clazz, @NotNull Class<?> returnType, int index, @Nullable Predicate<? super Method> predicate, Class<?>... parameterTypes) {
+        return new LazyMethodInvoker(() -> ReflectionUtil.getMethod(clazz, returnType, index, predicate, parameterTypes));
+    }
+
+    /**
+     * Shorthand for {@code get().invoke(obj, args)}.
+     *
+     * @param obj The object to invoke the method on, or null for static methods.
+     * @param args The arguments of the method.
+     * @return The value returned by the method.
+     * @see MethodInvoker#invoke(Object, Object...)
+     */
+    public @Nullable Object invoke(@Nullable Object obj, Object... args) {
+        return get().invoke(obj, args);
+    }
+}
@@ -0,0 +1,273 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * A hash map with primitive {@code long} keys, designed for packed chunk keys
+ * (see {@link ChunkKeys}). Unlike a {@code HashMap<Long, V>}, looking up or
+ * adding a key never allocates, since keys are not boxed and there are no
+ * entry objects.
+ *
+ * <p>The map uses open addressing with linear probing, and removes entries
+ * by shifting the following entries back, so there are no tombstones. Null
+ * values are not allowed.
+ *
+ * <p>This class is not thread-safe. See {@link ConcurrentLongObjectMap}.
+ *
+ * @param <V> The type of the values.
+ */
+public class LongObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    // An empty slot is marked by a null value
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    public LongObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates a map that can hold {@code expectedSize} entries without
+     * resizing.
+     *
+     * @param expectedSize The expected number of entries.
+     */
+    public LongObjectMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(MIN_CAPACITY, expectedSize * 2));
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * Spreads the bits of the key, so keys that only differ in their high bits
+     * (like chunks with the same x-coordinate) do not collide.
+     *
+     * @param key The key to hash.
+     * @return The hash of the key.
+     */
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        return Math.max(MIN_CAPACITY, n);
+    }
+
+    /**
+     * Returns the number of entries in this map.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this map has no entries.
+     *
+     * @return true if this map is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value for the key, or null if there is no value.
+     *
+     * @param key The key.
+     * @return The value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(long key) {
+        // Read the arrays once, so a concurrent resize can't cause an
+        // exception during an optimistic read (see ConcurrentLongObjectMap)
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = Math.min(keys.length, values.length) - 1;
+
+        int index = hash(key) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            Object value = values[index];
+            if (value == null)
+                return null;
+            if (keys[index] == key)
+                return (V) value;
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if this map has a value for the key.
+     *
+     * @param key The key.
+     * @return true if there is a value for the key.
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Sets the value for the key.
+     *
+     * @param key The key.
+     * @param value The new value.
+     * @return The previous value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V put(long key, @NotNull V value) {
+        if (value == null)
+            throw new NullPointerException("value cannot be null");
+
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length)
+            resize(keys.length * 2);
+        return null;
+    }
+
+    /**
+     * Returns the value for the key, creating it if there is no value.
+     *
+     * @param key The key.
+     * @param function Creates the value if there is no value.
+     * @return The current value.
+     */
+    public @NotNull V computeIfAbsent(long key, @NotNull LongFunction<? extends V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the value for the key.
+     *
+     * @param key The key.
+     * @return The removed value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V remove(long key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                V removed = (V) values[index];
+                shiftBack(index, mask);
+                size--;
+                return removed;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private void shiftBack(int gap, int mask) {
+        int index = (gap + 1) & mask;
+        while (values[index] != null) {
+            int ideal = hash(keys[index]) & mask;
+
+            // Move the entry into the gap, unless its ideal slot is between
+            // the gap and its current slot
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+            index = (index + 1) & mask;
+        }
+        values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        long[] newKeys = new long[capacity];
+        Object[] newValues = new Object[capacity];
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null)
+                continue;
+
+            int index = hash(oldKeys[i]) & mask;
+            while (newValues[index] != null)
+                index = (index + 1) & mask;
+            newKeys[index] = oldKeys[i];
+            newValues[index] = oldValues[i];
+        }
+
+        keys = newKeys;
+        values = newValues;
+    }
+
+    /**
+     * Removes every entry of this map.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Returns every key of this map, in no particular order.
+     *
+     * @return A new array of keys.
+     */
+    public long @NotNull [] keys() {
+        long[] result = new long[size];
+        int i = 0;
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null)
+                result[i++] = keys[slot];
+        }
+        return result;
+    }
+
+    /**
+     * Calls the consumer for every entry of this map, in no particular order.
+     * The map must not be modified by the consumer.
+     *
+     * @param consumer The consumer to call.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(@NotNull EntryConsumer<? super V> consumer) {
+        for (int slot = 0; slot < values.length; slot++) {
+            Object value = values[slot];
+            if (value != null)
+                consumer.accept(keys[slot], (V) value);
+        }
+    }
+
+    /**
+     * Accepts an entry of a {@link LongObjectMap}, without boxing the key.
+     *
+     * @param <V> The type of the values.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+}
@@ -40,8 +40,18 @@ public final class MinecraftVersions {
 
     private static final @NotNull Map<String, Update> allUpdates = new LinkedHashMap<>();
     private static final @NotNull Map<String, Version> allVersions = new LinkedHashMap<>();
+    private static final @NotNull Pattern VERSION_PATTERN = Pattern.compile("(\\d+)\\.(\\d+)(?:\\.(\\d+))?(?!\\.\\d)");
     private static @Nullable Version CURRENT = null;
 
+    // The current version packed by #pack, so version checks are one int
+    // comparison. -1 until the current version is parsed.
+    private static int CURRENT_ORDINAL = -1;
+
+    // Bits for each component of a packed version: 11 for major, 10 for minor, 10 for patch
+    private static final int COMPONENT_BITS = 10;
+    private static final int COMPONENT_MASK = (1 << COMPONENT_BITS) - 1;
+    private static final int MAJOR_MASK = (1 << (31 - 2 * COMPONENT_BITS)) - 1;
+
     private MinecraftVersions() {
         // Prevent instantiation
     }
@@ -96,6 +106,39 @@ public final class MinecraftVersions {
         return CURRENT;
     }
 
+    /**
+     * Returns the current version packed by {@link #pack(int, int, int)}.
+     *
+     * @return The packed current version.
+     */
+    static int getCurrentOrdinal() {
+        int ordinal = CURRENT_ORDINAL;
+        if (ordinal == -1) {
+            ordinal = getCurrent().ordinal;
+            CURRENT_ORDINAL = ordinal;
+        }
+        return ordinal;
+    }
+
+    /**
+     * Packs a version into a non-negative int that sorts the same way as the
+     * version. Components that are too large to fit are clamped.
+     *
+     * @param major The major version.
+     * @param minor The minor version.
+     * @param patch The patch version.
+     * @return The packed version.
+     */
+    static int pack(int major, int minor, int patch) {
+        return (clamp(major, MAJOR_MASK) << (2 * COMPONENT_BITS))
+            | (clamp(minor, COMPONENT_MASK) << COMPONENT_BITS)
+            | clamp(patch, COMPONENT_MASK);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
     /**
      * Used internally to parse a version from a string.
      * <p>
@@ -107,8 +150,7 @@ public final class MinecraftVersions {
      * @return The parsed version.
      */
     static @NotNull Version parseCurrentVersion(@NotNull String versionString) {
-        Pattern pattern = Pattern.compile("(\\d+)\\.(\\d+)(?:\\.(\\d+))?(?!\\.\\d)");
-        Matcher matcher = pattern.matcher(versionString);
+        Matcher matcher = VERSION_PATTERN.matcher(versionString);
 
         if (!matcher.find())
             throw new IllegalArgumentException("Could not find any version in: " + versionString);
@@ -253,12 +295,14 @@ public final class MinecraftVersions {
     public static class Update implements Comparable<Update> {
         private final int major;
         private final int minor;
+        private final int ordinal;
         private final List<Version> versions = new ArrayList<>();
         private boolean lock = false;
 
         public Update(int major, int minor, @NotNull List<Version> versions) {
             this.major = major;
             this.minor = minor;
+            this.ordinal = pack(major, minor, 0);
             this.versions.addAll(versions);
             lock = true;
         }
@@ -275,6 +319,7 @@ public final class MinecraftVersions {
         public Update(int major, int minor, @NotNull Consumer<Update> init) {
             this.major = major;
             this.minor = minor;
+            this.ordinal = pack(major, minor, 0);
             init.accept(this);
             lock = true;
         }
@@ -333,7 +378,7 @@ public final class MinecraftVersions {
          * @return true if the server update is newer than this update.
          */
         public boolean isAbove() {
-            return getCurrent().getUpdate().compareTo(this) > 0;
+            return currentUpdateOrdinal() > ordinal;
         }
 
         /**
@@ -342,7 +387,7 @@ public final class MinecraftVersions {
          * @return true if the server update is at least this update.
          */
         public boolean isAtLeast() {
-            return getCurrent().getUpdate().compareTo(this) >= 0;
+            return currentUpdateOrdinal() >= ordinal;
         }
 
         /**
@@ -351,7 +396,7 @@ public final class MinecraftVersions {
          * @return true if the server update is older than this update.
          */
         public boolean isBelow() {
-            return getCurrent().getUpdate().compareTo(this) < 0;
+            return currentUpdateOrdinal() < ordinal;
         }
 
         /**
@@ -360,7 +405,7 @@ public final class MinecraftVersions {
          * @return true if the server update is at most this update.
          */
         public boolean isAtMost() {
-            return getCurrent().getUpdate().compareTo(this) <= 0;
+            return currentUpdateOrdinal() <= ordinal;
         }
 
         /**
@@ -378,6 +423,11 @@ public final class MinecraftVersions {
             }
         }
 
+        private static int currentUpdateOrdinal() {
+            // Drop the patch, so every version of the update is equal
+            return getCurrentOrdinal() & ~COMPONENT_MASK;
+        }
+
         @Override
         public int compareTo(@NotNull Update other) {
             int majorCompare = Integer.compare(major, other.major);
@@ -417,6 +467,7 @@ public final class MinecraftVersions {
         private final int minor;
         private final int patch;
         private final int protocol;
+        private final int ordinal;
 
         /**
          * Creates a new Version instance.
@@ -431,6 +482,7 @@ public final class MinecraftVersions {
             this.minor = minor;
             this.patch = patch;
             this.protocol = protocol;
+            this.ordinal = pack(major, minor, patch);
 
             // Create a "fake" update to hold this version, so comparisons can
             // be made between updates. This is not added to the allUpdates map.
@@ -450,6 +502,7 @@ public final class MinecraftVersions {
             this.minor = update.minor;
             this.patch = patch;
             this.protocol = protocol;
+            this.ordinal = pack(major, minor, patch);
         }
 
         /**
@@ -531,7 +584,7 @@ public final class MinecraftVersions {
          * @return true if the server version is newer than this version.
          */
         public boolean isAbove() {
-            return getCurrent().compareTo(this) > 0;
+            return getCurrentOrdinal() > ordinal;
         }
 
         /**
@@ -540,7 +593,7 @@ public final class MinecraftVersions {
          * @return true if the server version is at least this version.
          */
         public boolean isAtLeast() {
-            return getCurrent().compareTo(this) >= 0;
+            return getCurrentOrdinal() >= ordinal;
         }
 
         /**
@@ -549,7 +602,7 @@ public final class MinecraftVersions {
          * @return true if the server version is older than this version.
          */
         public boolean isBelow() {
-            return getCurrent().compareTo(this) < 0;
+            return getCurrentOrdinal() < ordinal;
         }
 
         /**
@@ -558,7 +611,7 @@ public final class MinecraftVersions {
          * @return true if the server version is at most this version.
          */
         public boolean isAtMost() {
-            return getCurrent().compareTo(this) <= 0;
+            return getCurrentOrdinal() <= ordinal;
         }
 
         /**
@@ -0,0 +1,32 @@
+package com.cjcrafter.foliascheduler.util;
+
+/**
+ * Limits how often an action may happen. Every implementation in this
+ * package is lock-free, so a limiter can be checked from any region thread
+ * without contention.
+ *
+ * @see TokenBucket
+ * @see SlidingWindowLimiter
+ * @see KeyedRateLimiter
+ */
+public interface RateLimiter {
+
+    /**
+     * Tries to take a single permit.
+     *
+     * @return true if the action is allowed.
+     */
+    default boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Tries to take the given number of permits. Either every permit is
+     * taken, or none are.
+     *
+     * @param permits The number of permits to take.
+     * @return true if the action is allowed.
+     * @throws IllegalArgumentException If {@code permits} is less than 1.
+     */
+    boolean tryAcquire(int permits);
+}
@@ -0,0 +1,694 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * Declares many classes, fields, methods and constructors up front, then
+ * resolves them all in one pass with {@link #resolve()}. This is a faster
+ * alternative to calling {@link ReflectionUtil} for each member during
+ * startup, for plugins that use a lot of NMS.
+ *
+ * <pre>{@code
+ * ReflectionBundle bundle = new ReflectionBundle(plugin);
+ * ReflectionBundle.ClassRef<?> serverPlayer = bundle.minecraftClass("server.level", "EntityPlayer");
+ * ReflectionBundle.ClassRef<?> connection = bundle.minecraftClass("server.network", "PlayerConnection");
+ * ReflectionBundle.FieldRef connectionField = bundle.field(serverPlayer, connection, 0, null);
+ * bundle.resolve();
+ *
+ * FieldAccessor accessor = connectionField.get();
+ * }</pre>
+ *
+ * <p>The resolved names of every class and member are saved in a small file,
+ * along with the server version (which includes the brand and build) and the
+ * plugin version. On later startups with the same versions, each class and
+ * member is loaded directly by its saved name, which skips the remapping.
+ * Saved names are checked before they are used, including the position of
+ * members that were declared by index, and anything that no longer matches
+ * is looked up again.
+ *
+ * <p>Classes are loaded in parallel without being initialized, so static
+ * initializers cannot deadlock. Then members are resolved in parallel.
+ * Failures are stored instead of thrown, so optional members (that only exist
+ * on some versions) can be checked with {@link Ref#isPresent()}.
+ */
+public final class ReflectionBundle {
+
+    private static final int FORMAT = 1;
+    private static final String FORMAT_KEY = "format";
+    private static final String SERVER_KEY = "server";
+
+    private final @NotNull File cacheFile;
+    private final @Nullable String serverKey;
+    private final @Nullable String pluginVersion;
+    private final @NotNull List<ClassRef<?>> classes;
+    private final @NotNull List<Ref<?>> members;
+    private final @NotNull Map<String, Integer> keyCounts;
+    private volatile boolean resolved;
+
+    /**
+     * Creates a bundle that saves its cache in the plugin's data folder, as
+     * {@code reflection-cache.properties}. A plugin with more than 1 bundle
+     * should give each a name with {@link #ReflectionBundle(Plugin, String)},
+     * or they overwrite each other's cache.
+     *
+     * @param plugin The plugin that owns the bundle.
+     */
+    public ReflectionBundle(@NotNull Plugin plugin) {
+        this(new File(plugin.getDataFolder(), "reflection-cache.properties"), null, plugin.getDescription().getVersion());
+    }
+
+    /**
+     * Creates a bundle that saves its cache in the plugin's data folder, as
+     * {@code reflection-cache-<name>.properties}, so each bundle of a plugin
+     * keeps its own cache.
+     *
+     * @param plugin The plugin that owns the bundle.
+     * @param name The name of the bundle, like "packets". Only letters, digits, '-' and '_' are allowed.
+     * @throws IllegalArgumentException If the name is empty or has other characters.
+     */
+    public ReflectionBundle(@NotNull Plugin plugin, @NotNull String name) {
+        this(new File(plugin.getDataFolder(), "reflection-cache-" + checkName(name) + ".properties"), null, plugin.getDescription().getVersion());
+    }
+
+    /**
+     * Creates a bundle that saves its cache in the given file.
+     *
+     * @param cacheFile The file to save the cache in.
+     */
+    public ReflectionBundle(@NotNull File cacheFile) {
+        this(cacheFile, null);
+    }
+
+    ReflectionBundle(@NotNull File cacheFile, @Nullable String serverKey) {
+        this(cacheFile, serverKey, null);
+    }
+
+    private ReflectionBundle(@NotNull File cacheFile, @Nullable String serverKey, @Nullable String pluginVersion) {
+        this.cacheFile = cacheFile;
+        this.serverKey = serverKey;
+        this.pluginVersion = pluginVersion;
+        this.classes = new ArrayList<>();
+        this.members = new ArrayList<>();
+        this.keyCounts = new HashMap<>();
+    }
+
+    private static @NotNull String checkName(@NotNull String name) {
+        if (!name.matches("[A-Za-z0-9_-]+"))
+            throw new IllegalArgumentException("Bundle name must only use letters, digits, '-' and '_', got '" + name + "'");
+        return name;
+    }
+
+    // --- Declaring ---
+
+    /**
+     * Declares a class by its fully qualified name.
+     *
+     * @param className The fully qualified name of the class.
+     * @return The reference to the class.
+     * @param <T> The type of the class.
+     * @see ReflectionUtil#getClass(String)
+     */
+    public <T> @NotNull ClassRef<T> type(@NotNull String className) {
+        return addClass(new ClassRef<>(className));
+    }
+
+    /**
+     * Declares a class that is already loaded, so it can be used as the
+     * owner or type of other references.
+     *
+     * @param clazz The class.
+     * @return The reference to the class.
+     * @param <T> The type of the class.
+     */
+    public <T> @NotNull ClassRef<T> type(@NotNull Class<T> clazz) {
+        ClassRef<T> ref = new ClassRef<>(clazz.getName());
+        ref.complete(clazz, null);
+        return ref;
+    }
+
+    /**
+     * Declares a net.minecraft class.
+     *
+     * @param packageName The <b>Spigot mapped</b> package, without "net.minecraft.".
+     * @param className The <b>Spigot mapped</b> class name.
+     * @return The reference to the class.
+     * @param <T> The type of the class.
+     * @see ReflectionUtil#getMinecraftClass(String, String)
+     */
+    public <T> @NotNull ClassRef<T> minecraftClass(@NotNull String packageName, @NotNull String className) {
+        return type(ReflectionUtil.minecraftClassName(packageName, className));
+    }
+
+    /**
+     * Declares an org.bukkit.craftbukkit class.
+     *
+     * @param classPath The path of the class, without "org.bukkit.craftbukkit.".
+     * @return The reference to the class.
+     * @param <T> The type of the class.
+     * @see ReflectionUtil#getCraftBukkitClass(String)
+     */
+    public <T> @NotNull ClassRef<T> craftBukkitClass(@NotNull String classPath) {
+        return type(ReflectionUtil.craftBukkitClassName(classPath));
+    }
+
+    /**
+     * Declares a field by its <b>Spigot mapped</b> name.
+     *
+     * @param owner The class that declares the field.
+     * @param fieldName The name of the field.
+     * @return The reference to the field.
+     * @see ReflectionUtil#getField(Class, String)
+     */
+    public @NotNull FieldRef field(@NotNull ClassRef<?> owner, @NotNull String fieldName) {
+        return addMember(new FieldRef(key("field:" + owner.name + "#" + fieldName), owner, fieldName, null, 0, null));
+    }
+
+    /**
+     * Declares the nth field of a type.
+     *
+     * @param owner The class that has the field.
+     * @param fieldType The type of the field.
+     * @param index The index of the field among the matching fields.
+     * @param predicate A predicate to filter the fields, or null.
+     * @return The reference to the field.
+     * @see ReflectionUtil#getField(Class, Class, int, Predicate)
+     */
+    public @NotNull FieldRef field(@NotNull ClassRef<?> owner, @NotNull Class<?> fieldType, int index, @Nullable Predicate<? super Field> predicate) {
+        return field(owner, type(fieldType), index, predicate);
+    }
+
+    /**
+     * Declares the nth field of a type.
+     *
+     * @param owner The class that has the field.
+     * @param fieldType The type of the field.
+     * @param index The index of the field among the matching fields.
+     * @param predicate A predicate to filter the fields, or null.
+     * @return The reference to the field.
+     * @see ReflectionUtil#getField(Class, Class, int, Predicate)
+     */
+    public @NotNull FieldRef field(@NotNull ClassRef<?> owner, @NotNull ClassRef<?> fieldType, int index, @Nullable Predicate<? super Field> predicate) {
+        return addMember(new FieldRef(key("field:" + owner.name + ":" + fieldType.name + ":" + index), owner, null, fieldType, index, predicate));
+    }
+
+    /**
+     * Declares a method by its <b>Spigot mapped</b> name.
+     *
+     * @param owner The class that declares the method.
+     * @param methodName The name of the method.
+     * @param parameterTypes The parameter types, as {@link Class} or {@link ClassRef}.
+     * @return The reference to the method.
+     * @see ReflectionUtil#getMethod(Class, String, Class...)
+     */
+    public @NotNull MethodRef method(@NotNull ClassRef<?> owner, @NotNull String methodName, Object @NotNull ... parameterTypes) {
+        ClassRef<?>[] parameters = toRefs(parameterTypes);
+        return addMember(new MethodRef(key("method:" + owner.name + "#" + methodName + describe(parameters)), owner, methodName, null, 0, null, parameters));
+    }
+
+    /**
+     * Declares the nth method with a return type.
+     *
+     * @param owner The class that has the method.
+     * @param returnType The return type, as {@link Class} or {@link ClassRef}.
+     * @param index The index of the method among the matching methods.
+     * @param predicate A predicate to filter the methods, or null.
+     * @param parameterTypes The parameter types, as {@link Class} or {@link ClassRef}.
+     * @return The reference to the method.
+     * @see ReflectionUtil#getMethod(Class, Class, int, Predicate, Class...)
+     */
+    public @NotNull MethodRef method(@NotNull ClassRef<?> owner, @NotNull Object returnType, int index, @Nullable Predicate<? super Method> predicate, Object @NotNull ... parameterTypes) {
+        ClassRef<?> returnRef = toRef(returnType);
+        ClassRef<?>[] parameters = toRefs(parameterTypes);
+        return addMember(new MethodRef(key("method:" + owner.name + ":" + returnRef.name + ":" + index + describe(parameters)), owner, null, returnRef, index, predicate, parameters));
+    }
+
+    /**
+     * Declares a constructor.
+     *
+     * @param owner The class that declares the constructor.
+     * @param parameterTypes The parameter types, as {@link Class} or {@link ClassRef}.
+     * @return The reference to the constructor.
+     * @param <T> The type of the class.
+     * @see ReflectionUtil#getConstructor(Class, Class...)
+     */
+    public <T> @NotNull ConstructorRef<T> constructor(@NotNull ClassRef<T> owner, Object @NotNull ... parameterTypes) {
+        return addMember(new ConstructorRef<>(owner, toRefs(parameterTypes)));
+    }
+
+    private synchronized <T> @NotNull ClassRef<T> addClass(@NotNull ClassRef<T> ref) {
+        checkNotResolved();
+        classes.add(ref);
+        return ref;
+    }
+
+    private synchronized <R extends Ref<?>> @NotNull R addMember(@NotNull R ref) {
+        checkNotResolved();
+        members.add(ref);
+        return ref;
+    }
+
+    private void checkNotResolved() {
+        if (resolved)
+            throw new IllegalStateException("Cannot declare references after the bundle was resolved");
+    }
+
+    private synchronized @NotNull String key(@NotNull String base) {
+        // References that only differ by predicate get the same base key, so
+        // the declaration order tells them apart
+        int count = keyCounts.merge(base, 1, Integer::sum);
+        return count == 1 ? base : base + "#" + count;
+    }
+
+    private @NotNull ClassRef<?> toRef(@NotNull Object type) {
+        if (type instanceof ClassRef)
+            return (ClassRef<?>) type;
+        if (type instanceof Class)
+            return type((Class<?>) type);
+        throw new IllegalArgumentException("Expected a Class or ClassRef, got " + type.getClass().getName());
+    }
+
+    private @NotNull ClassRef<?> @NotNull [] toRefs(Object @NotNull [] types) {
+        ClassRef<?>[] refs = new ClassRef<?>[types.length];
+        for (int i = 0; i < types.length; i++)
+            refs[i] = toRef(types[i]);
+        return refs;
+    }
+
+    private static @NotNull String describe(@NotNull ClassRef<?> @NotNull [] parameters) {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < parameters.length; i++) {
+            if (i != 0)
+                builder.append(',');
+            builder.append(parameters[i].name);
+        }
+        return builder.append(')').toString();
+    }
+
+    // --- Resolving ---
+
+    /**
+     * Resolves every declared reference. References that cannot be resolved
+     * throw their failure from {@link Ref#get()}. This method may only be
+     * called once.
+     */
+    public synchronized void resolve() {
+        checkNotResolved();
+        resolved = true;
+
+        // Bukkit#getVersion includes the brand, the build and the Minecraft
+        // version, and a plugin update may declare different members
+        String server = serverKey != null ? serverKey : Bukkit.getVersion() + "/" + pluginVersion;
+        Map<String, String> cache = load(server);
+        ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+        // Classes first, since members need their owners. Classes are not
+        // initialized, so loading them in parallel cannot deadlock.
+        classes.parallelStream().forEach(ref -> ref.resolve(cache, names));
+        members.parallelStream().forEach(ref -> ref.resolve(cache, names));
+
+        if (!names.equals(cache))
+            save(server, names);
+    }
+
+    private @NotNull Map<String, String> load(@NotNull String server) {
+        Map<String, String> cache = new HashMap<>();
+        if (!cacheFile.isFile())
+            return cache;
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(cacheFile.toPath())) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException ex) {
+            // A broken cache is the same as no cache
+            return cache;
+        }
+
+        if (!String.valueOf(FORMAT).equals(properties.getProperty(FORMAT_KEY)) || !server.equals(properties.getProperty(SERVER_KEY)))
+            return cache;
+
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.equals(FORMAT_KEY) && !key.equals(SERVER_KEY))
+                cache.put(key, properties.getProperty(key));
+        }
+        return cache;
+    }
+
+    private void save(@NotNull String server, @NotNull Map<String, String> names) {
+        Properties properties = new Properties();
+        properties.putAll(names);
+        properties.setProperty(FORMAT_KEY, String.valueOf(FORMAT));
+        properties.setProperty(SERVER_KEY, server);
+
+        // Write to a temporary file first, so a crash can't leave half a cache
+        File parent = cacheFile.getAbsoluteFile().getParentFile();
+        File temp = new File(parent, cacheFile.getName() + ".tmp");
+        try {
+            Files.createDirectories(parent.toPath());
+            try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+                properties.store(out, "Resolved reflection names, safe to delete");
+            }
+            Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            // The cache is only an optimization
+            temp.delete();
+        }
+    }
+
+    private static @NotNull Class<?> loadClass(@NotNull String name) throws ClassNotFoundException {
+        switch (name) {
+            case "boolean": return boolean.class;
+            case "byte": return byte.class;
+            case "char": return char.class;
+            case "short": return short.class;
+            case "int": return int.class;
+            case "long": return long.class;
+            case "float": return float.class;
+            case "double": return double.class;
+            case "void": return void.class;
+            default: return Class.forName(name, false, ReflectionBundle.class.getClassLoader());
+        }
+    }
+
+    private static @NotNull Class<?> @NotNull [] getAll(@NotNull ClassRef<?> @NotNull [] refs) {
+        Class<?>[] classes = new Class<?>[refs.length];
+        for (int i = 0; i < refs.length; i++)
+            classes[i] = refs[i].get();
+        return classes;
+    }
+
+    // --- References ---
+
+    /**
+     * A reference to a class or member, which is available after
+     * {@link ReflectionBundle#resolve()}.
+     *
+     * @param <T> The type of the resolved value.
+     */
+    public abstract static class Ref<T> {
+
+        private volatile @Nullable T value;
+        private volatile @Nullable RuntimeException failure;
+        private volatile boolean done;
+
+        Ref() {
+        }
+
+        /**
+         * Returns the resolved value.
+         *
+         * @return The resolved value.
+         * @throws IllegalStateException If the bundle was not resolved yet.
+         * @throws RuntimeException The failure, if this reference could not be resolved.
+         */
+        public @NotNull T get() {
+            if (!done)
+                throw new IllegalStateException("The bundle was not resolved yet");
+            if (failure != null)
+                throw failure;
+            return value;
+        }
+
+        /**
+         * Returns true if this reference was resolved successfully.
+         *
+         * @return true if {@link #get()} will not throw.
+         */
+        public boolean isPresent() {
+            return done && failure == null;
+        }
+
+        final void complete(@Nullable T value, @Nullable RuntimeException failure) {
+            this.value = value;
+            this.failure = failure;
+            this.done = true;
+        }
+
+        final void resolve(@NotNull Map<String, String> cache, @NotNull Map<String, String> names) {
+            try {
+                complete(resolve0(cache, names), null);
+            } catch (RuntimeException ex) {
+                complete(null, ex);
+            }
+        }
+
+        abstract @NotNull T resolve0(@NotNull Map<String, String> cache, @NotNull Map<String, String> names);
+    }
+
+    /**
+     * A reference to a class.
+     *
+     * @param <T> The type of the class.
+     */
+    public static final class ClassRef<T> extends Ref<Class<T>> {
+
+        private final @NotNull String name;
+
+        private ClassRef(@NotNull String name) {
+            this.name = name;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        @NotNull Class<T> resolve0(@NotNull Map<String, String> cache, @NotNull Map<String, String> names) {
+            String key = "class:" + name;
+            String cached = cache.get(key);
+            if (cached != null) {
+                try {
+                    Class<T> clazz = (Class<T>) loadClass(cached);
+                    names.put(key, cached);
+                    return clazz;
+                } catch (ClassNotFoundException ignore) {
+                    // The cache is stale, look it up again
+                }
+            }
+
+            String remapped = ReflectionUtil.remapClassName(name);
+            try {
+                Class<T> clazz = (Class<T>) loadClass(remapped);
+                names.put(key, remapped);
+                return clazz;
+            } catch (ClassNotFoundException ex) {
+                throw new WrappedReflectiveOperationException(ex);
+            }
+        }
+    }
+
+    /**
+     * A reference to a field.
+     */
+    public static final class FieldRef extends Ref<FieldAccessor> {
+
+        private final @NotNull String key;
+        private final @NotNull ClassRef<?> owner;
+        private final @Nullable String fieldName;
+        private final @Nullable ClassRef<?> fieldType;
+        private final int index;
+        private final @Nullable Predicate<? super Field> predicate;
+
+        private FieldRef(@NotNull String key, @NotNull ClassRef<?> owner, @Nullable String fieldName, @Nullable ClassRef<?> fieldType, int index, @Nullable Predicate<? super Field> predicate) {
+            this.key = key;
+            this.owner = owner;
+            this.fieldName = fieldName;
+            this.fieldType = fieldType;
+            this.index = index;
+            this.predicate = predicate;
+        }
+
+        @Override
+        @NotNull FieldAccessor resolve0(@NotNull Map<String, String> cache, @NotNull Map<String, String> names) {
+            Class<?> ownerClass = owner.get();
+            Class<?> type = fieldType == null ? null : fieldType.get();
+
+            // Saved as "declaringClass#fieldName"
+            String cached = cache.get(key);
+            if (cached != null) {
+                int split = cached.lastIndexOf('#');
+                try {
+                    Field field = loadClass(cached.substring(0, split)).getDeclaredField(cached.substring(split + 1));
+                    boolean matches = type == null || position(ownerClass, type, field) == index;
+                    if (matches && field.getDeclaringClass().isAssignableFrom(ownerClass)) {
+                        field.setAccessible(true);
+                        names.put(key, cached);
+                        return new FieldAccessor(field);
+                    }
+                } catch (ReflectiveOperationException | RuntimeException ignore) {
+                    // The cache is stale, look it up again
+                }
+            }
+
+            FieldAccessor accessor = fieldName != null
+                ? ReflectionUtil.getField(ownerClass, fieldName)
+                : ReflectionUtil.getField(ownerClass, type, index, predicate);
+            Field field = accessor.getField();
+            names.put(key, field.getDeclaringClass().getName() + "#" + field.getName());
+            return accessor;
+        }
+
+        /**
+         * Returns the index that {@link ReflectionUtil#getField(Class, Class, int, Predicate)}
+         * would need to find the field, or -1 if it would never find it.
+         */
+        private int position(@NotNull Class<?> ownerClass, @NotNull Class<?> type, @NotNull Field target) {
+            int position = 0;
+            for (Class<?> clazz = ownerClass; clazz != null; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (!type.isAssignableFrom(field.getType()) || (predicate != null && !predicate.test(field)))
+                        continue;
+                    if (field.equals(target))
+                        return position;
+                    position++;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * A reference to a method.
+     */
+    public static final class MethodRef extends Ref<MethodInvoker> {
+
+        private final @NotNull String key;
+        private final @NotNull ClassRef<?> owner;
+        private final @Nullable String methodName;
+        private final @Nullable ClassRef<?> returnType;
+        private final int index;
+        private final @Nullable Predicate<? super Method> predicate;
+        private final @NotNull ClassRef<?> @NotNull [] parameterTypes;
+
+        private MethodRef(@NotNull String key, @NotNull ClassRef<?> owner, @Nullable String methodName, @Nullable ClassRef<?> returnType, int index,
+                          @Nullable Predicate<? super Method> predicate, @NotNull ClassRef<?> @NotNull [] parameterTypes) {
+            this.key = key;
+            this.owner = owner;
+            this.methodName = methodName;
+            this.returnType = returnType;
+            this.index = index;
+            this.predicate = predicate;
+            this.parameterTypes = parameterTypes;
+        }
+
+        @Override
+        @NotNull MethodInvoker resolve0(@NotNull Map<String, String> cache, @NotNull Map<String, String> names) {
+            Class<?> ownerClass = owner.get();
+            Class<?> type = returnType == null ? null : returnType.get();
+            Class<?>[] parameters = getAll(parameterTypes);
+
+            // Saved as "declaringClass#methodName#param1,param2"
+            String cached = cache.get(key);
+            if (cached != null) {
+                try {
+                    String[] parts = cached.split("#", -1);
+                    String[] parameterNames = parts[2].isEmpty() ? new String[0] : parts[2].split(",");
+                    Class<?>[] exact = new Class<?>[parameterNames.length];
+                    for (int i = 0; i < exact.length; i++)
+                        exact[i] = loadClass(parameterNames[i]);
+
+                    Method method = loadClass(parts[0]).getDeclaredMethod(parts[1], exact);
+                    if (matches(method, ownerClass, type, parameters)) {
+                        method.setAccessible(true);
+                        names.put(key, cached);
+                        return new MethodInvoker(method);
+                    }
+                } catch (ReflectiveOperationException | RuntimeException ignore) {
+                    // The cache is stale, look it up again
+                }
+            }
+
+            MethodInvoker invoker = methodName != null
+                ? ReflectionUtil.getMethod(ownerClass, methodName, parameters)
+                : ReflectionUtil.getMethod(ownerClass, type, index, predicate, parameters);
+            Method method = invoker.getMethod();
+
+            StringBuilder builder = new StringBuilder(method.getDeclaringClass().getName()).append('#').append(method.getName()).append('#');
+            Class<?>[] exact = method.getParameterTypes();
+            for (int i = 0; i < exact.length; i++) {
+                if (i != 0)
+                    builder.append(',');
+                builder.append(exact[i].getName());
+            }
+            names.put(key, builder.toString());
+            return invoker;
+        }
+
+        private boolean matches(@NotNull Method method, @NotNull Class<?> ownerClass, @Nullable Class<?> type, @NotNull Class<?> @NotNull [] parameters) {
+            if (!method.getDeclaringClass().isAssignableFrom(ownerClass))
+                return false;
+            if (type != null)
+                return position(ownerClass, type, parameters, method) == index;
+            return matchesParameters(method, parameters);
+        }
+
+        /**
+         * Returns the index that {@link ReflectionUtil#getMethod(Class, Class, int, Predicate, Class...)}
+         * would need to find the method, or -1 if it would never find it.
+         */
+        private int position(@NotNull Class<?> ownerClass, @NotNull Class<?> type, @NotNull Class<?> @NotNull [] parameters, @NotNull Method target) {
+            int position = 0;
+            for (Class<?> clazz = ownerClass; clazz != null; clazz = clazz.getSuperclass()) {
+                for (Method method : clazz.getDeclaredMethods()) {
+                    if (!type.isAssignableFrom(method.getReturnType()) || (predicate != null && !predicate.test(method)))
+                        continue;
+                    if (!matchesParameters(method, parameters))
+                        continue;
+                    if (method.equals(target))
+                        return position;
+                    position++;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean matchesParameters(@NotNull Method method, @NotNull Class<?> @NotNull [] parameters) {
+            Class<?>[] exact = method.getParameterTypes();
+            if (exact.length != parameters.length)
+                return false;
+            for (int i = 0; i < exact.length; i++) {
+                if (!parameters[i].isAssignableFrom(exact[i]))
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A reference to a constructor. Constructors are found without scanning,
+     * so they are not saved in the cache.
+     *
+     * @param <T> The type of the class.
+     */
+    public static final class ConstructorRef<T> extends Ref<ConstructorInvoker<T>> {
+
+        private final @NotNull ClassRef<T> owner;
+        private final @NotNull ClassRef<?> @NotNull [] parameterTypes;
+
+        private ConstructorRef(@NotNull ClassRef<T> owner, @NotNull ClassRef<?> @NotNull [] parameterTypes) {
+            this.owner = owner;
+            this.parameterTypes = parameterTypes;
+        }
+
+        @Override
+        @NotNull ConstructorInvoker<T> resolve0(@NotNull Map<String, String> cache, @NotNull Map<String, String> names) {
+            return ReflectionUtil.getConstructor(owner.get(), getAll(parameterTypes));
+        }
+    }
+}
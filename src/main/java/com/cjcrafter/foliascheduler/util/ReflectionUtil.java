@@ -37,10 +37,64 @@ public final class ReflectionUtil {
     public static final @NotNull Predicate<Member> IS_FINAL = (member) -> Modifier.isFinal(member.getModifiers());
     public static final @NotNull Predicate<Member> IS_NOT_FINAL = IS_FINAL.negate();
 
+    // Loading the mappings from the Paper jar is slow, so only do it once
+    private static volatile @Nullable ReflectionRemapper remapper;
+
     private ReflectionUtil() {
         throw new UnsupportedOperationException("This class cannot be instantiated");
     }
 
+    // The server version cannot change, so this is computed once, the first
+    // time it is needed. It has its own holder class, since parsing the
+    // version needs a running server.
+    private static final class PackagesHolder {
+        // In 1.17+, Spigot stopped remapping Mojang into 1 big package
+        static final boolean IS_SPLIT = MinecraftVersions.CAVES_AND_CLIFFS_1.isAtLeast();
+    }
+
+    /**
+     * Returns the remapper for the mappings in the Paper jar, or null if the
+     * server does not need remapping (anything besides Paper 1.20.5+).
+     *
+     * @return The remapper, or null.
+     */
+    static @Nullable ReflectionRemapper getRemapper() {
+        // In Paper 1.20.5+, Paper remaps the server to Mojang mappings
+        if (!ServerCapabilities.get().isRemapped())
+            return null;
+
+        ReflectionRemapper local = remapper;
+        if (local == null) {
+            synchronized (ReflectionUtil.class) {
+                local = remapper;
+                if (local == null)
+                    remapper = local = ReflectionRemapper.forReobfMappingsInPaperJar();
+            }
+        }
+        return local;
+    }
+
+    static @NotNull String remapClassName(@NotNull String className) {
+        ReflectionRemapper remapper = getRemapper();
+        return remapper == null ? className : remapper.remapClassOrArrayName(className);
+    }
+
+    static @NotNull String minecraftClassName(@NotNull String packageName, @NotNull String className) {
+        if (PackagesHolder.IS_SPLIT)
+            return "net.minecraft." + packageName + "." + className;
+
+        // In older versions, Mojang classes are in a single package: net.minecraft.server.<version>
+        return "net.minecraft.server." + MinecraftVersions.getCurrent() + "." + className;
+    }
+
+    static @NotNull String craftBukkitClassName(@NotNull String classPath) {
+        // The version data was stripped from the package name in Paper servers 1.20.5+
+        if (ServerCapabilities.get().isRemapped())
+            return "org.bukkit.craftbukkit." + classPath;
+
+        return "org.bukkit.craftbukkit." + MinecraftVersions.getCurrent() + "." + classPath;
+    }
+
     private static @NotNull Field makeFieldAccessible(@NotNull Field field) {
         if (!field.isAccessible())
             field.setAccessible(true);
@@ -68,11 +122,7 @@ public final class ReflectionUtil {
      * @throws WrappedReflectiveOperationException if the class cannot be found
      */
     public static <T> @NotNull Class<T> getClass(@NotNull String className) {
-        // In Paper 1.20.5+, Paper remaps the server to Mojang mappings
-        if (ServerVersions.isPaper() && MinecraftVersions.TRAILS_AND_TAILS.get(5).isAtLeast()) {
-            ReflectionRemapper remapper = ReflectionRemapper.forReobfMappingsInPaperJar();
-            className = remapper.remapClassOrArrayName(className);
-        }
+        className = remapClassName(className);
 
         try {
             // noinspection unchecked
@@ -98,14 +148,7 @@ public final class ReflectionUtil {
      * @throws WrappedReflectiveOperationException if the class cannot be found
      */
     public static <T> @NotNull Class<T> getMinecraftClass(@NotNull String packageName, @NotNull String className) {
-
-        // In 1.17+, Spigot stopped remapping Mojang into 1 big package
-        if (MinecraftVersions.CAVES_AND_CLIFFS_1.isAtLeast()) {
-            return getClass("net.minecraft." + packageName + "." + className);
-        }
-
-        // In older versions, Mojang classes are in a single package: net.minecraft.server.<version>
-        return getClass("net.minecraft.server." + MinecraftVersions.getCurrent() + "." + className);
+        return getClass(minecraftClassName(packageName, className));
     }
 
     /**
@@ -120,12 +163,7 @@ public final class ReflectionUtil {
      * @param <T> the type of the class
      */
     public static <T> @NotNull Class<T> getCraftBukkitClass(@NotNull String classPath) {
-        // The version data was stripped from the package name in Paper servers 1.20.5+
-        if (ServerVersions.isPaper() && MinecraftVersions.TRAILS_AND_TAILS.get(5).isAtLeast()) {
-            return getClass("org.bukkit.craftbukkit." + classPath);
-        }
-
-        return getClass("org.bukkit.craftbukkit." + MinecraftVersions.getCurrent() + "." + classPath);
+        return getClass(craftBukkitClassName(classPath));
     }
 
     /**
@@ -137,11 +175,9 @@ public final class ReflectionUtil {
      */
     public static @NotNull FieldAccessor getField(@NotNull Class<?> clazz, @NotNull String fieldName) {
         try {
-            // In Paper 1.20.5+, Paper remaps the server to Mojang mappings
-            if (ServerVersions.isPaper() && MinecraftVersions.TRAILS_AND_TAILS.get(5).isAtLeast()) {
-                ReflectionRemapper remapper = ReflectionRemapper.forReobfMappingsInPaperJar();
+            ReflectionRemapper remapper = getRemapper();
+            if (remapper != null)
                 fieldName = remapper.remapFieldName(clazz, fieldName);
-            }
             return new FieldAccessor(makeFieldAccessible(clazz.getDeclaredField(fieldName)));
         } catch (ReflectiveOperationException e) {
             throw new WrappedReflectiveOperationException(e);
@@ -224,11 +260,9 @@ public final class ReflectionUtil {
      */
     public static @NotNull MethodInvoker getMethod(@NotNull Class<?> clazz, @NotNull String methodName, Class<?>... parameterTypes) {
         try {
-            // In Paper 1.20.5+, Paper remaps the server to Mojang mappings
-            if (ServerVersions.isPaper() && MinecraftVersions.TRAILS_AND_TAILS.get(5).isAtLeast()) {
-                ReflectionRemapper remapper = ReflectionRemapper.forReobfMappingsInPaperJar();
+            ReflectionRemapper remapper = getRemapper();
+            if (remapper != null)
                 methodName = remapper.remapMethodName(clazz, methodName);
-            }
             return new MethodInvoker(makeMethodAccessible(clazz.getDeclaredMethod(methodName, parameterTypes)));
         } catch (ReflectiveOperationException e) {
             throw new WrappedReflectiveOperationException(e);
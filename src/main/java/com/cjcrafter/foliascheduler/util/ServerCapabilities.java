@@ -0,0 +1,208 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An immutable snapshot of what the server supports, detected once the first
+ * time {@link #get()} is called. Every check is a read of a final field, so
+ * it is free and safe to call from any thread.
+ *
+ * <pre>{@code
+ * if (ServerCapabilities.get().hasTeleportAsync()) {
+ *     entity.teleportAsync(location);
+ * }
+ * }</pre>
+ */
+public final class ServerCapabilities {
+
+    private final @NotNull String brand;
+    private final boolean isPaper;
+    private final boolean isFolia;
+    private final boolean isRemapped;
+    private final boolean hasRegionizedScheduling;
+    private final boolean hasTeleportAsync;
+    private final boolean hasChunkAtAsync;
+    private final int javaVersion;
+
+    ServerCapabilities(@NotNull String brand, boolean isPaper, boolean isFolia, boolean isRemapped, boolean hasRegionizedScheduling,
+                       boolean hasTeleportAsync, boolean hasChunkAtAsync, int javaVersion) {
+        this.brand = brand;
+        this.isPaper = isPaper;
+        this.isFolia = isFolia;
+        this.isRemapped = isRemapped;
+        this.hasRegionizedScheduling = hasRegionizedScheduling;
+        this.hasTeleportAsync = hasTeleportAsync;
+        this.hasChunkAtAsync = hasChunkAtAsync;
+        this.javaVersion = javaVersion;
+    }
+
+    /**
+     * Returns the capabilities of this server. The first call detects them,
+     * and every call after that returns the same object.
+     *
+     * @return The capabilities of this server.
+     */
+    public static @NotNull ServerCapabilities get() {
+        return Holder.INSTANCE;
+    }
+
+    // The JVM initializes the holder once, on first use, with no locking afterward
+    private static final class Holder {
+        static final @NotNull ServerCapabilities INSTANCE = detect();
+    }
+
+    static @NotNull ServerCapabilities detect() {
+        boolean isPaper = hasClass("com.destroystokyo.paper.PaperConfig");
+        boolean isFolia = hasClass("io.papermc.paper.threadedregions.RegionizedServer");
+
+        // In Paper 1.20.5+, Paper remaps the server to Mojang mappings at runtime.
+        // Only parse the version on Paper, since it needs a running server.
+        boolean isRemapped = isPaper && MinecraftVersions.TRAILS_AND_TAILS.get(5).isAtLeast();
+
+        // Without the Bukkit API, like in unit tests, there is nothing else to check
+        if (!hasClass("org.bukkit.Bukkit"))
+            return new ServerCapabilities("unknown", isPaper, isFolia, isRemapped, false, false, false, ServerVersions.getJavaVersion());
+
+        return BukkitProbe.detect(isPaper, isFolia, isRemapped);
+    }
+
+    // Only loaded once the Bukkit API is known to be on the classpath
+    private static final class BukkitProbe {
+        static @NotNull ServerCapabilities detect(boolean isPaper, boolean isFolia, boolean isRemapped) {
+            // Bukkit.getName() fails without a running server, like in unit tests
+            String brand = Bukkit.getServer() == null ? "unknown" : Bukkit.getName();
+
+            return new ServerCapabilities(
+                brand,
+                isPaper,
+                isFolia,
+                isRemapped,
+                hasMethod(Server.class, "isOwnedByCurrentRegion", Location.class),
+                hasMethod(Entity.class, "teleportAsync", Location.class, PlayerTeleportEvent.TeleportCause.class),
+                hasMethod(World.class, "getChunkAtAsync", int.class, int.class),
+                ServerVersions.getJavaVersion()
+            );
+        }
+    }
+
+    private static boolean hasClass(@NotNull String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean hasMethod(@NotNull Class<?> clazz, @NotNull String methodName, Class<?>... parameterTypes) {
+        try {
+            clazz.getMethod(methodName, parameterTypes);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the name of the server software, like "Paper" or "Folia", or
+     * "unknown" if the server was not running when the capabilities were
+     * detected.
+     *
+     * @return The server brand.
+     * @see Server#getName()
+     */
+    public @NotNull String getBrand() {
+        return brand;
+    }
+
+    /**
+     * Returns <code>true</code> if the server is running a version of Paper,
+     * or any fork of Paper.
+     *
+     * @return whether the server is running a version of Paper
+     */
+    public boolean isPaper() {
+        return isPaper;
+    }
+
+    /**
+     * Returns <code>true</code> if the server is running a version of Folia,
+     * or any fork of Folia.
+     *
+     * @return whether the server is running a version of Folia
+     */
+    public boolean isFolia() {
+        return isFolia;
+    }
+
+    /**
+     * Returns <code>true</code> if the server uses Mojang mappings at runtime
+     * (Paper 1.20.5+), so {@link ReflectionUtil} remaps Spigot names.
+     *
+     * @return whether reflection names are remapped
+     */
+    public boolean isRemapped() {
+        return isRemapped;
+    }
+
+    /**
+     * Returns <code>true</code> if the server has Folia's regionized
+     * schedulers, detected by {@code Server#isOwnedByCurrentRegion}.
+     *
+     * @return whether regionized schedulers are available
+     */
+    public boolean hasRegionizedScheduling() {
+        return hasRegionizedScheduling;
+    }
+
+    /**
+     * Returns <code>true</code> if {@code Entity#teleportAsync} is available
+     * (Paper 1.13+).
+     *
+     * @return whether entities can be teleported asynchronously
+     */
+    public boolean hasTeleportAsync() {
+        return hasTeleportAsync;
+    }
+
+    /**
+     * Returns <code>true</code> if {@code World#getChunkAtAsync} is available
+     * (Paper 1.13+).
+     *
+     * @return whether chunks can be loaded asynchronously
+     */
+    public boolean hasChunkAtAsync() {
+        return hasChunkAtAsync;
+    }
+
+    /**
+     * Returns the major Java version the server was running when the
+     * capabilities were detected.
+     *
+     * @return the major JRE version
+     * @see ServerVersions#getJavaVersion()
+     */
+    public int getJavaVersion() {
+        return javaVersion;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "ServerCapabilities{" +
+            "brand=" + brand +
+            ", paper=" + isPaper +
+            ", folia=" + isFolia +
+            ", remapped=" + isRemapped +
+            ", regionizedScheduling=" + hasRegionizedScheduling +
+            ", teleportAsync=" + hasTeleportAsync +
+            ", chunkAtAsync=" + hasChunkAtAsync +
+            ", java=" + javaVersion +
+            '}';
+    }
+}
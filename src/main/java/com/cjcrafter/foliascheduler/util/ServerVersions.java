@@ -2,11 +2,11 @@ package com.cjcrafter.foliascheduler.util;
 
 /**
  * Utility class containing methods to quickly grab information of the server's runtime.
+ *
+ * @see ServerCapabilities
  */
 public final class ServerVersions {
 
-    private static Boolean isPaper = null;
-    private static Boolean isFolia = null;
     private static int javaVersion = -1;
 
     private ServerVersions() {
@@ -17,17 +17,10 @@ public final class ServerVersions {
      * Returns <code>true</code> if the server is running a version of Paper, or any fork of Paper.
      *
      * @return whether the server is running a version of Paper
+     * @see ServerCapabilities#isPaper()
      */
     public static boolean isPaper() {
-        if (isPaper == null) {
-            try {
-                Class.forName("com.destroystokyo.paper.PaperConfig");
-                isPaper = true;
-            } catch (ClassNotFoundException e) {
-                isPaper = false;
-            }
-        }
-        return isPaper;
+        return ServerCapabilities.get().isPaper();
     }
 
     /**
@@ -37,17 +30,10 @@ public final class ServerVersions {
      * Folia is a fork of Paper.
      *
      * @return Whether the server is running a version of Folia
+     * @see ServerCapabilities#isFolia()
      */
     public static boolean isFolia() {
-        if (isFolia == null) {
-            try {
-                Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
-                isFolia = true;
-            } catch (ClassNotFoundException e) {
-                isFolia = false;
-            }
-        }
-        return isFolia;
+        return ServerCapabilities.get().isFolia();
     }
 
     /**
@@ -0,0 +1,97 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A sliding window rate limiter, which allows at most {@code limit} actions
+ * in any window of {@code windowTicks} ticks. Unlike {@link TokenBucket},
+ * this does not allow a burst right after a quiet period.
+ *
+ * <p>The window is approximated with two fixed windows: the count of the
+ * previous window is weighted by how much of it still overlaps the sliding
+ * window. This needs no per-action storage, and the whole state fits in a
+ * single {@code long}, so this class is lock-free and may be used from any
+ * thread.
+ */
+public class SlidingWindowLimiter implements RateLimiter {
+
+    /**
+     * The largest supported limit, since each window count is stored in 16
+     * bits.
+     */
+    public static final int MAX_LIMIT = 0xFFFF;
+
+    private final @NotNull TickClock clock;
+    private final int limit;
+    private final long windowTicks;
+    private final long origin;
+
+    // Packed as [32 bits window index][16 bits previous count][16 bits current count]
+    private final @NotNull AtomicLong state;
+
+    /**
+     * Creates a limiter that uses {@link TickClock#wallClock()}.
+     *
+     * @param limit The maximum number of actions per window.
+     * @param windowTicks The length of the window, in ticks.
+     */
+    public SlidingWindowLimiter(int limit, long windowTicks) {
+        this(TickClock.wallClock(), limit, windowTicks);
+    }
+
+    /**
+     * Creates a limiter.
+     *
+     * @param clock The clock used to move the window.
+     * @param limit The maximum number of actions per window.
+     * @param windowTicks The length of the window, in ticks.
+     */
+    public SlidingWindowLimiter(@NotNull TickClock clock, int limit, long windowTicks) {
+        if (limit < 1 || limit > MAX_LIMIT)
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ", got " + limit);
+        if (windowTicks < 1)
+            throw new IllegalArgumentException("windowTicks must be at least 1, got " + windowTicks);
+
+        this.clock = clock;
+        this.limit = limit;
+        this.windowTicks = windowTicks;
+        this.origin = clock.currentTick();
+        this.state = new AtomicLong(0L);
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        if (permits < 1)
+            throw new IllegalArgumentException("permits must be at least 1, got " + permits);
+
+        while (true) {
+            long elapsed = clock.currentTick() - origin;
+            long window = elapsed / windowTicks;
+
+            long current = state.get();
+            long storedWindow = current >>> 32;
+            int previousCount = (int) ((current >>> 16) & 0xFFFF);
+            int currentCount = (int) (current & 0xFFFF);
+
+            // Roll the windows forward
+            if (window == storedWindow + 1) {
+                previousCount = currentCount;
+                currentCount = 0;
+            } else if (window != storedWindow) {
+                previousCount = 0;
+                currentCount = 0;
+            }
+
+            long remaining = windowTicks - elapsed % windowTicks;
+            double estimate = previousCount * (double) remaining / windowTicks + currentCount;
+            if (estimate + permits > limit)
+                return false;
+
+            long updated = (window << 32) | ((long) previousCount << 16) | (currentCount + permits);
+            if (state.compareAndSet(current, updated))
+                return true;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads many fields of the same object with one call. This is faster than
+ * calling {@link FieldAccessor#get(Object)} for each field, since primitive
+ * values are never boxed and there is only one dispatch per read.
+ *
+ * <pre>{@code
+ * StructAccessor state = StructAccessor.of(entityClass, "locX", "locY", "locZ", "yaw", "pitch", "onGround");
+ * StructAccessor.Snapshot snapshot = state.newSnapshot();
+ *
+ * // Every tick, reusing the same snapshot
+ * state.read(entity, snapshot);
+ * double x = snapshot.getDouble(0);
+ * boolean onGround = snapshot.getBoolean(5);
+ * }</pre>
+ *
+ * <p>The fields are compiled into a single {@link MethodHandle} that copies
+ * every value into a {@link Snapshot}. Primitive values are stored in a
+ * {@code long[]}, and other values are stored in an {@code Object[]}.
+ */
+public final class StructAccessor {
+
+    private static final MethodHandle FLOAT_TO_BITS;
+    private static final MethodHandle DOUBLE_TO_BITS;
+    private static final MethodType READER_TYPE = MethodType.methodType(void.class, Object.class, long[].class, Object[].class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FLOAT_TO_BITS = lookup.findStatic(Float.class, "floatToRawIntBits", MethodType.methodType(int.class, float.class));
+            DOUBLE_TO_BITS = lookup.findStatic(Double.class, "doubleToRawLongBits", MethodType.methodType(long.class, double.class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final @NotNull Field @NotNull [] fields;
+    private final int @NotNull [] slots;
+    private final int primitiveCount;
+    private final int referenceCount;
+    private final @NotNull MethodHandle reader;
+
+    private StructAccessor(@NotNull Field @NotNull [] fields) {
+        if (fields.length == 0)
+            throw new IllegalArgumentException("No fields");
+
+        this.fields = fields;
+        this.slots = new int[fields.length];
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle[] steps = new MethodHandle[fields.length];
+            int primitives = 0;
+            int references = 0;
+            for (int i = 0; i < fields.length; i++) {
+                Field field = fields[i];
+                if (!field.isAccessible())
+                    field.setAccessible(true);
+
+                // Every getter becomes (Object)T, ignoring the object for static fields
+                MethodHandle getter = lookup.unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers()))
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                else
+                    getter = getter.asType(getter.type().changeParameterType(0, Object.class));
+
+                Class<?> type = field.getType();
+                if (type.isPrimitive()) {
+                    slots[i] = primitives++;
+                    if (type == float.class)
+                        getter = MethodHandles.filterReturnValue(getter, FLOAT_TO_BITS);
+                    else if (type == double.class)
+                        getter = MethodHandles.filterReturnValue(getter, DOUBLE_TO_BITS);
+                    getter = MethodHandles.explicitCastArguments(getter, MethodType.methodType(long.class, Object.class));
+
+                    // (long[], Object)void, storing the getter's value at the slot
+                    MethodHandle setter = MethodHandles.insertArguments(MethodHandles.arrayElementSetter(long[].class), 1, slots[i]);
+                    steps[i] = MethodHandles.permuteArguments(MethodHandles.filterArguments(setter, 1, getter), READER_TYPE, 1, 0);
+                } else {
+                    slots[i] = references++;
+                    getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+
+                    // (Object[], Object)void, storing the getter's value at the slot
+                    MethodHandle setter = MethodHandles.insertArguments(MethodHandles.arrayElementSetter(Object[].class), 1, slots[i]);
+                    steps[i] = MethodHandles.permuteArguments(MethodHandles.filterArguments(setter, 1, getter), READER_TYPE, 2, 0);
+                }
+            }
+
+            // Fold the steps into one handle, from last to first, since
+            // foldArguments runs the combiner before the target
+            MethodHandle reader = steps[steps.length - 1];
+            for (int i = steps.length - 2; i >= 0; i--)
+                reader = MethodHandles.foldArguments(reader, steps[i]);
+
+            this.primitiveCount = primitives;
+            this.referenceCount = references;
+            this.reader = reader;
+        } catch (IllegalAccessException ex) {
+            throw new WrappedReflectiveOperationException(ex);
+        }
+    }
+
+    /**
+     * Returns an accessor for the given fields, in the given order.
+     *
+     * @param fields The fields to read.
+     * @return The accessor.
+     */
+    public static @NotNull StructAccessor of(@NotNull Field @NotNull ... fields) {
+        return new StructAccessor(fields.clone());
+    }
+
+    /**
+     * Returns an accessor for the given fields, in the given order.
+     *
+     * @param fields The fields to read.
+     * @return The accessor.
+     */
+    public static @NotNull StructAccessor of(@NotNull FieldAccessor @NotNull ... fields) {
+        Field[] raw = new Field[fields.length];
+        for (int i = 0; i < fields.length; i++)
+            raw[i] = fields[i].getField();
+        return new StructAccessor(raw);
+    }
+
+    /**
+     * Returns an accessor for the named fields, in the given order.
+     *
+     * @param clazz The class that owns the fields.
+     * @param fieldNames The <b>Spigot mapped</b> names of the fields.
+     * @return The accessor.
+     * @see ReflectionUtil#getField(Class, String)
+     */
+    public static @NotNull StructAccessor of(@NotNull Class<?> clazz, @NotNull String @NotNull ... fieldNames) {
+        Field[] raw = new Field[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++)
+            raw[i] = ReflectionUtil.getField(clazz, fieldNames[i]).getField();
+        return new StructAccessor(raw);
+    }
+
+    /**
+     * Returns the number of fields this accessor reads.
+     *
+     * @return The number of fields.
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * Returns the field at the given index.
+     *
+     * @param index The index of the field.
+     * @return The field.
+     */
+    public @NotNull Field getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * Returns the index of the field with the given name, or -1 if this
+     * accessor does not read a field with that name. Since field names are
+     * remapped, this is the name of the field at runtime.
+     *
+     * @param fieldName The name of the field.
+     * @return The index of the field, or -1.
+     */
+    public int indexOf(@NotNull String fieldName) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].getName().equals(fieldName))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a new snapshot for this accessor. Reuse the snapshot to avoid
+     * allocating on every read.
+     *
+     * @return The new snapshot.
+     */
+    public @NotNull Snapshot newSnapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Copies every field of the given object into a new snapshot.
+     *
+     * @param obj The object to read, or null if every field is static.
+     * @return The new snapshot.
+     */
+    public @NotNull Snapshot read(@Nullable Object obj) {
+        return read(obj, newSnapshot());
+    }
+
+    /**
+     * Copies every field of the given object into the given snapshot,
+     * replacing its previous values.
+     *
+     * @param obj The object to read, or null if every field is static.
+     * @param snapshot The snapshot to copy into, from {@link #newSnapshot()}.
+     * @return The given snapshot.
+     * @throws IllegalArgumentException If the snapshot belongs to another accessor.
+     * @throws ClassCastException If the object is not an instance of the classes that declare the fields.
+     */
+    public @NotNull Snapshot read(@Nullable Object obj, @NotNull Snapshot snapshot) {
+        if (snapshot.accessor != this)
+            throw new IllegalArgumentException("The snapshot belongs to another accessor");
+
+        try {
+            reader.invokeExact(obj, snapshot.primitives, snapshot.references);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            // Getters do not throw checked exceptions
+            throw new IllegalStateException(ex);
+        }
+        return snapshot;
+    }
+
+    /**
+     * The values copied by {@link StructAccessor#read(Object, Snapshot)}.
+     * Values are read by the index of the field in the accessor. Primitive
+     * values may be read with a widening conversion, like
+     * {@link Field#getLong(Object)} on an {@code int} field.
+     */
+    public static final class Snapshot {
+
+        private final @NotNull StructAccessor accessor;
+        private final long @NotNull [] primitives;
+        private final @Nullable Object @NotNull [] references;
+
+        private Snapshot(@NotNull StructAccessor accessor) {
+            this.accessor = accessor;
+            this.primitives = new long[accessor.primitiveCount];
+            this.references = new Object[accessor.referenceCount];
+        }
+
+        private long raw(int index, @NotNull Class<?> type) {
+            Class<?> fieldType = accessor.fields[index].getType();
+            if (fieldType != type && !isWidening(fieldType, type))
+                throw new IllegalArgumentException("Cannot read " + fieldType + " field " + accessor.fields[index].getName() + " as " + type);
+            return primitives[accessor.slots[index]];
+        }
+
+        private static boolean isWidening(@NotNull Class<?> from, @NotNull Class<?> to) {
+            if (to == short.class)
+                return from == byte.class;
+            if (to == int.class)
+                return from == byte.class || from == short.class || from == char.class;
+            if (to == long.class)
+                return from == byte.class || from == short.class || from == char.class || from == int.class;
+            return false;
+        }
+
+        /**
+         * Returns the value of a {@code boolean} field.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         * @throws IllegalArgumentException If the field is not a {@code boolean}.
+         */
+        public boolean getBoolean(int index) {
+            return raw(index, boolean.class) != 0L;
+        }
+
+        /**
+         * Returns the value of a {@code byte} field.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         * @throws IllegalArgumentException If the field is not a {@code byte}.
+         */
+        public byte getByte(int index) {
+            return (byte) raw(index, byte.class);
+        }
+
+        /**
+         * Returns the value of a {@code char} field.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         * @throws IllegalArgumentException If the field is not a {@code char}.
+         */
+        public char getChar(int index) {
+            return (char) raw(index, char.class);
+        }
+
+        /**
+         * Returns the value of a {@code short} or {@code byte} field.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         * @throws IllegalArgumentException If the field cannot be widened to a {@code short}.
+         */
+        public short getShort(int index) {
+            return (short) raw(index, short.class);
+        }
+
+        /**
+         * Returns the value of an {@code int} field, or a smaller integral field.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         * @throws IllegalArgumentException If the field cannot be widened to an {@code int}.
+         */
+        public int getInt(int index) {
+            return (int) raw(index, int.class);
+        }
+
+        /**
+         * Returns the value of a {@code long} field, or a smaller integral field.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         * @throws IllegalArgumentException If the field cannot be widened to a {@code long}.
+         */
+        public long getLong(int index) {
+            return raw(index, long.class);
+        }
+
+        /**
+         * Returns the value of a {@code float} field, or an integral field.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         * @throws IllegalArgumentException If the field cannot be widened to a {@code float}.
+         */
+        public float getFloat(int index) {
+            if (accessor.fields[index].getType() == float.class)
+                return Float.intBitsToFloat((int) primitives[accessor.slots[index]]);
+            return getLong(index);
+        }
+
+        /**
+         * Returns the value of a {@code double} field, or any other numeric field.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         * @throws IllegalArgumentException If the field cannot be widened to a {@code double}.
+         */
+        public double getDouble(int index) {
+            if (accessor.fields[index].getType() == double.class)
+                return Double.longBitsToDouble(primitives[accessor.slots[index]]);
+            return getFloat(index);
+        }
+
+        /**
+         * Returns the value of the field at the given index. Primitive values
+         * are boxed, so prefer the primitive getters for primitive fields.
+         *
+         * @param index The index of the field.
+         * @return The value of the field.
+         */
+        public @Nullable Object get(int index) {
+            Class<?> fieldType = accessor.fields[index].getType();
+            if (!fieldType.isPrimitive())
+                return references[accessor.slots[index]];
+
+            if (fieldType == boolean.class)
+                return getBoolean(index);
+            if (fieldType == byte.class)
+                return getByte(index);
+            if (fieldType == char.class)
+                return getChar(index);
+            if (fieldType == short.class)
+                return getShort(index);
+            if (fieldType == int.class)
+                return getInt(index);
+            if (fieldType == long.class)
+                return getLong(index);
+            if (fieldType == float.class)
+                return getFloat(index);
+            return getDouble(index);
+        }
+    }
+}
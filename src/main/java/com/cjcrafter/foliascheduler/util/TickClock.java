@@ -0,0 +1,30 @@
+package com.cjcrafter.foliascheduler.util;
+
+/**
+ * A source of the current time, measured in server ticks. A tick is 50
+ * milliseconds when the server is not lagging.
+ *
+ * @see #wallClock()
+ */
+@FunctionalInterface
+public interface TickClock {
+
+    /**
+     * Returns the current tick. Only the difference between two ticks is
+     * meaningful, the value itself may start anywhere.
+     *
+     * @return The current tick.
+     */
+    long currentTick();
+
+    /**
+     * Returns a clock that converts wall-clock time to ticks, assuming 20
+     * ticks per second. This clock keeps counting while the server is lagging
+     * or paused.
+     *
+     * @return The wall-clock tick clock.
+     */
+    static TickClock wallClock() {
+        return () -> System.nanoTime() / 50_000_000L;
+    }
+}
@@ -0,0 +1,112 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket rate limiter. The bucket starts full, each action takes
+ * tokens from the bucket, and {@code refillAmount} tokens are added back every
+ * {@code refillTicks} ticks, up to {@code capacity}. This allows short bursts
+ * of up to {@code capacity} actions, while limiting the average rate.
+ *
+ * <pre>{@code
+ * // Bursts of 5 messages, then 1 message every 2 seconds
+ * TokenBucket chat = new TokenBucket(clock, 5, 1, 40);
+ * if (!chat.tryAcquire())
+ *     event.setCancelled(true);
+ * }</pre>
+ *
+ * <p>This class is lock-free, and may be used from any thread.
+ */
+public class TokenBucket implements RateLimiter {
+
+    private final @NotNull TickClock clock;
+    private final long capacity;
+    private final long refillAmount;
+    private final long refillTicks;
+    private final @NotNull AtomicLong tokens;
+    private final @NotNull AtomicLong lastRefill;
+
+    /**
+     * Creates a bucket that uses {@link TickClock#wallClock()}.
+     *
+     * @param capacity The maximum number of tokens in the bucket.
+     * @param refillAmount The number of tokens added every refill.
+     * @param refillTicks The number of ticks between refills.
+     */
+    public TokenBucket(long capacity, long refillAmount, long refillTicks) {
+        this(TickClock.wallClock(), capacity, refillAmount, refillTicks);
+    }
+
+    /**
+     * Creates a bucket.
+     *
+     * @param clock The clock used to refill the bucket.
+     * @param capacity The maximum number of tokens in the bucket.
+     * @param refillAmount The number of tokens added every refill.
+     * @param refillTicks The number of ticks between refills.
+     */
+    public TokenBucket(@NotNull TickClock clock, long capacity, long refillAmount, long refillTicks) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be at least 1, got " + capacity);
+        if (refillAmount < 1)
+            throw new IllegalArgumentException("refillAmount must be at least 1, got " + refillAmount);
+        if (refillTicks < 1)
+            throw new IllegalArgumentException("refillTicks must be at least 1, got " + refillTicks);
+
+        this.clock = clock;
+        this.capacity = capacity;
+        this.refillAmount = refillAmount;
+        this.refillTicks = refillTicks;
+        this.tokens = new AtomicLong(capacity);
+        this.lastRefill = new AtomicLong(clock.currentTick());
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        if (permits < 1)
+            throw new IllegalArgumentException("permits must be at least 1, got " + permits);
+
+        refill();
+        while (true) {
+            long current = tokens.get();
+            if (current < permits)
+                return false;
+            if (tokens.compareAndSet(current, current - permits))
+                return true;
+        }
+    }
+
+    /**
+     * Returns the number of tokens currently in the bucket.
+     *
+     * @return The number of tokens.
+     */
+    public long getTokens() {
+        refill();
+        return tokens.get();
+    }
+
+    private void refill() {
+        long now = clock.currentTick();
+        long last = lastRefill.get();
+        long refills = (now - last) / refillTicks;
+        if (refills <= 0)
+            return;
+
+        // Only the thread that moves lastRefill forward may add the tokens,
+        // so each refill is only counted once
+        if (!lastRefill.compareAndSet(last, last + refills * refillTicks))
+            return;
+
+        // Cap before multiplying, so a long idle time can't overflow
+        long added = Math.min(refills, capacity) * refillAmount;
+        while (true) {
+            long current = tokens.get();
+            long updated = Math.min(capacity, current + added);
+            if (current == updated || tokens.compareAndSet(current, updated))
+                return;
+        }
+    }
+}
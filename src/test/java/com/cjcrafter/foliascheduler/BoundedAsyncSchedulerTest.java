@@ -0,0 +1,75 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.testing.Stubs;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedAsyncSchedulerTest {
+
+    private static final Plugin PLUGIN = Stubs.plugin("BoundedAsyncSchedulerTest");
+
+    @Test
+    public void testFailingExecutorDrainsQueue() {
+        List<Runnable> held = new ArrayList<>();
+        AtomicBoolean disabled = new AtomicBoolean();
+        ExecutorAsyncScheduler delegate = new ExecutorAsyncScheduler(PLUGIN, "test", runnable -> {
+            // Like Bukkit's IllegalPluginAccessException, after the plugin is disabled
+            if (disabled.get())
+                throw new IllegalStateException("Plugin attempted to register task while disabled");
+            held.add(runnable);
+        });
+
+        int queued = 100_000;
+        BoundedAsyncScheduler scheduler = new BoundedAsyncScheduler(PLUGIN, delegate, 1, queued, OverflowPolicy.REJECT);
+        scheduler.runNow(() -> { });
+        List<TaskImplementation<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < queued; i++)
+            tasks.add(scheduler.runNow(() -> { }));
+        assertEquals(queued, scheduler.getQueueDepth());
+
+        // Every queued task is rejected in turn, without recursing per task
+        disabled.set(true);
+        held.forEach(Runnable::run);
+        assertEquals(0, scheduler.getQueueDepth());
+        assertEquals(0, scheduler.getRunning());
+        for (TaskImplementation<Void> task : tasks)
+            assertTrue(task.asFuture().isCompletedExceptionally());
+    }
+
+    @Test
+    public void testDropOldestWithoutCapacity() {
+        List<Runnable> held = new ArrayList<>();
+        ExecutorAsyncScheduler delegate = new ExecutorAsyncScheduler(PLUGIN, "test", held::add);
+        BoundedAsyncScheduler scheduler = new BoundedAsyncScheduler(PLUGIN, delegate, 1, 0, OverflowPolicy.DROP_OLDEST);
+
+        scheduler.runNow(() -> { });
+        TaskImplementation<Void> overflow = scheduler.runNow(() -> { });
+        assertTrue(overflow.asFuture().isCompletedExceptionally());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    public void testDropOldest() {
+        List<Runnable> held = new ArrayList<>();
+        ExecutorAsyncScheduler delegate = new ExecutorAsyncScheduler(PLUGIN, "test", held::add);
+        BoundedAsyncScheduler scheduler = new BoundedAsyncScheduler(PLUGIN, delegate, 1, 1, OverflowPolicy.DROP_OLDEST);
+
+        scheduler.runNow(() -> { });
+        TaskImplementation<Void> oldest = scheduler.runNow(() -> { });
+        TaskImplementation<Void> newest = scheduler.runNow(() -> { });
+        assertTrue(oldest.isCancelled());
+        assertEquals(1, scheduler.getQueueDepth());
+
+        held.get(0).run();
+        held.get(1).run();
+        assertTrue(newest.asFuture().isDone());
+        assertEquals(0, scheduler.getRunning());
+    }
+}
@@ -0,0 +1,42 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.testing.Stubs;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExecutorAsyncSchedulerTest {
+
+    private static final Plugin PLUGIN = Stubs.plugin("ExecutorAsyncSchedulerTest");
+    private static final Logger LOGGER = PLUGIN.getLogger();
+
+    @Test
+    public void testRejectedTimerTaskFails() {
+        ExecutorAsyncScheduler scheduler = new ExecutorAsyncScheduler(PLUGIN, "test", runnable -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        // Hide the expected warnings
+        LOGGER.setUseParentHandlers(false);
+        try {
+            TaskImplementation<Void> repeating = scheduler.runAtFixedRate(() -> { }, 1L, 1L, TimeUnit.MILLISECONDS);
+            TaskImplementation<Void> delayed = scheduler.runDelayed(() -> { }, 1L, TimeUnit.MILLISECONDS);
+
+            for (TaskImplementation<Void> task : Arrays.asList(repeating, delayed)) {
+                ExecutionException ex = assertThrows(ExecutionException.class, () -> task.asFuture().get(10, TimeUnit.SECONDS));
+                assertTrue(ex.getCause() instanceof RejectedExecutionException);
+                assertTrue(task.isCancelled());
+            }
+        } finally {
+            LOGGER.setUseParentHandlers(true);
+        }
+    }
+}
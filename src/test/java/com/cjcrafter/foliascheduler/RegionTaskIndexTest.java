@@ -0,0 +1,64 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.testing.Stubs;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RegionTaskIndexTest {
+
+    private static final Plugin PLUGIN = Stubs.plugin("RegionTaskIndexTest");
+    private static final World WORLD = Stubs.world("world");
+
+    @Test
+    public void testFinishedTasksArePruned() {
+        List<Runnable> queue = new ArrayList<>();
+        ExecutorAsyncScheduler scheduler = new ExecutorAsyncScheduler(PLUGIN, "test", queue::add);
+        RegionTaskIndex index = new RegionTaskIndex();
+
+        for (int x = 0; x < 10; x++)
+            index.add(WORLD, x, x, scheduler.runNow(() -> { }));
+        assertEquals(10, index.getTasks(WORLD, 0, 0, 9, 9).size());
+
+        queue.forEach(Runnable::run);
+        assertEquals(0, index.getTasks(WORLD, 0, 0, 9, 9).size());
+        assertEquals(0, index.cancel(WORLD));
+    }
+
+    @Test
+    public void testCancelledTasksAreDropped() {
+        ExecutorAsyncScheduler scheduler = new ExecutorAsyncScheduler(PLUGIN, "test", runnable -> { });
+        RegionTaskIndex index = new RegionTaskIndex();
+
+        // Cancelled outside the index, so their futures never complete
+        List<TaskImplementation<Void>> tasks = new ArrayList<>();
+        for (int x = 0; x < 10; x++)
+            tasks.add(index.add(WORLD, x, 0, scheduler.runNow(() -> { })));
+        for (int i = 0; i < 5; i++)
+            tasks.get(i).cancel();
+
+        assertEquals(5, index.getTasks(WORLD, 0, 0, 9, 0).size());
+        assertEquals(5, index.cancel(WORLD, 0, 0, 9, 0));
+        assertEquals(0, index.getTasks(WORLD, 0, 0, 9, 0).size());
+    }
+
+    @Test
+    public void testCancelBox() {
+        ExecutorAsyncScheduler scheduler = new ExecutorAsyncScheduler(PLUGIN, "test", runnable -> { });
+        RegionTaskIndex index = new RegionTaskIndex();
+
+        for (int x = 0; x < 10; x++)
+            index.add(WORLD, x, 0, scheduler.runNow(() -> { }));
+
+        // Small box, and a box larger than the index
+        assertEquals(2, index.cancel(WORLD, 0, 0, 1, 0));
+        assertEquals(3, index.cancel(WORLD, 2, -1000, 4, 1000));
+        assertEquals(5, index.getTasks(WORLD, -1000, -1000, 1000, 1000).size());
+        assertEquals(5, index.cancel(WORLD));
+    }
+}
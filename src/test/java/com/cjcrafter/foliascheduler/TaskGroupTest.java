@@ -0,0 +1,67 @@
+package com.cjcrafter.foliascheduler;
+
+import com.cjcrafter.foliascheduler.testing.Stubs;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskGroupTest {
+
+    private static final Plugin PLUGIN = Stubs.plugin("TaskGroupTest");
+    private static final Logger LOGGER = PLUGIN.getLogger();
+
+    @Test
+    public void testFinishedTasksLeave() {
+        List<Runnable> queue = new ArrayList<>();
+        ExecutorAsyncScheduler scheduler = new ExecutorAsyncScheduler(PLUGIN, "test", queue::add);
+        TaskGroup group = new TaskGroup("test");
+
+        group.add(scheduler.runNow(() -> { }));
+        TaskImplementation<Void> throwing = group.add(scheduler.runNow(() -> {
+            throw new IllegalStateException("expected");
+        }));
+        assertEquals(2, group.size());
+
+        // Hide the expected stack trace
+        LOGGER.setUseParentHandlers(false);
+        try {
+            queue.forEach(Runnable::run);
+        } finally {
+            LOGGER.setUseParentHandlers(true);
+        }
+
+        assertTrue(throwing.asFuture().isCompletedExceptionally());
+        assertEquals(0, group.size());
+    }
+
+    @Test
+    public void testCancelledTasksAreSwept() {
+        ExecutorAsyncScheduler scheduler = new ExecutorAsyncScheduler(PLUGIN, "test", runnable -> { });
+        TaskGroup group = new TaskGroup("test");
+
+        // Cancelled outside the group, so their futures never complete
+        for (int i = 0; i < 63; i++)
+            group.add(scheduler.runNow(() -> { })).cancel();
+        assertEquals(63, group.size());
+
+        group.add(scheduler.runNow(() -> { }));
+        assertEquals(1, group.size());
+    }
+
+    @Test
+    public void testCancel() {
+        ExecutorAsyncScheduler scheduler = new ExecutorAsyncScheduler(PLUGIN, "test", runnable -> { });
+        TaskGroup group = new TaskGroup("test");
+        TaskImplementation<Void> task = group.add(scheduler.runNow(() -> { }));
+
+        assertEquals(1, group.cancel());
+        assertTrue(task.isCancelled());
+        assertEquals(0, group.size());
+    }
+}
@@ -0,0 +1,130 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessorBackendTest {
+
+    @Test
+    public void testFields() {
+        for (AccessorBackend backend : AccessorBackend.values()) {
+            Target target = new Target();
+            FieldAccessor count = backend.field(ReflectionUtil.getField(Target.class, "count"));
+            FieldAccessor name = backend.field(ReflectionUtil.getField(Target.class, "name"));
+            FieldAccessor id = backend.field(ReflectionUtil.getField(Target.class, "id"));
+            FieldAccessor total = backend.field(ReflectionUtil.getField(Target.class, "total"));
+
+            assertEquals(3, count.get(target), backend.name());
+            count.set(target, 4);
+            assertEquals(4, target.count, backend.name());
+
+            name.set(target, "changed");
+            assertEquals("changed", name.get(target), backend.name());
+            assertEquals(9L, id.get(target), backend.name());
+
+            total.set(null, 1.5);
+            assertEquals(1.5, total.get(null), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> count.set(target, "not an int"), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> count.set(target, null), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> count.set(target, 5L), backend.name());
+
+            // Widened like Field#set
+            count.set(target, (byte) 7);
+            assertEquals(7, target.count, backend.name());
+            count.set(target, 'a');
+            assertEquals('a', target.count, backend.name());
+
+            FieldAccessor enabled = backend.field(ReflectionUtil.getField(Target.class, "enabled"));
+            enabled.set(target, true);
+            assertEquals(true, enabled.get(target), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> enabled.set(target, 1), backend.name());
+        }
+    }
+
+    @Test
+    public void testMethods() {
+        for (AccessorBackend backend : AccessorBackend.values()) {
+            Target target = new Target();
+            MethodInvoker add = backend.method(ReflectionUtil.getMethod(Target.class, "add", int.class, long.class));
+            MethodInvoker reset = backend.method(ReflectionUtil.getMethod(Target.class, "reset"));
+            MethodInvoker join = backend.method(ReflectionUtil.getMethod(Target.class, "join", String.class, String[].class));
+            MethodInvoker fail = backend.method(ReflectionUtil.getMethod(Target.class, "fail"));
+
+            assertEquals(13L, add.invoke(target, 1, 9L), backend.name());
+            assertNull(reset.invoke(target), backend.name());
+            assertEquals(0, target.count, backend.name());
+            assertEquals("a,b", join.invoke(null, ",", new String[]{"a", "b"}), backend.name());
+
+            WrappedReflectiveOperationException ex = assertThrows(WrappedReflectiveOperationException.class, () -> fail.invoke(target), backend.name());
+            assertTrue(ex.getCause().getCause() instanceof UnsupportedOperationException, backend.name());
+        }
+    }
+
+    @Test
+    public void testMethodArguments() {
+        for (AccessorBackend backend : AccessorBackend.values()) {
+            Target target = new Target();
+            MethodInvoker add = backend.method(ReflectionUtil.getMethod(Target.class, "add", int.class, long.class));
+            MethodInvoker join = backend.method(ReflectionUtil.getMethod(Target.class, "join", String.class, String[].class));
+
+            // Widened like Method#invoke
+            assertEquals(13L, add.invoke(target, (byte) 1, 9), backend.name());
+            assertEquals(105L, add.invoke(target, 'a', (short) 5), backend.name());
+
+            // Mistakes by the caller are not wrapped, as if the method threw them
+            assertThrows(IllegalArgumentException.class, () -> add.invoke(target, "1", 9L), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> add.invoke(target, null, 9L), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> add.invoke(target, 1L, 9L), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> add.invoke(target, 1), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> add.invoke(new Object(), 1, 9L), backend.name());
+            assertThrows(NullPointerException.class, () -> add.invoke(null, 1, 9L), backend.name());
+            assertThrows(IllegalArgumentException.class, () -> join.invoke(null, ",", new Object[]{"a"}), backend.name());
+        }
+    }
+
+    @Test
+    public void testHiddenClassIsUsed() {
+        // Only on Java 15 and higher, see the testJava17 task
+        if (!AccessorBackend.HIDDEN_CLASS.isSupported())
+            return;
+
+        FieldAccessor count = AccessorBackend.HIDDEN_CLASS.field(ReflectionUtil.getField(Target.class, "count"));
+        MethodInvoker add = AccessorBackend.HIDDEN_CLASS.method(ReflectionUtil.getMethod(Target.class, "add", int.class, long.class));
+        assertEquals("GeneratedFieldAccessor", count.getClass().getSimpleName());
+        assertEquals("GeneratedMethodInvoker", add.getClass().getSimpleName());
+    }
+
+    @Test
+    public void testBestIsSupported() {
+        assertTrue(AccessorBackend.getBest().isSupported());
+        assertTrue(AccessorBackend.getFallback() != AccessorBackend.HIDDEN_CLASS);
+    }
+
+    private static class Target {
+        private static double total;
+        private int count = 3;
+        private boolean enabled;
+        private String name = "name";
+        private final long id = 9L;
+
+        private long add(int amount, long other) {
+            return count + amount + other;
+        }
+
+        private void reset() {
+            count = 0;
+        }
+
+        private static String join(String separator, String[] parts) {
+            return String.join(separator, parts);
+        }
+
+        private void fail() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ChunkKeysTest {
+
+    @Test
+    public void testRoundTrip() {
+        int[] coordinates = { 0, 1, -1, 15, -16, 1875000, -1875000, Integer.MAX_VALUE, Integer.MIN_VALUE };
+        for (int x : coordinates) {
+            for (int z : coordinates) {
+                long key = ChunkKeys.pack(x, z);
+                assertEquals(x, ChunkKeys.x(key));
+                assertEquals(z, ChunkKeys.z(key));
+            }
+        }
+    }
+
+    @Test
+    public void testSection() {
+        // Chunks 0..15 share a section, chunk 16 starts the next one
+        assertEquals(ChunkKeys.section(ChunkKeys.pack(0, 0)), ChunkKeys.section(ChunkKeys.pack(15, 15)));
+        assertNotEquals(ChunkKeys.section(ChunkKeys.pack(15, 0)), ChunkKeys.section(ChunkKeys.pack(16, 0)));
+
+        // Negative chunks round down, not towards zero
+        assertEquals(ChunkKeys.pack(-1, -1), ChunkKeys.section(ChunkKeys.pack(-1, -16)));
+        assertNotEquals(ChunkKeys.section(ChunkKeys.pack(-1, 0)), ChunkKeys.section(ChunkKeys.pack(0, 0)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyHandleTest {
+
+    @Test
+    public void testResolvedOnFirstUse() {
+        LazyFieldAccessor trueField = LazyFieldAccessor.of("java.lang.Boolean", "TRUE");
+        LazyMethodInvoker valueOf = LazyMethodInvoker.of(Boolean.class, "valueOf", String.class);
+        assertFalse(trueField.isResolved());
+        assertFalse(valueOf.isResolved());
+
+        assertEquals(Boolean.TRUE, trueField.get(null));
+        assertEquals(Boolean.FALSE, valueOf.invoke(null, "false"));
+        assertTrue(trueField.isResolved());
+        assertSame(trueField.get(), trueField.get());
+    }
+
+    @Test
+    public void testFailedLookupIsRetried() {
+        AtomicInteger lookups = new AtomicInteger();
+        LazyFieldAccessor missing = new LazyFieldAccessor(() -> {
+            lookups.incrementAndGet();
+            return ReflectionUtil.getField(Boolean.class, "MAYBE");
+        });
+
+        assertThrows(WrappedReflectiveOperationException.class, missing::get);
+        assertThrows(WrappedReflectiveOperationException.class, missing::get);
+        assertEquals(2, lookups.get());
+        assertFalse(missing.isResolved());
+    }
+
+    @Test
+    public void testLookupRunsOnce() throws InterruptedException {
+        AtomicInteger lookups = new AtomicInteger();
+        LazyFieldAccessor x = new LazyFieldAccessor(() -> {
+            lookups.incrementAndGet();
+            return ReflectionUtil.getField(TestFilterObject.class, int.class, 0, ReflectionUtil.IS_PRIVATE);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                assertEquals("x", x.get().getField().getName());
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, lookups.get());
+    }
+}
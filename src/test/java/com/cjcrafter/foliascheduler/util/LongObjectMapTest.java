@@ -0,0 +1,68 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(1234);
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+
+        // Small coordinates, so there are plenty of collisions and removals
+        for (int i = 0; i < 100_000; i++) {
+            long key = ChunkKeys.pack(random.nextInt(64) - 32, random.nextInt(64) - 32);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (long key : map.keys())
+            assertEquals(expected.get(key), map.get(key));
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.get(0L));
+        map.put(0L, "origin");
+        assertEquals("origin", map.get(ChunkKeys.pack(0, 0)));
+        assertEquals("origin", map.remove(0L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        ConcurrentLongObjectMap<Integer> map = new ConcurrentLongObjectMap<>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++)
+                    map.put(ChunkKeys.pack(i, offset), i);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(40_000, map.size());
+        assertEquals(Integer.valueOf(1234), map.get(ChunkKeys.pack(1234, 3)));
+    }
+}
@@ -104,4 +104,15 @@ public class MinecraftVersionsTest {
         // We expect 0.0 to be older than 1.13.2
         assertTrue(version.compareTo(updateAquatic) < 0);
     }
+
+    @Test
+    public void testPackedOrder() {
+        assertTrue(MinecraftVersions.pack(1, 21, 11) < MinecraftVersions.pack(26, 1, 0));
+        assertTrue(MinecraftVersions.pack(1, 20, 6) < MinecraftVersions.pack(1, 21, 0));
+        assertTrue(MinecraftVersions.pack(1, 20, 5) < MinecraftVersions.pack(1, 20, 6));
+
+        // Huge components are clamped instead of overflowing into the next one
+        assertTrue(MinecraftVersions.pack(1, 20, 5000) < MinecraftVersions.pack(1, 21, 0));
+        assertTrue(MinecraftVersions.pack(5000, 0, 0) > 0);
+    }
 }
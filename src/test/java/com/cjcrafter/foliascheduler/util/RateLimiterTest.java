@@ -0,0 +1,86 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testTokenBucketBurstAndRefill() {
+        AtomicLong tick = new AtomicLong(1000);
+        TokenBucket bucket = new TokenBucket(tick::get, 3, 1, 10);
+
+        // The bucket starts full
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        // 1 token every 10 ticks
+        tick.addAndGet(9);
+        assertFalse(bucket.tryAcquire());
+        tick.addAndGet(1);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        // Never refills past capacity
+        tick.addAndGet(1_000_000);
+        assertEquals(3, bucket.getTokens());
+        assertFalse(bucket.tryAcquire(4));
+        assertTrue(bucket.tryAcquire(3));
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        AtomicLong tick = new AtomicLong(-50);
+        SlidingWindowLimiter limiter = new SlidingWindowLimiter(tick::get, 4, 20);
+
+        for (int i = 0; i < 4; i++)
+            assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // Halfway through the next window, half of the previous window still counts
+        tick.addAndGet(30);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // After 2 full windows, everything has expired
+        tick.addAndGet(40);
+        assertTrue(limiter.tryAcquire(4));
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testKeyedLimiters() {
+        AtomicLong tick = new AtomicLong();
+        KeyedRateLimiter<String> limiter = new KeyedRateLimiter<>(key -> new TokenBucket(tick::get, 1, 1, 20));
+
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+        assertEquals(2, limiter.size());
+
+        limiter.remove("a");
+        assertTrue(limiter.tryAcquire("a"));
+    }
+
+    @Test
+    public void testRejectsNonPositivePermits() {
+        AtomicLong tick = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(tick::get, 3, 1, 10);
+        SlidingWindowLimiter window = new SlidingWindowLimiter(tick::get, 3, 10);
+
+        // Negative permits would add tokens, or shrink the window's count
+        assertThrows(IllegalArgumentException.class, () -> bucket.tryAcquire(0));
+        assertThrows(IllegalArgumentException.class, () -> bucket.tryAcquire(-1));
+        assertThrows(IllegalArgumentException.class, () -> window.tryAcquire(-1));
+        assertEquals(3, bucket.getTokens());
+    }
+}
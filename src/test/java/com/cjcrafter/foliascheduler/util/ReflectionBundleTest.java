@@ -0,0 +1,114 @@
+package com.cjcrafter.foliascheduler.util;
+
+import com.cjcrafter.foliascheduler.testing.Stubs;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReflectionBundleTest {
+
+    private static File cacheFile() throws IOException {
+        File directory = Files.createTempDirectory("reflection-bundle").toFile();
+        directory.deleteOnExit();
+        File file = new File(directory, "cache.properties");
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static Properties read(File file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    @Test
+    public void testResolve() throws IOException {
+        ReflectionBundle bundle = new ReflectionBundle(cacheFile(), "test");
+        ReflectionBundle.ClassRef<Boolean> booleanClass = bundle.type("java.lang.Boolean");
+        ReflectionBundle.FieldRef trueField = bundle.field(booleanClass, "TRUE");
+        ReflectionBundle.FieldRef x = bundle.field(bundle.type(TestFilterObject.class), int.class, 0, ReflectionUtil.IS_PRIVATE);
+        ReflectionBundle.MethodRef valueOf = bundle.method(booleanClass, "valueOf", String.class);
+        ReflectionBundle.ConstructorRef<Boolean> constructor = bundle.constructor(booleanClass, boolean.class);
+
+        assertThrows(IllegalStateException.class, trueField::get);
+        bundle.resolve();
+
+        assertEquals(Boolean.class, booleanClass.get());
+        assertEquals(Boolean.TRUE, trueField.get().get(null));
+        assertEquals("x", x.get().getField().getName());
+        assertEquals(Boolean.FALSE, valueOf.get().invoke(null, "false"));
+        assertEquals(Boolean.TRUE, constructor.get().newInstance(true));
+        assertThrows(IllegalStateException.class, () -> bundle.type("java.lang.String"));
+    }
+
+    @Test
+    public void testFailuresAreDeferred() throws IOException {
+        ReflectionBundle bundle = new ReflectionBundle(cacheFile(), "test");
+        ReflectionBundle.ClassRef<?> missing = bundle.type("com.example.DoesNotExist");
+        ReflectionBundle.FieldRef missingField = bundle.field(missing, "field");
+        ReflectionBundle.FieldRef present = bundle.field(bundle.type(Boolean.class), "TRUE");
+        bundle.resolve();
+
+        assertFalse(missing.isPresent());
+        assertFalse(missingField.isPresent());
+        assertTrue(present.isPresent());
+        assertThrows(WrappedReflectiveOperationException.class, missing::get);
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        File file = cacheFile();
+        ReflectionBundle first = new ReflectionBundle(file, "test");
+        first.field(first.type(TestFilterObject.class), int.class, 1, ReflectionUtil.IS_PRIVATE);
+        first.resolve();
+
+        Properties properties = read(file);
+        assertEquals("test", properties.getProperty("server"));
+        assertEquals(TestFilterObject.class.getName() + "#y", properties.getProperty("field:" + TestFilterObject.class.getName() + ":int:1"));
+
+        // A saved name is used when it still matches the declaration
+        properties.setProperty("field:" + TestFilterObject.class.getName() + "#x", TestFilterObject.class.getName() + "#z");
+
+        // A saved field of the right type, but at the wrong index, is stale
+        properties.setProperty("field:" + TestFilterObject.class.getName() + ":int:1", TestFilterObject.class.getName() + "#z");
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            properties.store(out, null);
+        }
+        ReflectionBundle second = new ReflectionBundle(file, "test");
+        ReflectionBundle.FieldRef named = second.field(second.type(TestFilterObject.class), "x");
+        ReflectionBundle.FieldRef indexed = second.field(second.type(TestFilterObject.class), int.class, 1, ReflectionUtil.IS_PRIVATE);
+        second.resolve();
+        assertEquals("z", named.get().getField().getName());
+        assertEquals("y", indexed.get().getField().getName());
+        assertEquals(TestFilterObject.class.getName() + "#y", read(file).getProperty("field:" + TestFilterObject.class.getName() + ":int:1"));
+
+        // A different server ignores the cache
+        ReflectionBundle third = new ReflectionBundle(file, "other");
+        ReflectionBundle.FieldRef scanned = third.field(third.type(TestFilterObject.class), int.class, 1, ReflectionUtil.IS_PRIVATE);
+        third.resolve();
+        assertEquals("y", scanned.get().getField().getName());
+        assertEquals("other", read(file).getProperty("server"));
+    }
+
+    @Test
+    public void testBundleNames() {
+        Plugin plugin = Stubs.plugin("ReflectionBundleTest");
+
+        // The name becomes part of the cache file name
+        assertThrows(IllegalArgumentException.class, () -> new ReflectionBundle(plugin, "../cache"));
+        assertThrows(IllegalArgumentException.class, () -> new ReflectionBundle(plugin, ""));
+    }
+}
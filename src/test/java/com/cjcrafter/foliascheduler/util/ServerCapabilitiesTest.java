@@ -0,0 +1,27 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerCapabilitiesTest {
+
+    @Test
+    public void testDetectedOnce() {
+        assertSame(ServerCapabilities.get(), ServerCapabilities.get());
+    }
+
+    @Test
+    public void testDetectWithoutServer() {
+        // There is no Paper or running server in unit tests
+        ServerCapabilities capabilities = ServerCapabilities.detect();
+        assertEquals("unknown", capabilities.getBrand());
+        assertFalse(capabilities.isPaper());
+        assertFalse(capabilities.isFolia());
+        assertFalse(capabilities.isRemapped());
+        assertTrue(capabilities.getJavaVersion() >= 8);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cjcrafter.foliascheduler.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StructAccessorTest {
+
+    @Test
+    public void testReadEveryType() {
+        StructAccessor accessor = StructAccessor.of(State.class, "flag", "b", "c", "s", "i", "l", "f", "d", "name", "COUNT");
+        State state = new State();
+        StructAccessor.Snapshot snapshot = accessor.read(state);
+
+        assertTrue(snapshot.getBoolean(0));
+        assertEquals((byte) -3, snapshot.getByte(1));
+        assertEquals('z', snapshot.getChar(2));
+        assertEquals((short) -1234, snapshot.getShort(3));
+        assertEquals(-123456, snapshot.getInt(4));
+        assertEquals(Long.MIN_VALUE, snapshot.getLong(5));
+        assertEquals(-1.5f, snapshot.getFloat(6));
+        assertEquals(Math.PI, snapshot.getDouble(7));
+        assertEquals("state", snapshot.get(8));
+        assertEquals(7, snapshot.getInt(9));
+        assertEquals(-1.5f, snapshot.get(6));
+    }
+
+    @Test
+    public void testSnapshotIsReused() {
+        StructAccessor accessor = StructAccessor.of(State.class, "i", "name");
+        StructAccessor.Snapshot snapshot = accessor.newSnapshot();
+        State state = new State();
+
+        assertSame(snapshot, accessor.read(state, snapshot));
+        state.i = 5;
+        state.name = "changed";
+        accessor.read(state, snapshot);
+        assertEquals(5, snapshot.getInt(0));
+        assertEquals("changed", snapshot.get(1));
+        assertEquals(1, accessor.indexOf("name"));
+
+        assertThrows(IllegalArgumentException.class, () -> accessor.read(state, StructAccessor.of(State.class, "i").newSnapshot()));
+    }
+
+    @Test
+    public void testWidening() {
+        StructAccessor accessor = StructAccessor.of(State.class, "b", "i", "f", "flag");
+        StructAccessor.Snapshot snapshot = accessor.read(new State());
+
+        assertEquals(-3L, snapshot.getLong(0));
+        assertEquals(-123456.0, snapshot.getDouble(1));
+        assertEquals(-1.5, snapshot.getDouble(2));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getInt(2));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getInt(3));
+        assertFalse(snapshot.get(0) instanceof Long);
+    }
+
+    private static class State {
+        private static final int COUNT = 7;
+        private boolean flag = true;
+        private byte b = -3;
+        private char c = 'z';
+        private short s = -1234;
+        private int i = -123456;
+        private long l = Long.MIN_VALUE;
+        private float f = -1.5f;
+        private double d = Math.PI;
+        private String name = "state";
+    }
+}
@@ -37,4 +37,14 @@ public class VersionTest {
         assertEquals(0, compare);
         assertEquals(MinecraftVersions.UPDATE_AQUATIC.get(2), other);
     }
+
+    @Test
+    public void testLargeComponents() {
+        // Too large to pack, but still compared exactly
+        MinecraftVersions.Version big = new MinecraftVersions.Version(1, 2000, 0, 0);
+        MinecraftVersions.Version bigger = new MinecraftVersions.Version(1, 2001, 0, 0);
+        assertTrue(bigger.compareTo(big) > 0);
+        assertTrue(big.getUpdate().compareTo(bigger.getUpdate()) < 0);
+        assertTrue(new MinecraftVersions.Version(1, 1, 5000, 0).compareTo(new MinecraftVersions.Version(1, 1, 4000, 0)) > 0);
+    }
 }
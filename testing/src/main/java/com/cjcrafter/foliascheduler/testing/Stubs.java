@@ -0,0 +1,160 @@
+package com.cjcrafter.foliascheduler.testing;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Minimal Bukkit objects, so tests and benchmarks can use a
+ * {@link VirtualServer} without a Minecraft server.
+ *
+ * <p>Each stub is a {@link Proxy} that only answers the methods the library
+ * needs. Every other method returns {@code null}, or the default value of a
+ * primitive return type. Stubs are only equal to themselves.
+ *
+ * <pre>{@code
+ * Plugin plugin = Stubs.plugin("Test");
+ * World world = Stubs.world("world");
+ * Entity entity = Stubs.entity(new Location(world, 0, 64, 0));
+ * }</pre>
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Returns a plugin with the given name, and a logger of the same name.
+     *
+     * @param name The name of the plugin.
+     * @return The plugin.
+     */
+    public static @NotNull Plugin plugin(@NotNull String name) {
+        Logger logger = Logger.getLogger(name);
+        return stub(Plugin.class, (method, args) -> {
+            switch (method) {
+                case "getName": return name;
+                case "getLogger": return logger;
+                default: return null;
+            }
+        });
+    }
+
+    /**
+     * Returns a world with the given name. Its UUID is derived from the name,
+     * and {@code getChunkAtAsync} completes right away.
+     *
+     * @param name The name of the world.
+     * @return The world.
+     */
+    public static @NotNull World world(@NotNull String name) {
+        UUID uuid = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+        return stub(World.class, (method, args) -> {
+            switch (method) {
+                case "getName": return name;
+                case "getUID": return uuid;
+                case "getChunkAtAsync": return CompletableFuture.completedFuture(null);
+                default: return null;
+            }
+        });
+    }
+
+    /**
+     * Returns an entity at the location that is always valid.
+     *
+     * @param location The location of the entity.
+     * @return The entity.
+     */
+    public static @NotNull Entity entity(@NotNull Location location) {
+        return entity(location, () -> true);
+    }
+
+    /**
+     * Returns an entity at the location. {@link Entity#isValid()} asks the
+     * supplier, so a test can remove the entity.
+     *
+     * @param location The location of the entity.
+     * @param valid Whether the entity is valid.
+     * @return The entity.
+     */
+    public static @NotNull Entity entity(@NotNull Location location, @NotNull BooleanSupplier valid) {
+        return stub(Entity.class, (method, args) -> {
+            switch (method) {
+                case "isValid": return valid.getAsBoolean();
+                case "getLocation": return location.clone();
+                case "getWorld": return location.getWorld();
+                default: return null;
+            }
+        });
+    }
+
+    /**
+     * Returns a stub of the interface that answers every method with the
+     * answer. {@code equals} and {@code hashCode} use the stub's identity.
+     *
+     * @param type The interface to stub.
+     * @param answer Answers each method by its name.
+     * @return The stub.
+     * @param <T> The type of the interface.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @NotNull T stub(@NotNull Class<T> type, @NotNull Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().equals("hashCode"))
+                return System.identityHashCode(proxy);
+            if (method.getName().equals("equals"))
+                return proxy == args[0];
+            if (method.getName().equals("toString"))
+                return type.getSimpleName() + "Stub@" + Integer.toHexString(System.identityHashCode(proxy));
+
+            Object value = answer.answer(method.getName(), args);
+            return value == null ? defaultValue(method.getReturnType()) : value;
+        });
+    }
+
+    private static @Nullable Object defaultValue(@NotNull Class<?> type) {
+        if (!type.isPrimitive() || type == void.class)
+            return null;
+        if (type == boolean.class)
+            return false;
+        if (type == char.class)
+            return '\0';
+        if (type == long.class)
+            return 0L;
+        if (type == float.class)
+            return 0F;
+        if (type == double.class)
+            return 0D;
+        if (type == byte.class)
+            return (byte) 0;
+        if (type == short.class)
+            return (short) 0;
+        return 0;
+    }
+
+    /**
+     * Answers a method called on a stub.
+     */
+    @FunctionalInterface
+    public interface Answer {
+
+        /**
+         * Returns the result of the method, or null to use the default value.
+         *
+         * @param method The name of the method.
+         * @param args The arguments, or null if there are none.
+         * @return The result of the method.
+         */
+        @Nullable Object answer(@NotNull String method, @Nullable Object @Nullable [] args);
+    }
+}
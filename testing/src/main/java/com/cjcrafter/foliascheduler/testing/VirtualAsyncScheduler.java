@@ -0,0 +1,49 @@
+package com.cjcrafter.foliascheduler.testing;
+
+import com.cjcrafter.foliascheduler.AsyncSchedulerImplementation;
+import com.cjcrafter.foliascheduler.BoundedAsyncScheduler;
+import com.cjcrafter.foliascheduler.OverflowPolicy;
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+class VirtualAsyncScheduler implements AsyncSchedulerImplementation {
+
+    private final @NotNull VirtualServer server;
+
+    VirtualAsyncScheduler(@NotNull VirtualServer server) {
+        this.server = server;
+    }
+
+    private static long toTicks(long duration, @NotNull TimeUnit unit) {
+        // Round up, so a task never runs early
+        return (unit.toMillis(duration) + 49L) / 50L;
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runNow(@NotNull Function<TaskImplementation<T>, T> function) {
+        return server.submit(server.schedule(function, VirtualTask.Lane.ASYNC, 1L, 0L));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, long delay, @NotNull TimeUnit unit) {
+        return server.submit(server.schedule(function, VirtualTask.Lane.ASYNC, toTicks(delay, unit), 0L));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period, @NotNull TimeUnit unit) {
+        return server.submit(server.schedule(function, VirtualTask.Lane.ASYNC, toTicks(delay, unit), Math.max(1L, toTicks(period, unit))));
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation bounded(int maxRunning, int capacity, @NotNull OverflowPolicy policy) {
+        return new BoundedAsyncScheduler(server.getOwningPlugin(), this, maxRunning, capacity, policy);
+    }
+
+    @Override
+    public void cancelTasks() {
+        server.cancelTasks(VirtualTask.Lane.ASYNC);
+    }
+}
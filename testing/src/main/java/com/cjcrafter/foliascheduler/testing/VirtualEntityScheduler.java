@@ -0,0 +1,57 @@
+package com.cjcrafter.foliascheduler.testing;
+
+import com.cjcrafter.foliascheduler.EntitySchedulerImplementation;
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+class VirtualEntityScheduler implements EntitySchedulerImplementation {
+
+    private final @NotNull VirtualServer server;
+    private final @NotNull Entity entity;
+
+    VirtualEntityScheduler(@NotNull VirtualServer server, @NotNull Entity entity) {
+        this.server = server;
+        this.entity = entity;
+    }
+
+    private <T> @Nullable VirtualTask<T> schedule(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired, long delay, long period) {
+        if (!entity.isValid()) {
+            // Folia does not call the retired callback here, but Spigot does
+            if (!server.isFolia() && retired != null)
+                retired.run();
+            return null;
+        }
+
+        VirtualTask<T> task = server.schedule(function, VirtualTask.Lane.ENTITY, delay, period);
+        task.entity = entity;
+        task.retired = retired;
+        return server.submit(task);
+    }
+
+    @Override
+    public boolean execute(@NotNull Runnable run, @Nullable Runnable retired, long delay) {
+        return schedule(task -> {
+            run.run();
+            return null;
+        }, retired, delay, 0L) != null;
+    }
+
+    @Override
+    public @Nullable <T> TaskImplementation<T> run(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired) {
+        return schedule(function, retired, 1L, 0L);
+    }
+
+    @Override
+    public @Nullable <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired, long delay) {
+        return schedule(function, retired, delay, 0L);
+    }
+
+    @Override
+    public @Nullable <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, @Nullable Runnable retired, long delay, long period) {
+        return schedule(function, retired, delay, Math.max(1L, period));
+    }
+}
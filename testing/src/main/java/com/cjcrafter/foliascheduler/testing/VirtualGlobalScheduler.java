@@ -0,0 +1,44 @@
+package com.cjcrafter.foliascheduler.testing;
+
+import com.cjcrafter.foliascheduler.GlobalSchedulerImplementation;
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+class VirtualGlobalScheduler implements GlobalSchedulerImplementation {
+
+    private final @NotNull VirtualServer server;
+
+    VirtualGlobalScheduler(@NotNull VirtualServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable run) {
+        run(task -> {
+            run.run();
+            return null;
+        });
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> run(@NotNull Function<TaskImplementation<T>, T> function) {
+        return runDelayed(function, 1L);
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, long delay) {
+        return server.submit(server.schedule(function, VirtualTask.Lane.GLOBAL, delay, 0L));
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period) {
+        return server.submit(server.schedule(function, VirtualTask.Lane.GLOBAL, delay, Math.max(1L, period)));
+    }
+
+    @Override
+    public void cancelTasks() {
+        server.cancelTasks(VirtualTask.Lane.GLOBAL);
+    }
+}
@@ -0,0 +1,54 @@
+package com.cjcrafter.foliascheduler.testing;
+
+import com.cjcrafter.foliascheduler.RegionSchedulerImplementation;
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+class VirtualRegionScheduler implements RegionSchedulerImplementation {
+
+    private final @NotNull VirtualServer server;
+    private final @NotNull World world;
+    private final int chunkX;
+    private final int chunkZ;
+
+    VirtualRegionScheduler(@NotNull VirtualServer server, @NotNull World world, int chunkX, int chunkZ) {
+        this.server = server;
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+    }
+
+    private <T> @NotNull VirtualTask<T> schedule(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period) {
+        VirtualTask<T> task = server.schedule(function, VirtualTask.Lane.REGION, delay, period);
+        task.world = world;
+        task.chunkX = chunkX;
+        task.chunkZ = chunkZ;
+        return server.submit(task);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable run) {
+        run(task -> {
+            run.run();
+            return null;
+        });
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> run(@NotNull Function<TaskImplementation<T>, T> function) {
+        return schedule(function, 1L, 0L);
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runDelayed(@NotNull Function<TaskImplementation<T>, T> function, long delay) {
+        return schedule(function, delay, 0L);
+    }
+
+    @Override
+    public @NotNull <T> TaskImplementation<T> runAtFixedRate(@NotNull Function<TaskImplementation<T>, T> function, long delay, long period) {
+        return schedule(function, delay, Math.max(1L, period));
+    }
+}
@@ -0,0 +1,523 @@
+package com.cjcrafter.foliascheduler.testing;
+
+import com.cjcrafter.foliascheduler.AsyncSchedulerImplementation;
+import com.cjcrafter.foliascheduler.EntitySchedulerImplementation;
+import com.cjcrafter.foliascheduler.GlobalSchedulerImplementation;
+import com.cjcrafter.foliascheduler.RegionSchedulerImplementation;
+import com.cjcrafter.foliascheduler.ServerImplementation;
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import com.cjcrafter.foliascheduler.TaskRegistry;
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@link ServerImplementation} that runs without a Minecraft server, for
+ * unit tests and benchmarks. Time is virtual: tasks only run when
+ * {@link #tick()} is called, so a test controls exactly when each task runs.
+ *
+ * <pre>{@code
+ * try (VirtualServer server = VirtualServer.folia(plugin, 4)) {
+ *     TaskImplementation<Void> task = server.global().runDelayed(t -> {}, 20L);
+ *     server.tick(19);
+ *     assertFalse(task.asFuture().isDone());
+ *     server.tick();
+ *     assertTrue(task.asFuture().isDone());
+ * }
+ * }</pre>
+ *
+ * <p>In Folia mode, each tick runs the global tasks on the calling thread,
+ * then runs the region and entity tasks on a fixed number of region threads.
+ * Each Folia region (see {@link ChunkKeys#REGION_SECTION_SHIFT}) always runs
+ * on the same thread, and its tasks run in the order they were scheduled, so
+ * the result of a tick only depends on how tasks are spread across regions.
+ * In Spigot mode, every sync task runs on the calling thread, in the order it
+ * was scheduled.
+ *
+ * <p>In both modes, async tasks run in parallel at the tick their delay
+ * rounds up to (1 tick is 50 milliseconds), and {@link #tick()} waits for
+ * them to finish. {@link AsyncSchedulerImplementation#runNow} runs on the
+ * next tick.
+ *
+ * <p>Entities are checked with {@link Entity#isValid()} every tick. When an
+ * entity is no longer valid, all of its tasks are cancelled, and their
+ * {@code retired} callbacks are called. Entity tasks run in the region of
+ * {@link Entity#getLocation()}.
+ *
+ * <p>If any task throws an exception, {@link #tick()} finishes the tick and
+ * then throws an {@link IllegalStateException} with the exception as its
+ * cause, so failures are not hidden in a log.
+ */
+public class VirtualServer implements ServerImplementation, AutoCloseable {
+
+    private static final Object MAIN_THREAD = new Object();
+    private static final Object GLOBAL_REGION = new Object();
+
+    private final @NotNull Plugin owningPlugin;
+    private final boolean folia;
+    private final @NotNull ExecutorService[] regionThreads;
+    private final @NotNull ExecutorService asyncThreads;
+    private final @NotNull ThreadLocal<Object> currentRegion;
+
+    private final @NotNull PriorityQueue<VirtualTask<?>> queue;
+    private final @NotNull AtomicLong sequence;
+    private final @NotNull AtomicLong currentTick;
+    private final @NotNull List<Throwable> exceptions;
+
+    private final @NotNull VirtualGlobalScheduler global;
+    private final @NotNull VirtualAsyncScheduler async;
+    private final @NotNull TaskRegistry taskRegistry;
+
+    private VirtualServer(@NotNull Plugin owningPlugin, int threads) {
+        this.owningPlugin = owningPlugin;
+        this.folia = threads > 0;
+        this.regionThreads = new ExecutorService[threads];
+        for (int i = 0; i < threads; i++)
+            regionThreads[i] = Executors.newSingleThreadExecutor(threadFactory("Virtual Region Thread #" + i));
+        this.asyncThreads = Executors.newCachedThreadPool(threadFactory("Virtual Async Thread"));
+        this.currentRegion = new ThreadLocal<>();
+
+        this.queue = new PriorityQueue<>(Comparator.<VirtualTask<?>>comparingLong(VirtualTask::getNextRun).thenComparingLong(VirtualTask::getSequence));
+        this.sequence = new AtomicLong();
+        this.currentTick = new AtomicLong();
+        this.exceptions = new ArrayList<>();
+
+        this.global = new VirtualGlobalScheduler(this);
+        this.async = new VirtualAsyncScheduler(this);
+        this.taskRegistry = new TaskRegistry();
+    }
+
+    /**
+     * Creates a server that behaves like Folia, with regions simulated on
+     * the given number of threads.
+     *
+     * @param owningPlugin The plugin that owns the tasks.
+     * @param regionThreads The number of region threads, at least 1.
+     * @return The new server.
+     */
+    public static @NotNull VirtualServer folia(@NotNull Plugin owningPlugin, int regionThreads) {
+        if (regionThreads < 1)
+            throw new IllegalArgumentException("regionThreads must be at least 1, got " + regionThreads);
+        return new VirtualServer(owningPlugin, regionThreads);
+    }
+
+    /**
+     * Creates a server that behaves like Spigot, where every sync task runs
+     * on the thread that calls {@link #tick()}.
+     *
+     * @param owningPlugin The plugin that owns the tasks.
+     * @return The new server.
+     */
+    public static @NotNull VirtualServer spigot(@NotNull Plugin owningPlugin) {
+        return new VirtualServer(owningPlugin, 0);
+    }
+
+    private static @NotNull ThreadFactory threadFactory(@NotNull String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + (name.contains("#") ? "" : " #" + count.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns true if this server behaves like Folia.
+     *
+     * @return true for Folia, false for Spigot.
+     */
+    public boolean isFolia() {
+        return folia;
+    }
+
+    /**
+     * Returns the number of ticks that have run.
+     *
+     * @return The current tick.
+     */
+    public long getCurrentTick() {
+        return currentTick.get();
+    }
+
+    /**
+     * Returns the number of tasks that are waiting to run, including
+     * repeating tasks.
+     *
+     * @return The number of pending tasks.
+     */
+    public int getPendingTasks() {
+        synchronized (queue) {
+            int count = 0;
+            for (VirtualTask<?> task : queue) {
+                if (!task.isCancelled())
+                    count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Runs the given number of ticks.
+     *
+     * @param ticks The number of ticks to run.
+     * @throws IllegalStateException If a task threw an exception.
+     */
+    public void tick(int ticks) {
+        for (int i = 0; i < ticks; i++)
+            tick();
+    }
+
+    /**
+     * Runs 1 tick: every task that is due runs, and this method returns once
+     * they all finished.
+     *
+     * @throws IllegalStateException If a task threw an exception.
+     */
+    public void tick() {
+        if (currentRegion.get() != null)
+            throw new IllegalStateException("Cannot tick the server from one of its tasks");
+
+        long tick = currentTick.incrementAndGet();
+        retireEntities();
+
+        List<VirtualTask<?>> due = new ArrayList<>();
+        synchronized (queue) {
+            while (!queue.isEmpty() && queue.peek().getNextRun() <= tick) {
+                VirtualTask<?> task = queue.poll();
+                if (!task.isCancelled())
+                    due.add(task);
+            }
+        }
+
+        List<VirtualTask<?>> asyncTasks = filter(due, task -> task.getLane() == VirtualTask.Lane.ASYNC);
+        List<Future<?>> asyncFutures = new ArrayList<>(asyncTasks.size());
+        for (VirtualTask<?> task : asyncTasks)
+            asyncFutures.add(asyncThreads.submit(() -> runTask(task)));
+
+        if (folia) {
+            runOn(GLOBAL_REGION, filter(due, task -> task.getLane() == VirtualTask.Lane.GLOBAL));
+
+            // Group by region, so each region's tasks run in order on 1 thread
+            List<List<VirtualTask<?>>> perThread = new ArrayList<>(regionThreads.length);
+            for (int i = 0; i < regionThreads.length; i++)
+                perThread.add(new ArrayList<>());
+            for (VirtualTask<?> task : filter(due, task -> task.getLane() == VirtualTask.Lane.REGION || task.getLane() == VirtualTask.Lane.ENTITY)) {
+                RegionKey region = regionOf(task);
+                int thread = region == null ? 0 : Math.floorMod(region.hashCode(), regionThreads.length);
+                perThread.get(thread).add(task);
+            }
+
+            List<Future<?>> regionFutures = new ArrayList<>(regionThreads.length);
+            for (int i = 0; i < regionThreads.length; i++) {
+                List<VirtualTask<?>> tasks = perThread.get(i);
+                if (!tasks.isEmpty())
+                    regionFutures.add(regionThreads[i].submit(() -> runRegions(tasks)));
+            }
+            await(regionFutures);
+        } else {
+            runOn(MAIN_THREAD, filter(due, task -> task.getLane() != VirtualTask.Lane.ASYNC));
+        }
+
+        await(asyncFutures);
+        throwExceptions(tick);
+    }
+
+    private void runRegions(@NotNull List<VirtualTask<?>> tasks) {
+        try {
+            for (VirtualTask<?> task : tasks) {
+                // Entities without a location run like global tasks
+                RegionKey region = regionOf(task);
+                currentRegion.set(region == null ? GLOBAL_REGION : region);
+                runTask(task);
+            }
+        } finally {
+            currentRegion.remove();
+        }
+    }
+
+    private void runOn(@NotNull Object region, @NotNull List<VirtualTask<?>> tasks) {
+        currentRegion.set(region);
+        try {
+            for (VirtualTask<?> task : tasks)
+                runTask(task);
+        } finally {
+            currentRegion.remove();
+        }
+    }
+
+    private void runTask(@NotNull VirtualTask<?> task) {
+        boolean again = false;
+        try {
+            again = task.run();
+        } catch (Throwable ex) {
+            synchronized (exceptions) {
+                exceptions.add(ex);
+            }
+
+            // Like on Folia, a repeating task keeps running after an exception
+            again = task.isRepeatingTask() && !task.isCancelled();
+        }
+
+        if (again) {
+            synchronized (queue) {
+                queue.add(task);
+            }
+        }
+    }
+
+    private void retireEntities() {
+        List<VirtualTask<?>> retired = new ArrayList<>();
+        synchronized (queue) {
+            Map<Entity, Boolean> valid = new IdentityHashMap<>();
+            queue.removeIf(task -> {
+                if (task.getLane() != VirtualTask.Lane.ENTITY || task.isCancelled())
+                    return false;
+                if (valid.computeIfAbsent(task.entity, Entity::isValid))
+                    return false;
+                retired.add(task);
+                return true;
+            });
+        }
+
+        retired.sort(Comparator.comparingLong(VirtualTask::getSequence));
+        for (VirtualTask<?> task : retired) {
+            try {
+                task.retire();
+            } catch (Throwable ex) {
+                synchronized (exceptions) {
+                    exceptions.add(ex);
+                }
+            }
+        }
+    }
+
+    private void throwExceptions(long tick) {
+        List<Throwable> thrown;
+        synchronized (exceptions) {
+            if (exceptions.isEmpty())
+                return;
+            thrown = new ArrayList<>(exceptions);
+            exceptions.clear();
+        }
+
+        IllegalStateException ex = new IllegalStateException(thrown.size() + " task(s) threw an exception during tick " + tick, thrown.get(0));
+        for (int i = 1; i < thrown.size(); i++)
+            ex.addSuppressed(thrown.get(i));
+        throw ex;
+    }
+
+    private static void await(@NotNull List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for tasks", ex);
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Failed to run tasks", ex.getCause());
+            }
+        }
+    }
+
+    private static @NotNull List<VirtualTask<?>> filter(@NotNull List<VirtualTask<?>> tasks, @NotNull Predicate<VirtualTask<?>> predicate) {
+        List<VirtualTask<?>> filtered = new ArrayList<>();
+        for (VirtualTask<?> task : tasks) {
+            if (predicate.test(task))
+                filtered.add(task);
+        }
+        return filtered;
+    }
+
+    private @Nullable RegionKey regionOf(@NotNull VirtualTask<?> task) {
+        if (task.getLane() == VirtualTask.Lane.REGION)
+            return RegionKey.of(Objects.requireNonNull(task.world), task.chunkX, task.chunkZ);
+        return regionOf(Objects.requireNonNull(task.entity));
+    }
+
+    private static @Nullable RegionKey regionOf(@NotNull Entity entity) {
+        Location location = entity.getLocation();
+        if (location == null || location.getWorld() == null)
+            return null;
+        return RegionKey.of(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    <T> @NotNull VirtualTask<T> schedule(@NotNull Function<TaskImplementation<T>, T> function, @NotNull VirtualTask.Lane lane, long delay, long period) {
+        // Like Folia, tasks run on the next tick at the earliest
+        long nextRun = currentTick.get() + Math.max(1L, delay);
+        return new VirtualTask<>(this, function, lane, nextRun, period, sequence.incrementAndGet());
+    }
+
+    <T> @NotNull VirtualTask<T> submit(@NotNull VirtualTask<T> task) {
+        synchronized (queue) {
+            queue.add(task);
+        }
+        return task;
+    }
+
+    void cancelTasks(@Nullable VirtualTask.Lane lane) {
+        synchronized (queue) {
+            queue.removeIf(task -> {
+                if (lane != null && task.getLane() != lane)
+                    return false;
+                task.cancel();
+                return true;
+            });
+        }
+    }
+
+    @Override
+    public @NotNull Plugin getOwningPlugin() {
+        return owningPlugin;
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull Location location) {
+        return isOwnedByCurrentRegion(location, 0);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull Location location, int squareRadiusChunks) {
+        World world = Objects.requireNonNull(location.getWorld(), "location world cannot be null");
+        return isOwnedByCurrentRegion(world, location.getBlockX() >> 4, location.getBlockZ() >> 4, squareRadiusChunks);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull Block block) {
+        return isOwnedByCurrentRegion(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull World world, int chunkX, int chunkZ) {
+        return isOwnedByCurrentRegion(world, chunkX, chunkZ, 0);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull World world, int chunkX, int chunkZ, int squareRadiusChunks) {
+        Object current = currentRegion.get();
+        if (!folia)
+            return current == MAIN_THREAD;
+
+        // Every chunk in the square must be in the current region
+        RegionKey min = RegionKey.of(world, chunkX - squareRadiusChunks, chunkZ - squareRadiusChunks);
+        RegionKey max = RegionKey.of(world, chunkX + squareRadiusChunks, chunkZ + squareRadiusChunks);
+        return min.equals(current) && max.equals(current);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(@NotNull Entity entity) {
+        Object current = currentRegion.get();
+        if (!folia)
+            return current == MAIN_THREAD;
+
+        RegionKey region = regionOf(entity);
+        return region != null && region.equals(current);
+    }
+
+    @Override
+    public @NotNull GlobalSchedulerImplementation global() {
+        return global;
+    }
+
+    @Override
+    public @NotNull AsyncSchedulerImplementation async() {
+        return async;
+    }
+
+    @Override
+    public @NotNull EntitySchedulerImplementation entity(@NotNull Entity entity) {
+        return new VirtualEntityScheduler(this, entity);
+    }
+
+    @Override
+    public @NotNull RegionSchedulerImplementation region(@NotNull World world, int chunkX, int chunkZ) {
+        return new VirtualRegionScheduler(this, world, chunkX, chunkZ);
+    }
+
+    @Override
+    public @NotNull TaskRegistry getTaskRegistry() {
+        return taskRegistry;
+    }
+
+    @Override
+    public void cancelTasks() {
+        cancelTasks(null);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> teleportAsync(@NotNull Entity entity, @NotNull Location location, PlayerTeleportEvent.@NotNull TeleportCause cause) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        TaskImplementation<Void> task = entity(entity).run(t -> {
+            future.complete(entity.teleport(location, cause));
+        }, () -> future.complete(false));
+
+        if (task == null)
+            future.complete(false);
+        return future;
+    }
+
+    /**
+     * Cancels every task, and stops the region and async threads.
+     */
+    @Override
+    public void close() {
+        cancelTasks();
+        for (ExecutorService thread : regionThreads)
+            thread.shutdownNow();
+        asyncThreads.shutdownNow();
+    }
+
+    /**
+     * Identifies a Folia region: a world, and a square of chunks.
+     */
+    private static final class RegionKey {
+        private final @NotNull UUID world;
+        private final long section;
+
+        private RegionKey(@NotNull UUID world, long section) {
+            this.world = world;
+            this.section = section;
+        }
+
+        static @NotNull RegionKey of(@NotNull World world, int chunkX, int chunkZ) {
+            return new RegionKey(world.getUID(), ChunkKeys.section(ChunkKeys.pack(chunkX, chunkZ)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RegionKey that = (RegionKey) o;
+            return section == that.section && world.equals(that.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * world.hashCode() + Long.hashCode(section * 0x9E3779B97F4A7C15L);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.cjcrafter.foliascheduler.testing;
+
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A task scheduled by a {@link VirtualServer}. Tasks only run when the
+ * server is ticked with {@link VirtualServer#tick()}.
+ *
+ * @param <T> The callback type of the task.
+ */
+public final class VirtualTask<T> implements TaskImplementation<T> {
+
+    /**
+     * Which scheduler a task was scheduled with, which decides the thread the
+     * task runs on.
+     */
+    enum Lane {
+        GLOBAL, REGION, ENTITY, ASYNC
+    }
+
+    private final @NotNull VirtualServer server;
+    private final @NotNull Function<TaskImplementation<T>, T> function;
+    private final @NotNull Lane lane;
+    private final long period;
+    private final long sequence;
+    private final @NotNull ReentrantLock lock;
+    private final @NotNull AtomicInteger running;
+    private final @NotNull CompletableFuture<TaskImplementation<T>> future;
+    private volatile long nextRun;
+    private volatile boolean cancelled;
+    private @Nullable T callback;
+
+    // Where the task runs, depending on the lane
+    @Nullable World world;
+    int chunkX;
+    int chunkZ;
+    @Nullable Entity entity;
+    @Nullable Runnable retired;
+
+    VirtualTask(@NotNull VirtualServer server, @NotNull Function<TaskImplementation<T>, T> function, @NotNull Lane lane, long nextRun, long period, long sequence) {
+        this.server = server;
+        this.function = function;
+        this.lane = lane;
+        this.nextRun = nextRun;
+        this.period = period;
+        this.sequence = sequence;
+        this.lock = new ReentrantLock();
+        this.running = new AtomicInteger();
+        this.future = new CompletableFuture<>();
+    }
+
+    @NotNull Lane getLane() {
+        return lane;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the tick this task will run next.
+     *
+     * @return The tick of the next run.
+     */
+    public long getNextRun() {
+        return nextRun;
+    }
+
+    /**
+     * Runs the task once.
+     *
+     * @return true if the task should run again.
+     * @throws Throwable Whatever the task threw.
+     */
+    boolean run() throws Throwable {
+        if (cancelled)
+            return false;
+
+        running.incrementAndGet();
+        try {
+            setCallback(function.apply(this));
+            future.complete(this);
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            running.decrementAndGet();
+            if (period > 0 && !cancelled)
+                nextRun += period;
+        }
+        return period > 0 && !cancelled;
+    }
+
+    /**
+     * Cancels the task and runs its retired callback, because its entity was
+     * removed.
+     */
+    void retire() {
+        cancelled = true;
+        if (retired != null)
+            retired.run();
+    }
+
+    @Override
+    public @NotNull Plugin getOwningPlugin() {
+        return server.getOwningPlugin();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get() > 0;
+    }
+
+    @Override
+    public boolean isRepeatingTask() {
+        return period > 0;
+    }
+
+    @Override
+    public @Nullable T getCallback() {
+        lock.lock();
+        try {
+            return callback;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setCallback(@Nullable T callback) {
+        lock.lock();
+        try {
+            this.callback = callback;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TaskImplementation<T>> asFuture() {
+        return future;
+    }
+}
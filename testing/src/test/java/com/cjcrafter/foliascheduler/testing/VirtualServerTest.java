@@ -0,0 +1,176 @@
+package com.cjcrafter.foliascheduler.testing;
+
+import com.cjcrafter.foliascheduler.TaskImplementation;
+import com.cjcrafter.foliascheduler.util.ChunkKeys;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VirtualServerTest {
+
+    private static final Plugin PLUGIN = Stubs.plugin("VirtualServerTest");
+    private static final World WORLD = Stubs.world("world");
+
+    @Test
+    public void testDelaysAreInTicks() {
+        try (VirtualServer server = VirtualServer.spigot(PLUGIN)) {
+            TaskImplementation<Void> delayed = server.global().runDelayed(task -> { }, 20L);
+            TaskImplementation<Void> async = server.async().runDelayed(task -> { }, 1L, TimeUnit.SECONDS);
+
+            server.tick(19);
+            assertFalse(delayed.asFuture().isDone());
+            assertFalse(async.asFuture().isDone());
+
+            server.tick();
+            assertTrue(delayed.asFuture().isDone());
+            assertTrue(async.asFuture().isDone());
+            assertEquals(0, server.getPendingTasks());
+        }
+    }
+
+    @Test
+    public void testRepeatingTask() {
+        try (VirtualServer server = VirtualServer.folia(PLUGIN, 2)) {
+            AtomicInteger runs = new AtomicInteger();
+            TaskImplementation<Void> task = server.region(WORLD, 0, 0).runAtFixedRate(t -> { runs.incrementAndGet(); }, 1L, 5L);
+
+            server.tick(11);
+            assertEquals(3, runs.get());
+
+            task.cancel();
+            server.tick(10);
+            assertEquals(3, runs.get());
+        }
+    }
+
+    @Test
+    public void testRegionOrderAndOwnership() {
+        try (VirtualServer server = VirtualServer.folia(PLUGIN, 4)) {
+            List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+            AtomicBoolean owned = new AtomicBoolean();
+            AtomicBoolean ownsOther = new AtomicBoolean(true);
+
+            for (int i = 0; i < 10; i++) {
+                int index = i;
+                server.region(WORLD, 1, 1).run(task -> { order.add(index); });
+            }
+            server.region(WORLD, 2, 2).run(task -> {
+                owned.set(server.isOwnedByCurrentRegion(WORLD, 15, 15));
+                ownsOther.set(server.isOwnedByCurrentRegion(WORLD, 16, 0));
+            });
+
+            server.tick();
+            assertEquals(10, order.size());
+            for (int i = 0; i < 10; i++)
+                assertEquals(Integer.valueOf(i), order.get(i));
+            assertTrue(owned.get());
+            assertFalse(ownsOther.get());
+            assertFalse(server.isOwnedByCurrentRegion(WORLD, 0, 0));
+        }
+    }
+
+    @Test
+    public void testEntityRetired() {
+        try (VirtualServer server = VirtualServer.folia(PLUGIN, 2)) {
+            AtomicBoolean valid = new AtomicBoolean(true);
+            Entity entity = Stubs.entity(new Location(WORLD, 100, 64, -100), valid::get);
+            AtomicInteger runs = new AtomicInteger();
+            AtomicInteger retired = new AtomicInteger();
+
+            server.entity(entity).runAtFixedRate(t -> { runs.incrementAndGet(); }, retired::incrementAndGet, 1L, 1L);
+            server.tick(3);
+            assertEquals(3, runs.get());
+
+            valid.set(false);
+            server.tick(3);
+            assertEquals(3, runs.get());
+            assertEquals(1, retired.get());
+
+            // Like Folia, scheduling on a removed entity does nothing
+            assertNull(server.entity(entity).run(t -> { }, retired::incrementAndGet));
+            assertEquals(1, retired.get());
+        }
+    }
+
+    @Test
+    public void testExceptionsAreThrownFromTick() {
+        try (VirtualServer server = VirtualServer.spigot(PLUGIN)) {
+            AtomicInteger runs = new AtomicInteger();
+            server.global().execute(() -> {
+                throw new IllegalArgumentException("expected");
+            });
+            server.global().execute(runs::incrementAndGet);
+
+            IllegalStateException ex = assertThrows(IllegalStateException.class, server::tick);
+            assertTrue(ex.getCause() instanceof IllegalArgumentException);
+            assertEquals(1, runs.get());
+        }
+    }
+
+    @Test
+    public void testTeleportAllIsBudgeted() {
+        try (VirtualServer server = VirtualServer.spigot(PLUGIN)) {
+            AtomicInteger teleports = new AtomicInteger();
+            Map<Entity, Location> destinations = new HashMap<>();
+            for (int i = 0; i < 5; i++) {
+                // The last entity is removed before its turn, like a player that quit
+                boolean valid = i < 4;
+                Entity entity = Stubs.stub(Entity.class, (method, args) -> {
+                    switch (method) {
+                        case "isValid": return valid;
+                        case "teleport": teleports.incrementAndGet(); return true;
+                        default: return null;
+                    }
+                });
+                destinations.put(entity, new Location(WORLD, i * 10, 64, 0));
+            }
+
+            CompletableFuture<Map<Entity, Boolean>> future = server.teleportAllAsync(destinations, PlayerTeleportEvent.TeleportCause.PLUGIN, 2);
+            server.tick();
+            assertTrue(teleports.get() <= 2);
+            assertFalse(future.isDone());
+
+            server.tick(10);
+            assertEquals(4, teleports.get());
+            assertTrue(future.isDone());
+            assertEquals(5, future.join().size());
+            assertEquals(4, future.join().values().stream().filter(Boolean::booleanValue).count());
+            assertEquals(0, server.getPendingTasks());
+        }
+    }
+
+    @Test
+    public void testWhenLoadedRunsOnRegion() {
+        try (VirtualServer server = VirtualServer.folia(PLUGIN, 2)) {
+            AtomicBoolean owned = new AtomicBoolean();
+            long[] chunks = { ChunkKeys.pack(0, 0), ChunkKeys.pack(1, 0), ChunkKeys.pack(0, 1) };
+            CompletableFuture<TaskImplementation<Void>> future = server.region(WORLD, 0, 0).whenLoaded(WORLD, chunks, task -> {
+                owned.set(server.isOwnedByCurrentRegion(WORLD, 1, 1));
+            });
+
+            assertFalse(future.isDone());
+            server.tick();
+            assertTrue(future.isDone());
+            assertTrue(owned.get());
+        }
+    }
+}